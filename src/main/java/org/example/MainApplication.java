@@ -5,6 +5,7 @@ import org.example.enums.FrontEndTypeEnum;
 import org.example.exceptions.PropertyException;
 import org.example.exceptions.ResourceNotFoundException;
 import org.example.loggers_general.GeneralLogger;
+import org.example.services.CacheWarmupService;
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Scene;
@@ -37,6 +38,8 @@ public class MainApplication extends Application {
 
     public static void main(String[] args) {
         try {
+            // Precarica le cache prima della schermata di login (o in background, secondo le properties)
+            CacheWarmupService.getInstance().start();
 
             FrontEndTypeEnum frontEndType = FrontEndTypeEnum
                     .getFrontEndTypeByValue(PropertiesHandler.getInstance().getProperty("front_end_type"));
@@ -33,4 +33,15 @@ public class PropertiesHandler {
             return propertyValue;
         throw new PropertyException(ExceptionMessagesEnum.UNEXPECTED_PROPERTY_NAME.message);
     }
+
+    /**
+     * Returns the value of an optional property
+     *
+     * @param propertyName the name of the property
+     * @param defaultValue the value returned when the property is not set
+     * @return the property value, or the default one
+     */
+    public String getProperty(String propertyName, String defaultValue) {
+        return properties.getProperty(propertyName, defaultValue);
+    }
 }
@@ -0,0 +1,37 @@
+package org.example.csv;
+
+/**
+ * Manager for the tables of the binary persistence mode. Offers the same
+ * operations, locking, caching and crash safety as {@link CSVFileManager}, but
+ * stores rows as length-prefixed binary records (see {@link BinaryRowFormat}) in
+ * their own directory, and keeps a sidecar key index for every file.
+ */
+public class BinaryFileManager extends CSVFileManager {
+
+    private static BinaryFileManager instance;
+
+    // Default directory for binary files (in project resources)
+    private static final String DEFAULT_BIN_DIR = "src/main/resources/bin/";
+
+    private BinaryFileManager() {
+        this(DEFAULT_BIN_DIR);
+    }
+
+    BinaryFileManager(String binDirectory) {
+        super(binDirectory, new BinaryRowFormat(), true);
+    }
+
+    public static synchronized BinaryFileManager getInstance() {
+        if (instance == null) {
+            instance = new BinaryFileManager();
+        }
+        return instance;
+    }
+
+    public static synchronized BinaryFileManager getInstance(String customDirectory) {
+        if (instance == null) {
+            instance = new BinaryFileManager(customDirectory);
+        }
+        return instance;
+    }
+}
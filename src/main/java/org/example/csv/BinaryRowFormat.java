@@ -0,0 +1,73 @@
+package org.example.csv;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Compact binary format. Every record has the same header layout, followed by
+ * fields of variable length:
+ *
+ * <pre>
+ * int   length of the rest of the record
+ * short number of fields
+ * int[] end offset of each field, relative to the start of the data
+ * byte[] the fields, UTF-8, back to back
+ * </pre>
+ *
+ * Rows are split by reading the offsets instead of looking for delimiters,
+ * and nothing needs quoting or escaping. Fields are not padded to a fixed
+ * width: they hold free text (descriptions, lists of ids) with no upper bound,
+ * and the offset table already gives direct access to each of them.
+ */
+class BinaryRowFormat implements RowFormat {
+
+    @Override
+    public String extension() {
+        return ".bin";
+    }
+
+    @Override
+    public byte[] encode(List<String[]> rows) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        for (String[] row : rows) {
+            if (row.length > 0xFFFF) {
+                throw new IOException("Too many fields for a binary record: " + row.length);
+            }
+            byte[][] fields = new byte[row.length][];
+            int dataLength = 0;
+            for (int i = 0; i < row.length; i++) {
+                fields[i] = row[i] == null ? new byte[0] : row[i].getBytes(StandardCharsets.UTF_8);
+                dataLength += fields[i].length;
+            }
+            out.writeInt(2 + 4 * row.length + dataLength);
+            out.writeShort(row.length);
+            int end = 0;
+            for (byte[] field : fields) {
+                end += field.length;
+                out.writeInt(end);
+            }
+            for (byte[] field : fields) {
+                out.write(field);
+            }
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    @Override
+    public List<String[]> decode(Path file) throws IOException {
+        return new BinaryRowReader(ByteBuffer.wrap(Files.readAllBytes(file))).readAll();
+    }
+
+    @Override
+    public MappedRowReader reader(ByteBuffer buffer) {
+        return new BinaryRowReader(buffer);
+    }
+}
@@ -0,0 +1,84 @@
+package org.example.csv;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Cursor over the records of a {@link BinaryRowFormat} file. Each record
+ * carries the end offset of every field, so a row is split without looking at
+ * its bytes. Stops at the first torn or corrupt record.
+ */
+class BinaryRowReader extends MappedRowReader {
+
+    // Record length + field count
+    static final int RECORD_HEADER_BYTES = 4 + 2;
+
+    BinaryRowReader(ByteBuffer buffer) {
+        super(buffer, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    boolean nextRow() {
+        int limit = buffer.limit();
+        if (limit - position < RECORD_HEADER_BYTES) {
+            return false;
+        }
+        int length = buffer.getInt(position);
+        if (length < 2 || length > limit - position - 4) {
+            return false;
+        }
+        int recordEnd = position + 4 + length;
+        int count = buffer.getShort(position + 4) & 0xFFFF;
+        int dataStart = position + RECORD_HEADER_BYTES + 4 * count;
+        if (dataStart > recordEnd) {
+            return false;
+        }
+        ensureCapacity(count);
+        int start = dataStart;
+        for (int i = 0; i < count; i++) {
+            int end = dataStart + buffer.getInt(position + RECORD_HEADER_BYTES + 4 * i);
+            if (end < start || end > recordEnd) {
+                return false;
+            }
+            starts[i] = start;
+            ends[i] = end;
+            escaped[i] = false;
+            start = end;
+        }
+        fieldCount = count;
+        rowStart = position;
+        position = recordEnd;
+        return true;
+    }
+
+    /**
+     * Walks the record headers only, jumping from one record to the next.
+     */
+    @Override
+    int[] split(int from, int parts) {
+        int limit = buffer.limit();
+        int step = (limit - from) / Math.max(parts, 1);
+        if (parts <= 1 || step == 0) {
+            return super.split(from, parts);
+        }
+        int[] bounds = new int[parts + 1];
+        bounds[0] = from;
+        int count = 1;
+        int next = from + step;
+        int pos = from;
+        while (count < parts && limit - pos >= RECORD_HEADER_BYTES) {
+            int length = buffer.getInt(pos);
+            if (length < 2 || length > limit - pos - 4) {
+                break; // Torn record: the last range stops there
+            }
+            pos += 4 + length;
+            if (pos >= next && pos < limit) {
+                bounds[count++] = pos;
+                next = pos + step;
+            }
+        }
+        bounds[count++] = limit;
+        return Arrays.copyOf(bounds, count);
+    }
+}
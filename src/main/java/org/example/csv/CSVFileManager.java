@@ -1,41 +1,146 @@
 package org.example.csv;
 
-import com.opencsv.CSVReader;
-import com.opencsv.CSVWriter;
-import com.opencsv.exceptions.CsvException;
+import org.example.PropertiesHandler;
 import org.example.enums.ExceptionMessagesEnum;
 import org.example.exceptions.DAOException;
+import org.example.exceptions.ResourceNotFoundException;
 
-import java.io.*;
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
  * Manager for CSV file operations with support for both read and write.
  * Provides thread-safe access to CSV files with automatic backup functionality.
+ * <p>
+ * Parsed files are cached until they change on disk;
+ * {@link #scan(String, Predicate, int...)} reads through a memory mapping
+ * instead (see {@link MappedRowReader}). Writes go through a
+ * {@link CsvJournal}, appends are buffered by a {@link WriteBehindBuffer} until
+ * {@link #flush(String)}, and registered files can be kept as
+ * {@link LogTable}s or keep a {@link SidecarIndex}. The bytes on disk are
+ * produced by a {@link RowFormat}.
  */
 public class CSVFileManager {
 
+    private static final Logger logger = Logger.getLogger(CSVFileManager.class.getName());
+
     private static CSVFileManager instance;
     private final String csvDirectory;
-    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, ReentrantReadWriteLock> locks = new ConcurrentHashMap<>();
+    private final Map<String, CachedTable> tableCache = new ConcurrentHashMap<>();
+    private final Map<String, LogTable> logTables = new ConcurrentHashMap<>();
+    private final long compactionMinGarbage;
+    private final double compactionGarbageRatio;
+    private ExecutorService compactor;
+    private final CsvJournal journal;
+    private final WriteBehindBuffer writeBehind;
+    private final boolean mappedReads;
+    private final long parallelScanMinBytes;
+    private final RowFormat format;
+    private final SidecarIndex sidecar;
+    private final Map<String, Integer> indexedFiles = new ConcurrentHashMap<>();
+    private final boolean indexAllFiles;
 
     // Default directory for CSV files (in project resources)
     private static final String DEFAULT_CSV_DIR = "src/main/resources/csv/";
+    private static final String JOURNAL_FILENAME = "csv_journal.log";
+    private static final long DEFAULT_JOURNAL_MAX_BYTES = 1024 * 1024L;
+    private static final int DEFAULT_WRITE_BEHIND_MAX_ROWS = 256;
+    private static final long DEFAULT_WRITE_BEHIND_FLUSH_MS = 50;
+    private static final long DEFAULT_PARALLEL_SCAN_MIN_BYTES = 4 * 1024 * 1024L;
 
     private CSVFileManager() {
-        this.csvDirectory = DEFAULT_CSV_DIR;
+        this(DEFAULT_CSV_DIR);
+    }
+
+    CSVFileManager(String csvDirectory) {
+        this(csvDirectory, new CsvRowFormat(), false);
+    }
+
+    /**
+     * @param indexAllFiles whether every file keeps a sidecar index on its key
+     *                      column, not just the registered ones
+     */
+    CSVFileManager(String csvDirectory, RowFormat format, boolean indexAllFiles) {
+        this.csvDirectory = csvDirectory;
+        this.format = format;
+        this.sidecar = new SidecarIndex(format);
+        this.indexAllFiles = indexAllFiles;
+        long minGarbage = 1000;
+        double garbageRatio = 0.5;
+        long journalMaxBytes = DEFAULT_JOURNAL_MAX_BYTES;
+        int maxRows = DEFAULT_WRITE_BEHIND_MAX_ROWS;
+        long flushMillis = DEFAULT_WRITE_BEHIND_FLUSH_MS;
+        boolean mapped = false;
+        long parallelMinBytes = DEFAULT_PARALLEL_SCAN_MIN_BYTES;
+        try {
+            PropertiesHandler properties = PropertiesHandler.getInstance();
+            minGarbage = Long.parseLong(
+                    properties.getProperty("csv_compaction_min_garbage", String.valueOf(minGarbage)));
+            garbageRatio = Double.parseDouble(
+                    properties.getProperty("csv_compaction_ratio", String.valueOf(garbageRatio)));
+            journalMaxBytes = Long.parseLong(
+                    properties.getProperty("csv_journal_max_bytes", String.valueOf(journalMaxBytes)));
+            maxRows = Integer.parseInt(
+                    properties.getProperty("csv_write_behind_max_rows", String.valueOf(maxRows)));
+            flushMillis = Long.parseLong(
+                    properties.getProperty("csv_write_behind_flush_ms", String.valueOf(flushMillis)));
+            mapped = Boolean.parseBoolean(properties.getProperty("csv_mapped_reads", String.valueOf(mapped)));
+            parallelMinBytes = Long.parseLong(
+                    properties.getProperty("csv_parallel_scan_min_bytes", String.valueOf(parallelMinBytes)));
+        } catch (ResourceNotFoundException e) {
+            logger.warning("Properties not found, using default CSV compaction, journal and write-behind settings");
+        }
+        this.compactionMinGarbage = minGarbage;
+        this.compactionGarbageRatio = garbageRatio;
+        this.writeBehind = new WriteBehindBuffer(maxRows, flushMillis, this::flushQuietly);
+        this.mappedReads = mapped;
+        this.parallelScanMinBytes = parallelMinBytes;
         ensureDirectoryExists();
+        this.journal = openJournal(journalMaxBytes);
     }
 
-    private CSVFileManager(String csvDirectory) {
+    CSVFileManager(String csvDirectory, long compactionMinGarbage, double compactionGarbageRatio) {
+        this(csvDirectory, compactionMinGarbage, compactionGarbageRatio, DEFAULT_PARALLEL_SCAN_MIN_BYTES);
+    }
+
+    /**
+     * @param parallelScanMinBytes the file size from which scans run in
+     *                             parallel
+     */
+    CSVFileManager(String csvDirectory, long compactionMinGarbage, double compactionGarbageRatio,
+            long parallelScanMinBytes) {
         this.csvDirectory = csvDirectory;
+        this.format = new CsvRowFormat();
+        this.sidecar = new SidecarIndex(format);
+        this.indexAllFiles = false;
+        this.compactionMinGarbage = compactionMinGarbage;
+        this.compactionGarbageRatio = compactionGarbageRatio;
+        this.writeBehind = new WriteBehindBuffer(DEFAULT_WRITE_BEHIND_MAX_ROWS, DEFAULT_WRITE_BEHIND_FLUSH_MS,
+                this::flushQuietly);
+        this.mappedReads = false;
+        this.parallelScanMinBytes = parallelScanMinBytes;
         ensureDirectoryExists();
+        this.journal = openJournal(DEFAULT_JOURNAL_MAX_BYTES);
     }
 
     public static synchronized CSVFileManager getInstance() {
@@ -66,15 +171,28 @@ public class CSVFileManager {
         }
     }
 
+    /**
+     * Opens the write-ahead journal, re-applying the appends a crash may have
+     * left out of their files.
+     */
+    private CsvJournal openJournal(long maxBytes) {
+        try {
+            return CsvJournal.open(Paths.get(csvDirectory, JOURNAL_FILENAME), maxBytes);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot recover CSV journal in: " + csvDirectory, e);
+        }
+    }
+
     /**
      * Gets the full path to a CSV file.
      *
-     * @param filename the filename (with or without .csv extension)
+     * @param filename the filename (with or without the extension of the
+     *                 format, .csv by default)
      * @return the full path
      */
     public String getFilePath(String filename) {
-        if (!filename.endsWith(".csv")) {
-            filename = filename + ".csv";
+        if (!filename.endsWith(format.extension())) {
+            filename = filename + format.extension();
         }
         return csvDirectory + filename;
     }
@@ -87,23 +205,7 @@ public class CSVFileManager {
      * @throws DAOException if an error occurs during reading
      */
     public List<String[]> readAll(String filename) throws DAOException {
-        lock.readLock().lock();
-        try {
-            String filePath = getFilePath(filename);
-            File file = new File(filePath);
-
-            if (!file.exists()) {
-                return new ArrayList<>();
-            }
-
-            try (CSVReader reader = new CSVReader(new FileReader(file))) {
-                return reader.readAll();
-            } catch (IOException | CsvException e) {
-                throw new DAOException(ExceptionMessagesEnum.DAO.message, e);
-            }
-        } finally {
-            lock.readLock().unlock();
-        }
+        return copyRows(snapshot(filename).rows);
     }
 
     /**
@@ -121,6 +223,172 @@ public class CSVFileManager {
         return allLines;
     }
 
+    /**
+     * Hands the rows of a CSV file, skipping the header row, to a consumer one
+     * at a time without copying the cached table. The rows are shared with the
+     * cache and must not be modified.
+     *
+     * @param filename the CSV file name
+     * @param consumer receives each row in file order
+     * @throws DAOException if an error occurs during reading
+     */
+    public void forEachRowWithoutHeader(String filename, Consumer<String[]> consumer) throws DAOException {
+        // The snapshot is never modified, so it can be walked while others write
+        List<String[]> rows = snapshot(filename).rows;
+        for (int i = 1; i < rows.size(); i++) {
+            consumer.accept(rows.get(i));
+        }
+    }
+
+    /**
+     * Finds the rows (header excluded) whose value in a column matches a key,
+     * ignoring case, through a hash index built on first use and kept until
+     * the file changes. The rows are shared with the cache and must not be
+     * modified.
+     *
+     * @param filename the CSV file name
+     * @param column   the index of the key column (0-based)
+     * @param key      the value to look for
+     * @return the matching rows in file order, empty if none
+     * @throws DAOException if an error occurs during reading
+     */
+    public List<String[]> findRows(String filename, int column, String key) throws DAOException {
+        if (key == null) {
+            return Collections.emptyList();
+        }
+        if (!isCached(filename)) {
+            List<String[]> indexed = column == sidecarColumn(getFilePath(filename))
+                    ? indexedLookup(filename, column, key) : null;
+            if (indexed != null) {
+                return indexed;
+            }
+            if (mappedReads) {
+                return scan(filename, row -> row.fieldEqualsIgnoreCase(column, key));
+            }
+        }
+        return snapshot(filename).lookup(column, key);
+    }
+
+    /**
+     * Looks a key up through the sidecar index of a file.
+     *
+     * @return the matching rows, or null if the file does not exist
+     */
+    private List<String[]> indexedLookup(String filename, int column, String key) throws DAOException {
+        String filePath = getFilePath(filename);
+        if (writeBehind.hasPending(filePath)) {
+            flush(filename);
+        }
+        ReentrantReadWriteLock fileLock = lockFor(filename);
+        fileLock.readLock().lock();
+        try {
+            Path file = Paths.get(filePath);
+            if (!Files.exists(file)) {
+                return null;
+            }
+            return sidecar.lookup(file, column, key, logTables.get(filePath));
+        } catch (IOException e) {
+            throw new DAOException(ExceptionMessagesEnum.DAO.message, e);
+        } finally {
+            fileLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The column the sidecar index of a file is built on: the registered one,
+     * or when every file is indexed the key of its log table or the first
+     * column.
+     *
+     * @return the column, or -1 if the file keeps no sidecar index
+     */
+    private int sidecarColumn(String filePath) {
+        Integer registered = indexedFiles.get(filePath);
+        if (registered != null) {
+            return registered;
+        }
+        if (!indexAllFiles) {
+            return -1;
+        }
+        LogTable log = logTables.get(filePath);
+        return log != null ? log.getKeyColumn() : 0;
+    }
+
+    /**
+     * Scans a CSV file through a memory mapping, materializing only the rows
+     * (header excluded) the predicate selects and only the requested columns.
+     * The predicate sees every row, before later versions and tombstones of a
+     * log table are applied, and must not keep the view it is given. Files of
+     * at least {@code csv_parallel_scan_min_bytes} are split into chunks
+     * scanned in parallel, so the predicate may be called from several
+     * threads at once.
+     *
+     * @param filename  the CSV file name
+     * @param predicate selects the rows to return
+     * @param columns   the indexes of the columns to return (0-based), all of
+     *                  them if none are given
+     * @return the selected rows in file order, with the requested columns in
+     *         the requested order
+     * @throws DAOException if an error occurs during reading
+     */
+    public List<String[]> scan(String filename, Predicate<CsvRow> predicate, int... columns) throws DAOException {
+        String filePath = getFilePath(filename);
+        if (writeBehind.hasPending(filePath)) {
+            flush(filename);
+        }
+        ReentrantReadWriteLock fileLock = lockFor(filename);
+        fileLock.readLock().lock();
+        try {
+            if (!Files.exists(Paths.get(filePath))) {
+                return new ArrayList<>();
+            }
+            MappedByteBuffer mapped = MappedRowReader.map(Paths.get(filePath));
+            if (mapped == null) {
+                return new ArrayList<>();
+            }
+            int parts = mapped.limit() < parallelScanMinBytes ? 1 : ForkJoinPool.getCommonPoolParallelism();
+            return MappedRowReader.scan(format, mapped, parts, predicate, columns, logTables.get(filePath));
+        } catch (IOException e) {
+            throw new DAOException(ExceptionMessagesEnum.DAO.message, e);
+        } finally {
+            fileLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns a file (header excluded) decoded into typed columns, built on
+     * first use from the cached table and kept until the file changes. Reads
+     * served from it take no lock and parse nothing.
+     *
+     * @param filename the CSV file name
+     * @param schema   the types of the columns of the file
+     * @return the columnar table, empty if the file does not exist
+     * @throws DAOException if an error occurs during reading
+     */
+    public ColumnarTable columnar(String filename, TableSchema schema) throws DAOException {
+        return snapshot(filename).columnar(schema);
+    }
+
+    private boolean isCached(String filename) {
+        String filePath = getFilePath(filename);
+        CachedTable cached = tableCache.get(filePath);
+        return cached != null && !writeBehind.hasPending(filePath) && cached.matches(new File(filePath));
+    }
+
+    /**
+     * Finds the first row (header excluded) whose value in a column matches a
+     * key, ignoring case.
+     *
+     * @param filename the CSV file name
+     * @param column   the index of the key column (0-based)
+     * @param key      the value to look for
+     * @return the first matching row, or null if none
+     * @throws DAOException if an error occurs during reading
+     */
+    public String[] findRow(String filename, int column, String key) throws DAOException {
+        List<String[]> rows = findRows(filename, column, key);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
     /**
      * Writes all lines to a CSV file, overwriting existing content.
      *
@@ -129,40 +397,120 @@ public class CSVFileManager {
      * @throws DAOException if an error occurs during writing
      */
     public void writeAll(String filename, List<String[]> data) throws DAOException {
-        lock.writeLock().lock();
+        ReentrantReadWriteLock fileLock = lockFor(filename);
+        fileLock.writeLock().lock();
         try {
-            String filePath = getFilePath(filename);
-            createBackup(filePath);
-
-            try (CSVWriter writer = new CSVWriter(new FileWriter(filePath))) {
-                writer.writeAll(data);
-            } catch (IOException e) {
-                throw new DAOException(ExceptionMessagesEnum.DAO.message, e);
-            }
+            flushPending(getFilePath(filename));
+            writeAllInternal(filename, data);
         } finally {
-            lock.writeLock().unlock();
+            fileLock.writeLock().unlock();
         }
     }
 
     /**
-     * Appends a single line to a CSV file.
+     * Appends a single line to a CSV file. The line is buffered and may reach
+     * the disk later, see {@link #flush(String)}.
      *
      * @param filename the CSV file name
      * @param line     the line to append
      * @throws DAOException if an error occurs during writing
      */
     public void appendLine(String filename, String[] line) throws DAOException {
-        lock.writeLock().lock();
-        try {
-            String filePath = getFilePath(filename);
+        appendLines(filename, Collections.singletonList(line));
+    }
 
-            try (CSVWriter writer = new CSVWriter(new FileWriter(filePath, true))) {
-                writer.writeNext(line);
-            } catch (IOException e) {
-                throw new DAOException(ExceptionMessagesEnum.DAO.message, e);
+    /**
+     * Appends several lines to a CSV file. The lines are buffered and may
+     * reach the disk later, see {@link #flush(String)}.
+     *
+     * @param filename the CSV file name
+     * @param lines    the lines to append
+     * @throws DAOException if an error occurs during writing
+     */
+    public void appendLines(String filename, List<String[]> lines) throws DAOException {
+        if (lines.isEmpty()) {
+            return;
+        }
+        if (!writeBehind.isEnabled()) {
+            ReentrantReadWriteLock fileLock = lockFor(filename);
+            fileLock.writeLock().lock();
+            try {
+                appendInternal(getFilePath(filename), lines);
+            } finally {
+                fileLock.writeLock().unlock();
             }
+            return;
+        }
+        if (writeBehind.add(getFilePath(filename), lines)) {
+            flush(filename);
+        }
+    }
+
+    /**
+     * Writes the lines buffered for a CSV file and waits for them to be
+     * durable. Returns once every line appended before the call is on disk.
+     *
+     * @param filename the CSV file name
+     * @throws DAOException if an error occurs during writing
+     */
+    public void flush(String filename) throws DAOException {
+        ReentrantReadWriteLock fileLock = lockFor(filename);
+        fileLock.writeLock().lock();
+        try {
+            flushPending(getFilePath(filename));
         } finally {
-            lock.writeLock().unlock();
+            fileLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Writes the lines buffered for every CSV file and waits for them to be
+     * durable.
+     *
+     * @throws DAOException if an error occurs during writing, after trying
+     *                      every file
+     */
+    public void flush() throws DAOException {
+        DAOException failure = null;
+        for (String filePath : writeBehind.pendingFiles()) {
+            ReentrantReadWriteLock fileLock = locks.computeIfAbsent(filePath, k -> new ReentrantReadWriteLock());
+            fileLock.writeLock().lock();
+            try {
+                flushPending(filePath);
+            } catch (DAOException e) {
+                failure = e;
+            } finally {
+                fileLock.writeLock().unlock();
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Writes the buffered lines of a file as a single append (used when the
+     * file's write lock is held, before any other write to keep the order).
+     */
+    private void flushPending(String filePath) throws DAOException {
+        List<String[]> lines = writeBehind.drain(filePath);
+        if (lines.isEmpty()) {
+            return;
+        }
+        try {
+            appendInternal(filePath, lines);
+        } catch (DAOException e) {
+            writeBehind.putBack(filePath, lines);
+            throw e;
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (DAOException e) {
+            // The rows stay buffered and the next flush retries them
+            logger.log(Level.SEVERE, "Write-behind flush of CSV appends failed", e);
         }
     }
 
@@ -175,18 +523,24 @@ public class CSVFileManager {
      * @throws DAOException if an error occurs during the operation
      */
     public void updateLine(String filename, int lineIndex, String[] newLine) throws DAOException {
-        lock.writeLock().lock();
+        ReentrantReadWriteLock fileLock = lockFor(filename);
+        fileLock.writeLock().lock();
         try {
+            flushPending(getFilePath(filename));
             List<String[]> allLines = readAllInternal(filename);
 
-            if (lineIndex >= 0 && lineIndex < allLines.size()) {
+            if (lineIndex < 0 || lineIndex >= allLines.size()) {
+                throw new DAOException("Invalid line index: " + lineIndex);
+            }
+            LogTable log = logTable(filename);
+            if (lineIndex > 0 && log != null && log.isUniqueKey()) {
+                appendToLog(filename, log, log.replacement(allLines.get(lineIndex), newLine));
+            } else {
                 allLines.set(lineIndex, newLine);
                 writeAllInternal(filename, allLines);
-            } else {
-                throw new DAOException("Invalid line index: " + lineIndex);
             }
         } finally {
-            lock.writeLock().unlock();
+            fileLock.writeLock().unlock();
         }
     }
 
@@ -198,18 +552,167 @@ public class CSVFileManager {
      * @throws DAOException if an error occurs during the operation
      */
     public void deleteLine(String filename, int lineIndex) throws DAOException {
-        lock.writeLock().lock();
+        ReentrantReadWriteLock fileLock = lockFor(filename);
+        fileLock.writeLock().lock();
         try {
+            flushPending(getFilePath(filename));
             List<String[]> allLines = readAllInternal(filename);
 
-            if (lineIndex >= 0 && lineIndex < allLines.size()) {
+            if (lineIndex < 0 || lineIndex >= allLines.size()) {
+                throw new DAOException("Invalid line index: " + lineIndex);
+            }
+            LogTable log = logTable(filename);
+            if (lineIndex > 0 && log != null && log.isUniqueKey()) {
+                appendToLog(filename, log, log.deletion(allLines.get(lineIndex)));
+            } else {
                 allLines.remove(lineIndex);
                 writeAllInternal(filename, allLines);
-            } else {
-                throw new DAOException("Invalid line index: " + lineIndex);
             }
         } finally {
-            lock.writeLock().unlock();
+            fileLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Registers a file as an append-only record log keyed by one column.
+     * Must be called before the file is first read.
+     *
+     * @param filename  the CSV file name
+     * @param keyColumn the index of the key column (0-based)
+     * @param uniqueKey true if a new row replaces the previous one with the
+     *                  same key, false if rows accumulate under their key
+     *                  until a tombstone removes them
+     */
+    public void registerLogTable(String filename, int keyColumn, boolean uniqueKey) {
+        String filePath = getFilePath(filename);
+        logTables.putIfAbsent(filePath, new LogTable(keyColumn, uniqueKey));
+        tableCache.remove(filePath);
+    }
+
+    /**
+     * Keeps a persistent sidecar index of a file on one column, so that
+     * {@link #findRows(String, int, String)} on that column reads only the
+     * matching rows while the file is not cached. Log table tombstones are
+     * indexed under the key they remove, so the column should be the key of
+     * the log table if the file is one.
+     *
+     * @param filename the CSV file name
+     * @param column   the index of the column to index (0-based)
+     */
+    public void registerKeyIndex(String filename, int column) {
+        indexedFiles.putIfAbsent(getFilePath(filename), column);
+    }
+
+    /**
+     * Stores new versions of rows of a unique-key log table by appending them;
+     * readers see each appended row in place of the previous one with the same
+     * key.
+     *
+     * @param filename the CSV file name
+     * @param rows     the new row versions
+     * @throws DAOException if the file is not a unique-key log table or an
+     *                      error occurs during writing
+     */
+    public void upsertRows(String filename, List<String[]> rows) throws DAOException {
+        LogTable log = logTable(filename);
+        if (log == null || !log.isUniqueKey()) {
+            throw new DAOException("Not a unique-key log table: " + filename);
+        }
+        if (rows.isEmpty()) {
+            return;
+        }
+        ReentrantReadWriteLock fileLock = lockFor(filename);
+        fileLock.writeLock().lock();
+        try {
+            flushPending(getFilePath(filename));
+            appendToLog(filename, log, rows);
+        } finally {
+            fileLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Deletes every row with the given key from a log table by appending a
+     * tombstone.
+     *
+     * @param filename the CSV file name
+     * @param key      the key of the rows to delete
+     * @throws DAOException if the file is not a log table or an error occurs
+     *                      during writing
+     */
+    public void deleteRows(String filename, String key) throws DAOException {
+        LogTable log = logTable(filename);
+        if (log == null) {
+            throw new DAOException("Not a log table: " + filename);
+        }
+        ReentrantReadWriteLock fileLock = lockFor(filename);
+        fileLock.writeLock().lock();
+        try {
+            flushPending(getFilePath(filename));
+            appendToLog(filename, log, Collections.singletonList(LogTable.tombstone(key)));
+        } finally {
+            fileLock.writeLock().unlock();
+        }
+    }
+
+    private LogTable logTable(String filename) {
+        return logTables.get(getFilePath(filename));
+    }
+
+    /**
+     * Appends versions or tombstones to a log table and schedules a compaction
+     * when garbage crosses the threshold (used when the write lock is held).
+     */
+    private void appendToLog(String filename, LogTable log, List<String[]> records) throws DAOException {
+        String filePath = getFilePath(filename);
+        appendInternal(filePath, records);
+        log.addGarbage(records.size());
+        if (log.scheduleCompaction(compactionMinGarbage, compactionGarbageRatio)) {
+            compactor().execute(() -> {
+                try {
+                    compact(filename);
+                } catch (DAOException e) {
+                    // Already logged, the next append will schedule it again
+                }
+            });
+        }
+    }
+
+    private synchronized ExecutorService compactor() {
+        if (compactor == null) {
+            compactor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "csv-compactor");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return compactor;
+    }
+
+    /**
+     * Rewrites a log table with its live rows only, dropping superseded
+     * versions and tombstones.
+     *
+     * @param filename the CSV file name
+     * @throws DAOException if an error occurs during the rewrite
+     */
+    public void compact(String filename) throws DAOException {
+        ReentrantReadWriteLock fileLock = lockFor(filename);
+        fileLock.writeLock().lock();
+        try {
+            LogTable log = logTable(filename);
+            if (log != null) {
+                log.compactionStarted();
+            }
+            flushPending(getFilePath(filename));
+            if (log != null) {
+                writeAllInternal(filename, readAllInternal(filename));
+            }
+        } catch (DAOException e) {
+            logger.log(Level.WARNING, e, () -> "Compaction of " + filename + " failed");
+            throw e;
+        } finally {
+            fileLock.writeLock().unlock();
         }
     }
 
@@ -221,20 +724,17 @@ public class CSVFileManager {
      * @throws DAOException if an error occurs
      */
     public void createFileWithHeader(String filename, String[] header) throws DAOException {
-        lock.writeLock().lock();
+        ReentrantReadWriteLock fileLock = lockFor(filename);
+        fileLock.writeLock().lock();
         try {
             String filePath = getFilePath(filename);
             File file = new File(filePath);
 
-            if (!file.exists()) {
-                try (CSVWriter writer = new CSVWriter(new FileWriter(file))) {
-                    writer.writeNext(header);
-                } catch (IOException e) {
-                    throw new DAOException(ExceptionMessagesEnum.DAO.message, e);
-                }
+            if (!file.exists() && !writeBehind.hasPending(filePath)) {
+                appendInternal(filePath, Collections.singletonList(header));
             }
         } finally {
-            lock.writeLock().unlock();
+            fileLock.writeLock().unlock();
         }
     }
 
@@ -245,25 +745,52 @@ public class CSVFileManager {
      * @return true if the file exists
      */
     public boolean fileExists(String filename) {
-        return new File(getFilePath(filename)).exists();
+        String filePath = getFilePath(filename);
+        return new File(filePath).exists() || writeBehind.hasPending(filePath);
     }
 
     /**
-     * Creates a backup of the file before modifying it.
-     *
-     * @param filePath the file path to backup
+     * Appends lines to a file through the journal: the encoded bytes are made
+     * durable in the journal first, then appended to the file (used when the
+     * file's write lock is held).
      */
-    private void createBackup(String filePath) {
-        File file = new File(filePath);
-        if (file.exists()) {
-            try {
-                Path source = Paths.get(filePath);
-                Path backup = Paths.get(filePath + ".bak");
-                Files.copy(source, backup, StandardCopyOption.REPLACE_EXISTING);
-            } catch (IOException e) {
-                // Backup failure should not block the operation
-                System.err.println("Warning: Could not create backup for " + filePath);
-            }
+    private void appendInternal(String filePath, List<String[]> lines) throws DAOException {
+        tableCache.remove(filePath);
+        byte[] bytes = encode(lines);
+        Path target = Paths.get(filePath);
+        long offset;
+        try {
+            offset = journal.append(target, bytes);
+        } catch (IOException e) {
+            throw new DAOException(ExceptionMessagesEnum.DAO.message, e);
+        }
+        updateSidecar(target, offset, bytes);
+    }
+
+    /**
+     * Extends the sidecar index of a file after an append; the data is already
+     * in the file, so a failure only costs a rebuild of the index.
+     */
+    private void updateSidecar(Path target, long offset, byte[] bytes) {
+        int column = sidecarColumn(target.toString());
+        if (column < 0) {
+            return;
+        }
+        try {
+            sidecar.appended(target, offset, bytes, column);
+        } catch (IOException e) {
+            logger.log(Level.WARNING, e, () -> "Sidecar index of " + target + " will be rebuilt");
+        }
+    }
+
+    /**
+     * Encodes lines in the format of the files.
+     */
+    private byte[] encode(List<String[]> lines) throws DAOException {
+        try {
+            return format.encode(lines);
+        } catch (IOException e) {
+            throw new DAOException(ExceptionMessagesEnum.DAO.message, e);
         }
     }
 
@@ -271,31 +798,145 @@ public class CSVFileManager {
      * Internal read without acquiring lock (used when lock is already held).
      */
     private List<String[]> readAllInternal(String filename) throws DAOException {
+        return copyRows(cachedTable(filename).rows);
+    }
+
+    /**
+     * Internal write without acquiring lock (used when lock is already held).
+     */
+    private void writeAllInternal(String filename, List<String[]> data) throws DAOException {
+        String filePath = getFilePath(filename);
+        tableCache.remove(filePath);
+        byte[] bytes = encode(data);
+        Path target = Paths.get(filePath);
+        try {
+            // Dropped first: a stale sidecar must never describe the new file
+            sidecar.rewritten(target);
+            journal.replace(target, bytes);
+        } catch (IOException e) {
+            throw new DAOException(ExceptionMessagesEnum.DAO.message, e);
+        }
+        LogTable log = logTables.get(filePath);
+        if (log != null) {
+            log.compacted(Math.max(0, data.size() - 1L));
+        }
+    }
+
+    private ReentrantReadWriteLock lockFor(String filename) {
+        return locks.computeIfAbsent(getFilePath(filename), k -> new ReentrantReadWriteLock());
+    }
+
+    /**
+     * Returns the current snapshot of a file without locking when the cached
+     * one is still valid, falling back to parsing it under the file's read
+     * lock. Buffered appends are written first, so readers see them.
+     */
+    private CachedTable snapshot(String filename) throws DAOException {
+        String filePath = getFilePath(filename);
+        if (writeBehind.hasPending(filePath)) {
+            flush(filename);
+        }
+        CachedTable cached = tableCache.get(filePath);
+        if (cached != null && cached.matches(new File(filePath))) {
+            return cached;
+        }
+        ReentrantReadWriteLock fileLock = lockFor(filename);
+        fileLock.readLock().lock();
+        try {
+            return cachedTable(filename);
+        } finally {
+            fileLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the cached parse of a file, re-reading it if it is missing from
+     * the cache or has changed on disk (used when a lock is already held).
+     */
+    private CachedTable cachedTable(String filename) throws DAOException {
         String filePath = getFilePath(filename);
         File file = new File(filePath);
 
         if (!file.exists()) {
-            return new ArrayList<>();
+            tableCache.remove(filePath);
+            return CachedTable.EMPTY;
+        }
+
+        CachedTable cached = tableCache.get(filePath);
+        if (cached != null && cached.matches(file)) {
+            return cached;
         }
 
-        try (CSVReader reader = new CSVReader(new FileReader(file))) {
-            return new ArrayList<>(reader.readAll());
-        } catch (IOException | CsvException e) {
+        // Stamp taken before parsing: a change made meanwhile is seen on next access
+        long lastModified = file.lastModified();
+        long length = file.length();
+        try {
+            List<String[]> rows = format.decode(file.toPath());
+            LogTable log = logTables.get(filePath);
+            if (log != null) {
+                rows = log.resolve(rows);
+            }
+            cached = new CachedTable(lastModified, length, Collections.unmodifiableList(rows));
+        } catch (IOException e) {
             throw new DAOException(ExceptionMessagesEnum.DAO.message, e);
         }
+        tableCache.put(filePath, cached);
+        return cached;
     }
 
     /**
-     * Internal write without acquiring lock (used when lock is already held).
+     * Copies rows so that callers can freely modify them without touching the
+     * cache.
      */
-    private void writeAllInternal(String filename, List<String[]> data) throws DAOException {
-        String filePath = getFilePath(filename);
-        createBackup(filePath);
+    private static List<String[]> copyRows(List<String[]> rows) {
+        List<String[]> copy = new ArrayList<>(rows.size());
+        for (String[] row : rows) {
+            copy.add(row.clone());
+        }
+        return copy;
+    }
 
-        try (CSVWriter writer = new CSVWriter(new FileWriter(filePath))) {
-            writer.writeAll(data);
-        } catch (IOException e) {
-            throw new DAOException(ExceptionMessagesEnum.DAO.message, e);
+    /**
+     * A parsed CSV file (header included) with the file stamp it was read at
+     * and the hash indexes and columnar copies built on it so far.
+     */
+    private static final class CachedTable {
+        private static final CachedTable EMPTY = new CachedTable(-1, -1, Collections.emptyList());
+
+        private final long lastModified;
+        private final long length;
+        private final List<String[]> rows;
+        private final Map<Integer, Map<String, List<String[]>>> indexes = new ConcurrentHashMap<>();
+        private final Map<TableSchema, ColumnarTable> columnar = new ConcurrentHashMap<>();
+
+        private CachedTable(long lastModified, long length, List<String[]> rows) {
+            this.lastModified = lastModified;
+            this.length = length;
+            this.rows = rows;
+        }
+
+        private boolean matches(File file) {
+            return file.lastModified() == lastModified && file.length() == length;
+        }
+
+        private List<String[]> lookup(int column, String key) {
+            Map<String, List<String[]>> index = indexes.computeIfAbsent(column, this::buildIndex);
+            return index.getOrDefault(key.toLowerCase(Locale.ROOT), Collections.emptyList());
+        }
+
+        private ColumnarTable columnar(TableSchema schema) {
+            return columnar.computeIfAbsent(schema, s -> new ColumnarTable(rows, s));
+        }
+
+        private Map<String, List<String[]>> buildIndex(int column) {
+            Map<String, List<String[]>> index = new HashMap<>();
+            for (int i = 1; i < rows.size(); i++) { // Skip header
+                String[] row = rows.get(i);
+                if (row.length > column) {
+                    index.computeIfAbsent(row[column].toLowerCase(Locale.ROOT), k -> new ArrayList<>()).add(row);
+                }
+            }
+            return index;
         }
     }
 
@@ -307,4 +948,13 @@ public class CSVFileManager {
     public String getCsvDirectory() {
         return csvDirectory;
     }
+
+    /**
+     * Gets the extension of the files of this manager.
+     *
+     * @return the extension, dot included
+     */
+    public String getFileExtension() {
+        return format.extension();
+    }
 }
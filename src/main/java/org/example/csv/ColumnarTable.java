@@ -0,0 +1,298 @@
+package org.example.csv;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Immutable column-oriented copy of a table (header excluded), with every
+ * column parsed once according to a {@link TableSchema} into a primitive
+ * array: longs, doubles, epoch seconds and nanoseconds for date-times, int
+ * codes into a dictionary for symbols. Filters compare the primitive values in
+ * place, so they neither box nor create strings, and objects are only built
+ * for the rows a caller reads.
+ * <p>
+ * Empty fields, missing fields and values that do not parse as their column
+ * type are null.
+ * <p>
+ * Lookups by value go through a hash index of the column, built on first
+ * use and shared by every later lookup on this copy of the table.
+ */
+public final class ColumnarTable {
+
+    private static final Logger logger = Logger.getLogger(ColumnarTable.class.getName());
+
+    private static final DateTimeFormatter DATETIME_FORMAT = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+    private static final int[] NO_ROWS = new int[0];
+
+    private final TableSchema schema;
+    private final int size;
+    private final BitSet[] nulls;
+    // LONG values, DATE_TIME epoch seconds
+    private final long[][] longs;
+    // SYMBOL codes, DATE_TIME nanoseconds
+    private final int[][] ints;
+    private final double[][] doubles;
+    // STRING values, SYMBOL dictionaries
+    private final String[][] strings;
+    // Rows by SYMBOL code, per column
+    private final Map<Integer, int[][]> symbolIndexes = new ConcurrentHashMap<>();
+    // Rows by LONG value or lowercase STRING value, per column
+    private final Map<Integer, Map<Object, int[]>> valueIndexes = new ConcurrentHashMap<>();
+
+    /**
+     * @param rows   the rows of the table, header included
+     * @param schema the types of its columns
+     */
+    ColumnarTable(List<String[]> rows, TableSchema schema) {
+        this.schema = schema;
+        this.size = Math.max(rows.size() - 1, 0);
+        int columns = schema.getColumnCount();
+        this.nulls = new BitSet[columns];
+        this.longs = new long[columns][];
+        this.ints = new int[columns][];
+        this.doubles = new double[columns][];
+        this.strings = new String[columns][];
+        for (int column = 0; column < columns; column++) {
+            nulls[column] = new BitSet(size);
+            decodeColumn(rows, column);
+        }
+    }
+
+    private void decodeColumn(List<String[]> rows, int column) {
+        TableSchema.ColumnType type = schema.getType(column);
+        switch (type) {
+            case LONG -> longs[column] = new long[size];
+            case DOUBLE -> doubles[column] = new double[size];
+            case DATE_TIME -> {
+                longs[column] = new long[size];
+                ints[column] = new int[size];
+            }
+            case SYMBOL -> ints[column] = new int[size];
+            case STRING -> strings[column] = new String[size];
+        }
+        Map<String, Integer> dictionary = type == TableSchema.ColumnType.SYMBOL ? new HashMap<>() : null;
+        int invalid = 0;
+
+        for (int row = 0; row < size; row++) {
+            String[] fields = rows.get(row + 1); // Skip header
+            String value = fields.length > column ? fields[column] : null;
+            if (value == null || value.isEmpty()) {
+                nulls[column].set(row);
+                continue;
+            }
+            try {
+                switch (type) {
+                    case LONG -> longs[column][row] = Long.parseLong(value);
+                    case DOUBLE -> doubles[column][row] = Double.parseDouble(value);
+                    case DATE_TIME -> {
+                        LocalDateTime dateTime = LocalDateTime.parse(value, DATETIME_FORMAT);
+                        longs[column][row] = dateTime.toEpochSecond(ZoneOffset.UTC);
+                        ints[column][row] = dateTime.getNano();
+                    }
+                    case SYMBOL -> ints[column][row] = dictionary.computeIfAbsent(value, k -> dictionary.size());
+                    case STRING -> strings[column][row] = value;
+                }
+            } catch (NumberFormatException | DateTimeParseException e) {
+                nulls[column].set(row);
+                invalid++;
+            }
+        }
+
+        if (dictionary != null) {
+            String[] symbols = new String[dictionary.size()];
+            for (Map.Entry<String, Integer> entry : dictionary.entrySet()) {
+                symbols[entry.getValue()] = entry.getKey();
+            }
+            strings[column] = symbols;
+        }
+        if (invalid > 0) {
+            final int count = invalid;
+            logger.log(Level.FINE, () -> count + " values of column " + column + " are not valid " + type);
+        }
+    }
+
+    /**
+     * @return the number of rows, header excluded
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean isNull(int column, int row) {
+        return nulls[column].get(row);
+    }
+
+    /**
+     * @return the value of a LONG column, 0 if null
+     */
+    public long getLong(int column, int row) {
+        requireType(column, TableSchema.ColumnType.LONG);
+        return longs[column][row];
+    }
+
+    /**
+     * @return the value of a DOUBLE column, 0 if null
+     */
+    public double getDouble(int column, int row) {
+        requireType(column, TableSchema.ColumnType.DOUBLE);
+        return doubles[column][row];
+    }
+
+    /**
+     * @return the value of a DATE_TIME column, or null
+     */
+    public LocalDateTime getDateTime(int column, int row) {
+        requireType(column, TableSchema.ColumnType.DATE_TIME);
+        if (isNull(column, row)) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(longs[column][row], ints[column][row], ZoneOffset.UTC);
+    }
+
+    /**
+     * @return the value of a SYMBOL or STRING column, or null
+     */
+    public String getString(int column, int row) {
+        if (isNull(column, row)) {
+            return null;
+        }
+        if (schema.getType(column) == TableSchema.ColumnType.SYMBOL) {
+            return strings[column][ints[column][row]];
+        }
+        requireType(column, TableSchema.ColumnType.STRING);
+        return strings[column][row];
+    }
+
+    /**
+     * Finds the rows whose value in a LONG column equals a value.
+     *
+     * @return the matching row numbers in file order
+     */
+    public int[] findRows(int column, long value) {
+        requireType(column, TableSchema.ColumnType.LONG);
+        return valueIndex(column).getOrDefault(value, NO_ROWS).clone();
+    }
+
+    /**
+     * Finds the first row whose value in a LONG column equals a value.
+     *
+     * @return the row number, or -1 if none
+     */
+    public int findRow(int column, long value) {
+        requireType(column, TableSchema.ColumnType.LONG);
+        int[] found = valueIndex(column).get(value);
+        return found != null ? found[0] : -1;
+    }
+
+    /**
+     * Finds the rows whose value in a SYMBOL or STRING column equals a value,
+     * ignoring case. On a SYMBOL column only the dictionary is compared as
+     * text; the rows are found by code.
+     *
+     * @return the matching row numbers in file order
+     */
+    public int[] findRows(int column, String value) {
+        if (value == null) {
+            return NO_ROWS;
+        }
+        if (schema.getType(column) != TableSchema.ColumnType.SYMBOL) {
+            requireType(column, TableSchema.ColumnType.STRING);
+            return valueIndex(column).getOrDefault(value.toLowerCase(Locale.ROOT), NO_ROWS).clone();
+        }
+        String[] symbols = strings[column];
+        int[][] rowsByCode = symbolIndex(column);
+        int[] found = NO_ROWS;
+        for (int code = 0; code < symbols.length; code++) {
+            if (symbols[code].equalsIgnoreCase(value)) {
+                found = found.length == 0 ? rowsByCode[code] : merge(found, rowsByCode[code]);
+            }
+        }
+        return found.clone();
+    }
+
+    private int[][] symbolIndex(int column) {
+        return symbolIndexes.computeIfAbsent(column, c -> {
+            int[] codes = ints[c];
+            int[] counts = new int[strings[c].length];
+            for (int row = 0; row < size; row++) {
+                if (!isNull(c, row)) {
+                    counts[codes[row]]++;
+                }
+            }
+            int[][] rowsByCode = new int[counts.length][];
+            for (int code = 0; code < counts.length; code++) {
+                rowsByCode[code] = new int[counts[code]];
+                counts[code] = 0;
+            }
+            for (int row = 0; row < size; row++) {
+                if (!isNull(c, row)) {
+                    int code = codes[row];
+                    rowsByCode[code][counts[code]++] = row;
+                }
+            }
+            return rowsByCode;
+        });
+    }
+
+    private Map<Object, int[]> valueIndex(int column) {
+        return valueIndexes.computeIfAbsent(column, c -> {
+            Object[] keys = new Object[size];
+            Map<Object, int[]> counts = new HashMap<>();
+            for (int row = 0; row < size; row++) {
+                if (!isNull(c, row)) {
+                    keys[row] = schema.getType(c) == TableSchema.ColumnType.LONG
+                            ? (Object) longs[c][row] : strings[c][row].toLowerCase(Locale.ROOT);
+                    counts.computeIfAbsent(keys[row], k -> new int[1])[0]++;
+                }
+            }
+            Map<Object, int[]> index = new HashMap<>(counts.size() * 2);
+            for (Map.Entry<Object, int[]> entry : counts.entrySet()) {
+                index.put(entry.getKey(), new int[entry.getValue()[0]]);
+                entry.getValue()[0] = 0;
+            }
+            for (int row = 0; row < size; row++) {
+                if (keys[row] != null) {
+                    int[] filled = counts.get(keys[row]);
+                    index.get(keys[row])[filled[0]++] = row;
+                }
+            }
+            return index;
+        });
+    }
+
+    /**
+     * Merges two sorted lists of row numbers
+     */
+    private static int[] merge(int[] a, int[] b) {
+        int[] merged = new int[a.length + b.length];
+        int i = 0;
+        int j = 0;
+        int k = 0;
+        while (i < a.length && j < b.length) {
+            merged[k++] = a[i] < b[j] ? a[i++] : b[j++];
+        }
+        while (i < a.length) {
+            merged[k++] = a[i++];
+        }
+        while (j < b.length) {
+            merged[k++] = b[j++];
+        }
+        return merged;
+    }
+
+    private void requireType(int column, TableSchema.ColumnType type) {
+        if (schema.getType(column) != type) {
+            throw new IllegalArgumentException("Column " + column + " is " + schema.getType(column) + ", not " + type);
+        }
+    }
+}
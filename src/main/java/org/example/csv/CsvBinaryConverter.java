@@ -0,0 +1,93 @@
+package org.example.csv;
+
+import org.example.enums.ExceptionMessagesEnum;
+import org.example.exceptions.DAOException;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * Copies every table between the CSV files of the FS persistence mode and the
+ * binary files of the BIN mode. Tables are copied as {@link CSVFileManager#readAll}
+ * returns them, so the log tables registered on the source manager are written
+ * with the latest version of each row only, without older versions and
+ * tombstones; any other file is copied row by row.
+ * <p>
+ * Run with {@code import} to convert the CSV files into binary ones, or with
+ * {@code export} for the opposite.
+ */
+public class CsvBinaryConverter {
+
+    private static final Logger logger = Logger.getLogger(CsvBinaryConverter.class.getName());
+
+    private CsvBinaryConverter() {
+        throw new IllegalStateException(ExceptionMessagesEnum.NOT_INSTANTIABLE.message);
+    }
+
+    /**
+     * Writes every CSV table into a binary table with the same name,
+     * replacing it if present.
+     *
+     * @param csv the source manager
+     * @param bin the target manager
+     * @return the names of the converted tables
+     * @throws DAOException if a table cannot be read or written
+     */
+    public static List<String> importFromCsv(CSVFileManager csv, BinaryFileManager bin) throws DAOException {
+        return copyTables(csv, bin);
+    }
+
+    /**
+     * Writes every binary table into a CSV table with the same name,
+     * replacing it if present.
+     *
+     * @param bin the source manager
+     * @param csv the target manager
+     * @return the names of the converted tables
+     * @throws DAOException if a table cannot be read or written
+     */
+    public static List<String> exportToCsv(BinaryFileManager bin, CSVFileManager csv) throws DAOException {
+        return copyTables(bin, csv);
+    }
+
+    private static List<String> copyTables(CSVFileManager from, CSVFileManager to) throws DAOException {
+        String extension = from.getFileExtension();
+        List<String> tables = new ArrayList<>();
+        try (Stream<Path> files = Files.list(Paths.get(from.getCsvDirectory()))) {
+            files.map(file -> file.getFileName().toString())
+                    .filter(name -> name.endsWith(extension))
+                    .map(name -> name.substring(0, name.length() - extension.length()))
+                    .sorted()
+                    .forEach(tables::add);
+        } catch (IOException e) {
+            throw new DAOException(ExceptionMessagesEnum.DAO.message, e);
+        }
+        for (String table : tables) {
+            to.writeAll(table, from.readAll(table));
+        }
+        return tables;
+    }
+
+    public static void main(String[] args) {
+        try {
+            if (args.length == 1 && "import".equals(args[0])) {
+                List<String> tables = importFromCsv(CSVFileManager.getInstance(), BinaryFileManager.getInstance());
+                logger.log(Level.INFO, "Imported {0} tables from CSV", tables.size());
+            } else if (args.length == 1 && "export".equals(args[0])) {
+                List<String> tables = exportToCsv(BinaryFileManager.getInstance(), CSVFileManager.getInstance());
+                logger.log(Level.INFO, "Exported {0} tables to CSV", tables.size());
+            } else {
+                logger.severe("Usage: CsvBinaryConverter import|export");
+            }
+        } catch (DAOException e) {
+            logger.log(Level.SEVERE, e.toString(), e);
+        }
+    }
+}
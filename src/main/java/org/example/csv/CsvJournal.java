@@ -0,0 +1,293 @@
+package org.example.csv;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+/**
+ * Write-ahead journal for CSV appends, and crash-safe writes of table files.
+ * <p>
+ * Before bytes are appended to a CSV file they are written to the journal as a
+ * record (target file, offset, bytes, checksum) and made durable; only then
+ * are they applied to the CSV file, which is not synced on every write.
+ * Writers that reach the sync at the same time share a single
+ * {@code force()} (group commit). A checkpoint syncs every CSV file written
+ * since the previous one and empties the journal. On startup
+ * {@link #recover()} re-applies the records whose bytes did not make it to
+ * their file; since each record carries its offset, replaying is idempotent.
+ * <p>
+ * {@link #append(Path, byte[])} holds the append lock from the journal write
+ * until the bytes are applied, and {@link #checkpoint()} takes it exclusively,
+ * so a checkpoint never drops a record that is not in its file yet. Full
+ * rewrites go through {@link #replace(Path, byte[])} instead: a temporary file,
+ * synced and atomically renamed over the original.
+ */
+class CsvJournal {
+
+    private static final Logger logger = Logger.getLogger(CsvJournal.class.getName());
+
+    private final Path journalPath;
+    private final long maxBytes;
+    private final ReentrantReadWriteLock appendLock = new ReentrantReadWriteLock();
+    private final Set<Path> dirtyFiles = new HashSet<>();
+    private FileChannel channel;
+
+    // Group commit state, guarded by this
+    private long writtenSeq = 0;
+    private long syncedSeq = 0;
+    private boolean syncing = false;
+
+    CsvJournal(Path journalPath, long maxBytes) {
+        this.journalPath = journalPath;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Opens a journal, re-applying the appends a crash may have left out of
+     * their files
+     */
+    static CsvJournal open(Path journalPath, long maxBytes) throws IOException {
+        CsvJournal journal = new CsvJournal(journalPath, maxBytes);
+        journal.recover();
+        return journal;
+    }
+
+    /**
+     * Appends bytes to a file: they are made durable in the journal first,
+     * then written to the file, which is not synced. The caller holds the
+     * write lock of the file.
+     *
+     * @return the offset the bytes were written at
+     */
+    long append(Path target, byte[] bytes) throws IOException {
+        long offset;
+        appendLock.readLock().lock();
+        try {
+            offset = Files.exists(target) ? Files.size(target) : 0;
+            awaitDurable(write(target, offset, bytes));
+            try (OutputStream out = new FileOutputStream(target.toFile(), true)) {
+                out.write(bytes);
+            }
+        } finally {
+            appendLock.readLock().unlock();
+        }
+        if (needsCheckpoint()) {
+            checkpoint();
+        }
+        return offset;
+    }
+
+    /**
+     * Replaces the content of a file: the journaled appends are made durable
+     * first, then the bytes are written to a temporary file, synced and
+     * atomically renamed over the original. The caller holds the write lock of
+     * the file.
+     */
+    void replace(Path target, byte[] bytes) throws IOException {
+        checkpoint();
+        Path temp = Paths.get(target + ".tmp");
+        try (FileOutputStream out = new FileOutputStream(temp.toFile())) {
+            out.write(bytes);
+            out.getFD().sync();
+        }
+        try {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        syncDirectory(target.toAbsolutePath().getParent());
+    }
+
+    /**
+     * Writes a record to the journal, without waiting for it to be durable
+     *
+     * @return the sequence number to pass to {@link #awaitDurable(long)}
+     */
+    synchronized long write(Path target, long offset, byte[] bytes) throws IOException {
+        byte[] name = target.toString().getBytes(StandardCharsets.UTF_8);
+        CRC32 crc = new CRC32();
+        crc.update(name);
+        crc.update(bytes);
+        ByteBuffer buffer = ByteBuffer.allocate(4 + name.length + 8 + 4 + bytes.length + 8);
+        buffer.putInt(name.length).put(name).putLong(offset).putInt(bytes.length).put(bytes).putLong(crc.getValue());
+        buffer.flip();
+        FileChannel journal = channel();
+        while (buffer.hasRemaining()) {
+            journal.write(buffer);
+        }
+        dirtyFiles.add(target);
+        return ++writtenSeq;
+    }
+
+    /**
+     * Waits until the record with the given sequence number is on disk. The
+     * first waiter syncs every record written so far on behalf of the others.
+     */
+    void awaitDurable(long seq) throws IOException {
+        long target;
+        synchronized (this) {
+            while (syncedSeq < seq && syncing) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted while waiting for the journal sync", e);
+                }
+            }
+            if (syncedSeq >= seq) {
+                return;
+            }
+            syncing = true;
+            target = writtenSeq;
+        }
+        boolean synced = false;
+        try {
+            channel().force(false);
+            synced = true;
+        } finally {
+            synchronized (this) {
+                syncing = false;
+                if (synced) {
+                    syncedSeq = Math.max(syncedSeq, target);
+                }
+                notifyAll();
+            }
+        }
+    }
+
+    boolean needsCheckpoint() {
+        try {
+            return Files.exists(journalPath) && Files.size(journalPath) > maxBytes;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Syncs the CSV files written since the last checkpoint and empties the
+     * journal, waiting for in-flight appends to be applied first
+     */
+    void checkpoint() throws IOException {
+        appendLock.writeLock().lock();
+        try {
+            synchronized (this) {
+                for (Path file : dirtyFiles) {
+                    force(file);
+                }
+                dirtyFiles.clear();
+                channel().truncate(0);
+                channel().force(true);
+            }
+        } finally {
+            appendLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Re-applies the journal records whose bytes are missing from their CSV
+     * file, stopping at the first torn or corrupt record, then checkpoints
+     *
+     * @return the number of records that had to be re-applied
+     */
+    int recover() throws IOException {
+        if (!Files.exists(journalPath)) {
+            return 0;
+        }
+        int replayed = 0;
+        ByteBuffer journal = ByteBuffer.wrap(Files.readAllBytes(journalPath));
+        while (journal.remaining() >= 4) {
+            int nameLength = journal.getInt();
+            if (nameLength < 0 || journal.remaining() < nameLength + 12) {
+                break; // torn tail: the writer crashed before syncing it
+            }
+            byte[] name = new byte[nameLength];
+            journal.get(name);
+            long offset = journal.getLong();
+            int length = journal.getInt();
+            if (length < 0 || journal.remaining() < length + 8) {
+                break;
+            }
+            byte[] bytes = new byte[length];
+            journal.get(bytes);
+            long checksum = journal.getLong();
+
+            CRC32 crc = new CRC32();
+            crc.update(name);
+            crc.update(bytes);
+            if (crc.getValue() != checksum) {
+                logger.warning("Corrupt CSV journal record, ignoring the rest of the journal");
+                break;
+            }
+            if (replay(Paths.get(new String(name, StandardCharsets.UTF_8)), offset, bytes)) {
+                replayed++;
+            }
+        }
+        if (replayed > 0) {
+            logger.log(Level.INFO, "Recovered {0} CSV writes from the journal", replayed);
+        }
+        checkpoint();
+        return replayed;
+    }
+
+    private boolean replay(Path target, long offset, byte[] bytes) throws IOException {
+        long length = Files.exists(target) ? Files.size(target) : 0;
+        if (length >= offset + bytes.length) {
+            return false; // already applied
+        }
+        try (FileChannel file = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            if (length > offset) {
+                file.truncate(offset); // partially applied
+            }
+            file.position(Math.min(length, offset));
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            while (buffer.hasRemaining()) {
+                file.write(buffer);
+            }
+        }
+        dirtyFiles.add(target);
+        return true;
+    }
+
+    private FileChannel channel() throws IOException {
+        if (channel == null) {
+            channel = FileChannel.open(journalPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+        }
+        return channel;
+    }
+
+    /**
+     * Makes a rename durable; not every platform allows syncing a directory,
+     * in which case the rename is left to the OS
+     */
+    private static void syncDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            logger.log(Level.FINE, "Directory sync not supported", e);
+        }
+    }
+
+    static void force(Path file) throws IOException {
+        if (Files.exists(file)) {
+            try (FileChannel fileChannel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                fileChannel.force(true);
+            }
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package org.example.csv;
+
+/**
+ * Read-only view of the CSV row under the cursor of a scan. Fields are decoded
+ * only when asked for, so predicates that compare fields in place do not
+ * allocate. The view is reused for the next row and must not be kept.
+ */
+public interface CsvRow {
+
+    /**
+     * @return the number of fields of the row
+     */
+    int size();
+
+    /**
+     * Decodes a field into a new string.
+     *
+     * @param column the index of the field (0-based)
+     * @return the field value, empty if the row has no such field
+     */
+    String field(int column);
+
+    /**
+     * Compares a field with a value without decoding it.
+     *
+     * @param column the index of the field (0-based)
+     * @param value  the value to compare with
+     * @return true if the row has the field and it equals the value
+     */
+    boolean fieldEquals(int column, String value);
+
+    /**
+     * Compares a field with a value ignoring case, without decoding it when
+     * both are ASCII.
+     *
+     * @param column the index of the field (0-based)
+     * @param value  the value to compare with
+     * @return true if the row has the field and it equals the value ignoring
+     *         case
+     */
+    boolean fieldEqualsIgnoreCase(int column, String value);
+
+    /**
+     * Parses a field holding a decimal integer without decoding it.
+     *
+     * @param column the index of the field (0-based)
+     * @return the parsed value
+     * @throws NumberFormatException if the field is missing, empty or not an
+     *                               integer
+     */
+    long fieldAsLong(int column);
+}
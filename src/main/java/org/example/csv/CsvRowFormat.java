@@ -0,0 +1,54 @@
+package org.example.csv;
+
+import com.opencsv.CSVParserBuilder;
+import com.opencsv.CSVReader;
+import com.opencsv.CSVReaderBuilder;
+import com.opencsv.CSVWriter;
+import com.opencsv.ICSVParser;
+import com.opencsv.exceptions.CsvException;
+
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * The quoted CSV text format, read and written with OpenCSV in the platform
+ * charset. Quotes inside a field are doubled and nothing else is escaped, so
+ * a backslash is an ordinary character, as for {@link MappedCsvReader}.
+ */
+class CsvRowFormat implements RowFormat {
+
+    @Override
+    public String extension() {
+        return ".csv";
+    }
+
+    @Override
+    public byte[] encode(List<String[]> rows) throws IOException {
+        StringWriter buffer = new StringWriter();
+        try (CSVWriter writer = new CSVWriter(buffer)) {
+            writer.writeAll(rows);
+        }
+        return buffer.toString().getBytes(Charset.defaultCharset());
+    }
+
+    @Override
+    public List<String[]> decode(Path file) throws IOException {
+        try (CSVReader reader = new CSVReaderBuilder(new FileReader(file.toFile()))
+                .withCSVParser(new CSVParserBuilder().withEscapeChar(ICSVParser.NULL_CHARACTER).build())
+                .build()) {
+            return reader.readAll();
+        } catch (CsvException e) {
+            throw new IOException("Malformed CSV file: " + file, e);
+        }
+    }
+
+    @Override
+    public MappedRowReader reader(ByteBuffer buffer) {
+        return new MappedCsvReader(buffer, Charset.defaultCharset());
+    }
+}
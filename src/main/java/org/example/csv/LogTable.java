@@ -0,0 +1,140 @@
+package org.example.csv;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Describes a CSV file kept as an append-only record log.
+ * <p>
+ * Records are never rewritten in place: an update appends a new version of the
+ * row and a delete appends a tombstone row ({@link #TOMBSTONE} followed by the
+ * key). {@link #resolve(List)} folds the physical rows into the live view that
+ * readers see. With a unique key a later version replaces the earlier one;
+ * otherwise rows accumulate under their key and only a tombstone removes them.
+ * Superseded rows are garbage until the file is compacted, which
+ * {@link #scheduleCompaction(long, double)} asks for once they pile up.
+ */
+class LogTable {
+
+    static final String TOMBSTONE = "#tombstone";
+
+    private final int keyColumn;
+    private final boolean uniqueKey;
+    private final AtomicLong garbageRows = new AtomicLong();
+    private final AtomicBoolean compactionScheduled = new AtomicBoolean();
+    private volatile long liveRows;
+
+    LogTable(int keyColumn, boolean uniqueKey) {
+        this.keyColumn = keyColumn;
+        this.uniqueKey = uniqueKey;
+    }
+
+    int getKeyColumn() {
+        return keyColumn;
+    }
+
+    boolean isUniqueKey() {
+        return uniqueKey;
+    }
+
+    static String[] tombstone(String key) {
+        return new String[] { TOMBSTONE, key };
+    }
+
+    /**
+     * The records to append to delete a row
+     */
+    List<String[]> deletion(String[] row) {
+        return Collections.singletonList(tombstone(row[keyColumn]));
+    }
+
+    /**
+     * The records to append to replace a row of a unique-key table: the new
+     * version, preceded by a tombstone of the old key if the key changed
+     */
+    List<String[]> replacement(String[] oldRow, String[] newRow) {
+        String oldKey = oldRow[keyColumn];
+        List<String[]> records = new ArrayList<>(2);
+        if (newRow.length <= keyColumn || !oldKey.equals(newRow[keyColumn])) {
+            records.add(tombstone(oldKey));
+        }
+        records.add(newRow);
+        return records;
+    }
+
+    /**
+     * Folds the physical rows of the file (header included) into the live rows,
+     * keeping the header first and records in order of first appearance. Also
+     * refreshes the garbage count, which is exact right after a parse.
+     */
+    List<String[]> resolve(List<String[]> physical) {
+        if (physical.isEmpty())
+            return physical;
+        Map<String, List<String[]>> live = new LinkedHashMap<>();
+        for (int i = 1; i < physical.size(); i++) {
+            String[] row = physical.get(i);
+            if (row.length == 2 && TOMBSTONE.equals(row[0])) {
+                live.remove(row[1]);
+            } else if (row.length <= keyColumn) {
+                live.put("#row" + i, Collections.singletonList(row));
+            } else if (uniqueKey) {
+                List<String[]> versions = live.computeIfAbsent(row[keyColumn], k -> new ArrayList<>(1));
+                versions.clear();
+                versions.add(row);
+            } else {
+                live.computeIfAbsent(row[keyColumn], k -> new ArrayList<>()).add(row);
+            }
+        }
+
+        List<String[]> resolved = new ArrayList<>(physical.size());
+        resolved.add(physical.get(0));
+        for (List<String[]> rows : live.values())
+            resolved.addAll(rows);
+        liveRows = resolved.size() - 1L;
+        garbageRows.set((long) physical.size() - resolved.size());
+        return resolved;
+    }
+
+    /**
+     * Accounts for rows appended as new versions or tombstones, each of which
+     * turns (at least) one older row into garbage
+     */
+    void addGarbage(long rows) {
+        garbageRows.addAndGet(rows);
+    }
+
+    void compacted(long rows) {
+        liveRows = rows;
+        garbageRows.set(0);
+    }
+
+    long getGarbageRows() {
+        return garbageRows.get();
+    }
+
+    /**
+     * Whether the garbage is both above the minimum and large compared to the
+     * live rows, so that rewriting the file is worth its cost
+     */
+    boolean needsCompaction(long minGarbageRows, double garbageRatio) {
+        long garbage = garbageRows.get();
+        return garbage >= minGarbageRows && garbage >= liveRows * garbageRatio;
+    }
+
+    /**
+     * Whether the file needs compacting and no compaction is scheduled yet;
+     * if so, one counts as scheduled until {@link #compactionStarted()}
+     */
+    boolean scheduleCompaction(long minGarbageRows, double garbageRatio) {
+        return needsCompaction(minGarbageRows, garbageRatio) && compactionScheduled.compareAndSet(false, true);
+    }
+
+    void compactionStarted() {
+        compactionScheduled.set(false);
+    }
+}
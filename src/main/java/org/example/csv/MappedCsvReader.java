@@ -0,0 +1,151 @@
+package org.example.csv;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Cursor over the rows of a CSV file, splitting rows and fields on the raw
+ * bytes.
+ * <p>
+ * Understands the files written by {@link CSVFileManager}: fields optionally
+ * quoted with {@code "}, quotes inside a quoted field doubled, rows ending with
+ * {@code \n} or {@code \r\n}. Blank lines are skipped.
+ * <p>
+ * Quoted fields may hold line breaks, so a line break only ends a row if an
+ * even number of quotes precedes it. {@link #split(int, int)} counts the
+ * quotes of every range in parallel and walks each range from the parity of
+ * the quotes before it to its first row boundary.
+ */
+class MappedCsvReader extends MappedRowReader {
+
+    MappedCsvReader(ByteBuffer buffer, Charset charset) {
+        super(buffer, charset);
+    }
+
+    @Override
+    boolean nextRow() {
+        int limit = buffer.limit();
+        if (position >= limit) {
+            return false;
+        }
+        rowStart = position;
+        fieldCount = 0;
+        while (true) {
+            int field = addField();
+            if (position < limit && buffer.get(position) == '"') {
+                int pos = position + 1;
+                starts[field] = pos;
+                while (pos < limit) {
+                    if (buffer.get(pos) == '"') {
+                        if (pos + 1 < limit && buffer.get(pos + 1) == '"') {
+                            escaped[field] = true;
+                            pos += 2;
+                            continue;
+                        }
+                        break;
+                    }
+                    pos++;
+                }
+                ends[field] = pos;
+                // Skip the closing quote and anything before the separator
+                while (pos < limit && !isSeparator(buffer.get(pos))) {
+                    pos++;
+                }
+                position = pos;
+            } else {
+                int pos = position;
+                starts[field] = pos;
+                while (pos < limit && !isSeparator(buffer.get(pos))) {
+                    pos++;
+                }
+                ends[field] = pos;
+                position = pos;
+            }
+
+            if (position >= limit) {
+                return true;
+            }
+            byte separator = buffer.get(position++);
+            if (separator == '\r') {
+                if (position < limit && buffer.get(position) == '\n') {
+                    position++;
+                }
+                return true;
+            }
+            if (separator == '\n') {
+                return true;
+            }
+        }
+    }
+
+    @Override
+    int[] split(int from, int parts) {
+        int limit = buffer.limit();
+        int step = (limit - from) / Math.max(parts, 1);
+        if (parts <= 1 || step == 0) {
+            return super.split(from, parts);
+        }
+        int[] quotes = IntStream.range(0, parts).parallel()
+                .map(i -> countQuotes(from + i * step, i == parts - 1 ? limit : from + (i + 1) * step))
+                .toArray();
+
+        int[] bounds = new int[parts + 1];
+        bounds[0] = from;
+        int count = 1;
+        boolean inQuotes = false;
+        for (int i = 1; i < parts; i++) {
+            inQuotes ^= (quotes[i - 1] & 1) == 1;
+            int boundary = nextRowStart(from + i * step, inQuotes);
+            // A range may hold no boundary at all, inside a long quoted field
+            if (boundary > bounds[count - 1] && boundary < limit) {
+                bounds[count++] = boundary;
+            }
+        }
+        bounds[count++] = limit;
+        return Arrays.copyOf(bounds, count);
+    }
+
+    private int countQuotes(int start, int end) {
+        int quotes = 0;
+        for (int pos = start; pos < end; pos++) {
+            if (buffer.get(pos) == '"') {
+                quotes++;
+            }
+        }
+        return quotes;
+    }
+
+    /**
+     * @return the offset after the first line break outside quotes from a
+     *         position, or the limit if there is none
+     */
+    private int nextRowStart(int pos, boolean inQuotes) {
+        int limit = buffer.limit();
+        for (; pos < limit; pos++) {
+            byte b = buffer.get(pos);
+            if (b == '"') {
+                inQuotes = !inQuotes;
+            } else if (b == '\n' && !inQuotes) {
+                return pos + 1;
+            }
+        }
+        return limit;
+    }
+
+    private static boolean isSeparator(byte b) {
+        return b == ',' || b == '\n' || b == '\r';
+    }
+
+    private int addField() {
+        ensureCapacity(fieldCount + 1);
+        escaped[fieldCount] = false;
+        return fieldCount++;
+    }
+
+    @Override
+    boolean isBlank() {
+        return fieldCount == 1 && starts[0] == ends[0] && (starts[0] == 0 || buffer.get(starts[0] - 1) != '"');
+    }
+}
@@ -0,0 +1,443 @@
+package org.example.csv;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Predicate;
+
+/**
+ * Cursor over the rows of a table file held in a byte buffer, usually a
+ * read-only memory mapping. Subclasses split the bytes into rows and fields
+ * for their on-disk format; field boundaries are kept as offsets into the
+ * buffer and a row is only decoded into strings when the predicate selects
+ * it, and then only for the requested columns.
+ */
+abstract class MappedRowReader implements CsvRow {
+
+    final ByteBuffer buffer;
+    private final Charset charset;
+    int position;
+    int rowStart;
+    int fieldCount;
+    int[] starts = new int[16];
+    int[] ends = new int[16];
+    boolean[] escaped = new boolean[16];
+
+    // Last value compared, so that a predicate reusing one key encodes it once
+    private String encodedValue;
+    private byte[] encodedBytes;
+    private boolean encodedAscii;
+
+    MappedRowReader(ByteBuffer buffer, Charset charset) {
+        this.buffer = buffer;
+        this.charset = charset;
+    }
+
+    /**
+     * Maps a whole file read-only.
+     *
+     * @return the mapping, or null if the file is empty
+     */
+    static MappedByteBuffer map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size == 0) {
+                return null;
+            }
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Table file too large to map: " + file);
+            }
+            // The mapping stays valid after the channel is closed
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+    }
+
+    /**
+     * Moves the cursor to the next row, recording where it starts and its
+     * field boundaries.
+     *
+     * @return false at the end of the data
+     */
+    abstract boolean nextRow();
+
+    /**
+     * Moves the cursor so that the next row read is the one starting at the
+     * given offset.
+     */
+    MappedRowReader seek(int offset) {
+        position = offset;
+        return this;
+    }
+
+    /**
+     * Whether the row under the cursor is an empty line to be skipped
+     */
+    boolean isBlank() {
+        return false;
+    }
+
+    /**
+     * Scans the rows after the header.
+     *
+     * @param predicate selects the rows to materialize
+     * @param columns   the columns to materialize, all of them if empty
+     * @param log       the log table the file is kept as, or null; if given,
+     *                  selected rows are resolved against later versions and
+     *                  tombstones like {@link LogTable#resolve(List)} does
+     * @return the selected rows
+     */
+    List<String[]> scan(Predicate<CsvRow> predicate, int[] columns, LogTable log) {
+        if (!nextRow()) { // Skip header
+            return Collections.emptyList();
+        }
+        return merge(Collections.singletonList(collect(predicate, columns, log)), log);
+    }
+
+    /**
+     * Scans the rows after the header of a whole buffer, like
+     * {@link #scan(Predicate, int[], LogTable)}. With more than one part the
+     * rows are split into row-aligned chunks that are selected in parallel on
+     * the common fork-join pool and merged in file order.
+     *
+     * @param parts the number of workers to split the scan among
+     */
+    static List<String[]> scan(RowFormat format, ByteBuffer buffer, int parts, Predicate<CsvRow> predicate,
+            int[] columns, LogTable log) throws IOException {
+        MappedRowReader reader = format.reader(buffer);
+        if (parts <= 1) {
+            return reader.scan(predicate, columns, log);
+        }
+        if (!reader.nextRow()) { // Skip header
+            return new ArrayList<>();
+        }
+        // A few chunks per worker, so that uneven chunks even out
+        int[] bounds = reader.split(reader.position, parts * 4);
+        List<Callable<Chunk>> tasks = new ArrayList<>(bounds.length - 1);
+        for (int i = 0; i < bounds.length - 1; i++) {
+            int start = bounds[i];
+            int end = bounds[i + 1];
+            tasks.add(() -> format.reader(buffer.duplicate().limit(end)).seek(start)
+                    .collect(predicate, columns, log));
+        }
+
+        List<Chunk> chunks = new ArrayList<>(tasks.size());
+        try {
+            for (Future<Chunk> chunk : ForkJoinPool.commonPool().invokeAll(tasks)) {
+                chunks.add(chunk.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while scanning " + buffer);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IOException(e.getCause());
+        }
+        return reader.merge(chunks, log);
+    }
+
+    /**
+     * Splits the rows from an offset to the end of the buffer into ranges that
+     * each start at a row boundary, so that they can be read independently by
+     * readers positioned with {@link #seek(int)}. Formats that cannot find row
+     * boundaries cheaply return a single range.
+     *
+     * @param from  the offset of the first row
+     * @param parts the number of ranges wanted
+     * @return the boundaries of at most that many ranges: the first is
+     *         {@code from}, the last is the limit of the buffer
+     */
+    int[] split(int from, int parts) {
+        return new int[] { from, buffer.limit() };
+    }
+
+    /**
+     * Decodes every row, header included.
+     */
+    List<String[]> readAll() {
+        List<String[]> rows = new ArrayList<>();
+        while (nextRow()) {
+            if (!isBlank()) {
+                rows.add(project(new int[0]));
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Selects the rows from the cursor to the end of the buffer. For a log
+     * table the tombstones and, with a unique key, the versions that were not
+     * selected are recorded by offset only, since they matter to
+     * {@link #merge(List, LogTable)} only once some key has been selected.
+     */
+    Chunk collect(Predicate<CsvRow> predicate, int[] columns, LogTable log) {
+        Chunk chunk = new Chunk();
+        int keyColumn = log != null ? log.getKeyColumn() : -1;
+        while (nextRow()) {
+            if (isBlank()) {
+                continue;
+            }
+            if (log == null) {
+                if (predicate.test(this)) {
+                    chunk.select(null, project(columns));
+                }
+                continue;
+            }
+            if (isTombstone()) {
+                chunk.event(Chunk.TOMBSTONE, rowStart);
+                continue;
+            }
+            boolean selected = predicate.test(this);
+            if (fieldCount <= keyColumn) {
+                if (selected) {
+                    chunk.select(null, project(columns));
+                }
+            } else if (selected) {
+                chunk.select(field(keyColumn), project(columns));
+            } else if (log.isUniqueKey()) {
+                // A later version replaces the earlier one whether it is selected or not
+                chunk.event(Chunk.SUPERSEDED, rowStart);
+            }
+        }
+        return chunk;
+    }
+
+    /**
+     * Joins chunks collected in file order, resolving them against a log
+     * table if given. Keys of tombstones and superseded versions are decoded
+     * with this reader.
+     */
+    List<String[]> merge(List<Chunk> chunks, LogTable log) {
+        if (log == null) {
+            if (chunks.size() == 1) {
+                return chunks.get(0).rows;
+            }
+            List<String[]> selected = new ArrayList<>();
+            for (Chunk chunk : chunks) {
+                selected.addAll(chunk.rows);
+            }
+            return selected;
+        }
+
+        int keyColumn = log.getKeyColumn();
+        Map<String, List<String[]>> live = new LinkedHashMap<>();
+        int unkeyed = 0;
+        for (Chunk chunk : chunks) {
+            int selectedIndex = 0;
+            for (int i = 0; i < chunk.size; i++) {
+                if (chunk.kinds[i] == Chunk.SELECTED) {
+                    String key = chunk.keys.get(selectedIndex);
+                    String[] row = chunk.rows.get(selectedIndex++);
+                    if (key == null) {
+                        live.put("#row" + unkeyed++, Collections.singletonList(row));
+                    } else {
+                        List<String[]> versions = live.computeIfAbsent(key, k -> new ArrayList<>(1));
+                        if (log.isUniqueKey()) {
+                            versions.clear();
+                        }
+                        versions.add(row);
+                    }
+                } else if (!live.isEmpty() && seek(chunk.offsets[i]).nextRow()) {
+                    live.remove(chunk.kinds[i] == Chunk.TOMBSTONE ? field(1) : field(keyColumn));
+                }
+            }
+        }
+
+        List<String[]> resolved = new ArrayList<>();
+        for (List<String[]> rows : live.values()) {
+            resolved.addAll(rows);
+        }
+        return resolved;
+    }
+
+    boolean isTombstone() {
+        return fieldCount == 2 && fieldEquals(0, LogTable.TOMBSTONE);
+    }
+
+    /**
+     * Makes room for the boundaries of at least the given number of fields
+     */
+    void ensureCapacity(int fields) {
+        if (fields > starts.length) {
+            int capacity = Math.max(fields, starts.length * 2);
+            starts = Arrays.copyOf(starts, capacity);
+            ends = Arrays.copyOf(ends, capacity);
+            escaped = Arrays.copyOf(escaped, capacity);
+        }
+    }
+
+    String[] project(int[] columns) {
+        if (columns.length == 0) {
+            String[] row = new String[fieldCount];
+            for (int i = 0; i < fieldCount; i++) {
+                row[i] = field(i);
+            }
+            return row;
+        }
+        String[] row = new String[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            row[i] = field(columns[i]);
+        }
+        return row;
+    }
+
+    @Override
+    public int size() {
+        return fieldCount;
+    }
+
+    @Override
+    public String field(int column) {
+        if (column < 0 || column >= fieldCount) {
+            return "";
+        }
+        byte[] bytes = new byte[ends[column] - starts[column]];
+        buffer.get(starts[column], bytes);
+        String value = new String(bytes, charset);
+        return escaped[column] ? value.replace("\"\"", "\"") : value;
+    }
+
+    @Override
+    public boolean fieldEquals(int column, String value) {
+        if (column < 0 || column >= fieldCount) {
+            return false;
+        }
+        if (escaped[column]) {
+            return field(column).equals(value);
+        }
+        byte[] bytes = encode(value);
+        int start = starts[column];
+        if (ends[column] - start != bytes.length) {
+            return false;
+        }
+        for (int i = 0; i < bytes.length; i++) {
+            if (buffer.get(start + i) != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean fieldEqualsIgnoreCase(int column, String value) {
+        if (column < 0 || column >= fieldCount) {
+            return false;
+        }
+        if (escaped[column]) {
+            return field(column).equalsIgnoreCase(value);
+        }
+        byte[] bytes = encode(value);
+        int start = starts[column];
+        int end = ends[column];
+        if (end - start != bytes.length) {
+            // Outside ASCII the same text in another case may take a different number of bytes
+            if (encodedAscii && isAscii(start, end)) {
+                return false;
+            }
+            return field(column).equalsIgnoreCase(value);
+        }
+        for (int i = 0; i < bytes.length; i++) {
+            byte a = buffer.get(start + i);
+            byte b = bytes[i];
+            if (a < 0 || b < 0) {
+                return field(column).equalsIgnoreCase(value);
+            }
+            if (a != b && toLowerAscii(a) != toLowerAscii(b)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isAscii(int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (buffer.get(i) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static byte toLowerAscii(byte b) {
+        return b >= 'A' && b <= 'Z' ? (byte) (b + ('a' - 'A')) : b;
+    }
+
+    @Override
+    public long fieldAsLong(int column) {
+        if (column < 0 || column >= fieldCount || starts[column] == ends[column]) {
+            throw new NumberFormatException("Missing numeric field " + column);
+        }
+        int pos = starts[column];
+        int end = ends[column];
+        boolean negative = buffer.get(pos) == '-';
+        if (negative && ++pos == end) {
+            throw new NumberFormatException("Not a number: -");
+        }
+        long value = 0;
+        for (; pos < end; pos++) {
+            byte b = buffer.get(pos);
+            if (b < '0' || b > '9') {
+                throw new NumberFormatException("Not a number: " + field(column));
+            }
+            value = Math.addExact(Math.multiplyExact(value, 10), b - '0');
+        }
+        return negative ? -value : value;
+    }
+
+    private byte[] encode(String value) {
+        if (!value.equals(encodedValue)) {
+            encodedBytes = value.getBytes(charset);
+            encodedValue = value;
+            encodedAscii = encodedBytes.length == value.length();
+        }
+        return encodedBytes;
+    }
+
+    /**
+     * The rows selected from a range of a file, in order with the tombstones
+     * and superseded versions met between them.
+     */
+    static final class Chunk {
+        private static final byte SELECTED = 0;
+        private static final byte TOMBSTONE = 1;
+        private static final byte SUPERSEDED = 2;
+
+        private byte[] kinds = new byte[64];
+        private int[] offsets = new int[64];
+        private int size;
+        private final List<String> keys = new ArrayList<>();
+        private final List<String[]> rows = new ArrayList<>();
+
+        private void select(String key, String[] row) {
+            event(SELECTED, -1);
+            keys.add(key);
+            rows.add(row);
+        }
+
+        private void event(byte kind, int offset) {
+            if (size == kinds.length) {
+                kinds = Arrays.copyOf(kinds, size * 2);
+                offsets = Arrays.copyOf(offsets, size * 2);
+            }
+            kinds[size] = kind;
+            offsets[size] = offset;
+            size++;
+        }
+    }
+}
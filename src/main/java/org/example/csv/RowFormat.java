@@ -0,0 +1,36 @@
+package org.example.csv;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * On-disk encoding of the table files handled by {@link CSVFileManager}.
+ * Everything above the bytes (locking, caching, journaling, log tables,
+ * write-behind, sidecar indexes) is shared by all formats; a format only turns
+ * rows into bytes and back.
+ * <p>
+ * Appended chunks are concatenated as they are, so encoding a list of rows and
+ * appending it must give the same file as encoding them one by one.
+ */
+interface RowFormat {
+
+    /**
+     * @return the file extension of the format, dot included
+     */
+    String extension();
+
+    byte[] encode(List<String[]> rows) throws IOException;
+
+    /**
+     * Decodes every row of a file, header included.
+     */
+    List<String[]> decode(Path file) throws IOException;
+
+    /**
+     * Opens a cursor over encoded rows, such as a mapped file or an appended
+     * chunk.
+     */
+    MappedRowReader reader(ByteBuffer buffer);
+}
@@ -0,0 +1,239 @@
+package org.example.csv;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Persistent key index kept in a sidecar {@code .idx} file next to a table
+ * file. It maps the hash of the key column of every row (the key of a
+ * tombstone for log tables) to the byte offset the row starts at, so that a
+ * point lookup decodes the few candidate rows instead of the whole file.
+ * <p>
+ * The index is extended on every append, dropped on rewrites and rebuilt from
+ * the table file whenever the length it covers no longer matches the file
+ * (after a crash or an external edit).
+ */
+class SidecarIndex {
+
+    private static final String INDEX_EXTENSION = ".idx";
+    // Covered data length + key column
+    private static final int INDEX_HEADER_BYTES = 8 + 4;
+    // Key hash + row offset
+    private static final int INDEX_ENTRY_BYTES = 4 + 8;
+
+    private final RowFormat format;
+    // Guarded by this
+    private final Map<Path, KeyIndex> indexes = new HashMap<>();
+
+    SidecarIndex(RowFormat format) {
+        this.format = format;
+    }
+
+    /**
+     * Finds the live rows with a key, ignoring case.
+     *
+     * @param keyColumn the column the index is built on
+     * @param log       the log table the file is kept as, or null
+     * @return the matching rows in file order
+     */
+    synchronized List<String[]> lookup(Path file, int keyColumn, String key, LogTable log) throws IOException {
+        KeyIndex index = index(file, keyColumn);
+        int hash = hash(key);
+        List<String[]> candidates = new ArrayList<>();
+        MappedByteBuffer mapped = MappedRowReader.map(file);
+        if (mapped != null) {
+            MappedRowReader reader = format.reader(mapped);
+            for (int i = 0; i < index.size; i++) {
+                if (index.hashes[i] == hash) {
+                    if (index.offsets[i] >= mapped.limit() || !reader.seek((int) index.offsets[i]).nextRow()) {
+                        throw new IOException("Corrupt row at offset " + index.offsets[i] + " of " + file);
+                    }
+                    candidates.add(reader.project(new int[0]));
+                }
+            }
+        }
+
+        // Candidates are in file order: resolve versions and tombstones like LogTable does
+        Map<String, List<String[]>> live = new LinkedHashMap<>();
+        for (String[] row : candidates) {
+            if (log != null && row.length == 2 && LogTable.TOMBSTONE.equals(row[0])) {
+                live.remove(row[1]);
+            } else if (row.length > keyColumn && row[keyColumn].equalsIgnoreCase(key)) {
+                List<String[]> rows = live.computeIfAbsent(row[keyColumn], k -> new ArrayList<>());
+                if (log != null && log.isUniqueKey()) {
+                    rows.clear();
+                }
+                rows.add(row);
+            }
+        }
+        List<String[]> found = new ArrayList<>();
+        for (List<String[]> rows : live.values()) {
+            found.addAll(rows);
+        }
+        return found;
+    }
+
+    /**
+     * Extends the index of a file with the rows of bytes appended at an
+     * offset; if the index is not up to that offset it is left to be rebuilt
+     * on the next lookup.
+     */
+    synchronized void appended(Path file, long offset, byte[] bytes, int keyColumn) throws IOException {
+        KeyIndex index = indexes.get(file);
+        if (index == null || index.keyColumn != keyColumn || index.coveredLength != offset) {
+            index = KeyIndex.read(indexPath(file), keyColumn, offset);
+            if (index == null) {
+                indexes.remove(file);
+                return;
+            }
+        }
+        int from = index.size;
+        MappedRowReader reader = format.reader(ByteBuffer.wrap(bytes));
+        while (reader.nextRow()) {
+            long rowOffset = offset + reader.rowStart;
+            if (rowOffset > 0 && !reader.isBlank()) { // Skip header
+                index.add(hash(keyOf(reader, keyColumn)), rowOffset);
+            }
+        }
+        index.coveredLength = offset + bytes.length;
+        indexes.put(file, index);
+        index.writeFrom(indexPath(file), from);
+    }
+
+    /**
+     * Drops the index of a file that is about to be replaced as a whole.
+     */
+    synchronized void rewritten(Path file) throws IOException {
+        indexes.remove(file);
+        Files.deleteIfExists(indexPath(file));
+    }
+
+    private KeyIndex index(Path file, int keyColumn) throws IOException {
+        long length = Files.size(file);
+        KeyIndex index = indexes.get(file);
+        if (index != null && index.keyColumn == keyColumn && index.coveredLength == length) {
+            return index;
+        }
+        index = KeyIndex.read(indexPath(file), keyColumn, length);
+        if (index == null) {
+            index = build(file, keyColumn);
+            index.writeFrom(indexPath(file), 0);
+        }
+        indexes.put(file, index);
+        return index;
+    }
+
+    private KeyIndex build(Path file, int keyColumn) throws IOException {
+        KeyIndex index = new KeyIndex(keyColumn);
+        MappedByteBuffer mapped = MappedRowReader.map(file);
+        if (mapped != null) {
+            MappedRowReader reader = format.reader(mapped);
+            while (reader.nextRow()) {
+                if (reader.rowStart > 0 && !reader.isBlank()) { // Skip header
+                    index.add(hash(keyOf(reader, keyColumn)), reader.rowStart);
+                }
+            }
+            index.coveredLength = mapped.limit();
+        }
+        return index;
+    }
+
+    private static String keyOf(MappedRowReader reader, int keyColumn) {
+        return reader.isTombstone() ? reader.field(1) : reader.field(keyColumn);
+    }
+
+    private static int hash(String key) {
+        return key.toLowerCase(Locale.ROOT).hashCode();
+    }
+
+    private static Path indexPath(Path file) {
+        return file.resolveSibling(file.getFileName() + INDEX_EXTENSION);
+    }
+
+    /**
+     * Key hashes and row offsets of a file, in file order, with the data
+     * length they cover.
+     */
+    private static final class KeyIndex {
+        private final int keyColumn;
+        private long coveredLength;
+        private int size;
+        private int[] hashes = new int[64];
+        private long[] offsets = new long[64];
+
+        private KeyIndex(int keyColumn) {
+            this.keyColumn = keyColumn;
+        }
+
+        private void add(int hash, long offset) {
+            if (size == hashes.length) {
+                hashes = Arrays.copyOf(hashes, size * 2);
+                offsets = Arrays.copyOf(offsets, size * 2);
+            }
+            hashes[size] = hash;
+            offsets[size] = offset;
+            size++;
+        }
+
+        /**
+         * Reads the sidecar file if it covers exactly the given data length.
+         *
+         * @return the index, or null if missing or stale
+         */
+        private static KeyIndex read(Path indexFile, int keyColumn, long expectedLength) throws IOException {
+            if (!Files.exists(indexFile)) {
+                return null;
+            }
+            ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(indexFile));
+            if (bytes.remaining() < INDEX_HEADER_BYTES || bytes.getLong(0) != expectedLength
+                    || bytes.getInt(8) != keyColumn) {
+                return null;
+            }
+            KeyIndex index = new KeyIndex(keyColumn);
+            index.coveredLength = expectedLength;
+            for (int pos = INDEX_HEADER_BYTES; pos + INDEX_ENTRY_BYTES <= bytes.limit(); pos += INDEX_ENTRY_BYTES) {
+                index.add(bytes.getInt(pos), bytes.getLong(pos + 4));
+            }
+            return index;
+        }
+
+        /**
+         * Writes the entries from the given one on, then the header, so that a
+         * crash in between leaves a header that no longer matches the data.
+         */
+        private void writeFrom(Path indexFile, int from) throws IOException {
+            ByteBuffer entries = ByteBuffer.allocate((size - from) * INDEX_ENTRY_BYTES);
+            for (int i = from; i < size; i++) {
+                entries.putInt(hashes[i]).putLong(offsets[i]);
+            }
+            entries.flip();
+            ByteBuffer header = ByteBuffer.allocate(INDEX_HEADER_BYTES);
+            header.putLong(coveredLength).putInt(keyColumn).flip();
+            try (FileChannel channel = FileChannel.open(indexFile, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE)) {
+                if (from == 0) {
+                    channel.truncate(0);
+                }
+                long position = INDEX_HEADER_BYTES + (long) from * INDEX_ENTRY_BYTES;
+                while (entries.hasRemaining()) {
+                    position += channel.write(entries, position);
+                }
+                while (header.hasRemaining()) {
+                    channel.write(header, header.position());
+                }
+            }
+        }
+    }
+}
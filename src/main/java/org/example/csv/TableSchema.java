@@ -0,0 +1,46 @@
+package org.example.csv;
+
+/**
+ * Types of the columns of a table, used to decode it once into a
+ * {@link ColumnarTable}. Schemas are compared by identity, so each DAO should
+ * keep its own in a constant.
+ */
+public final class TableSchema {
+
+    /**
+     * How the values of a column are parsed and stored.
+     */
+    public enum ColumnType {
+        /** Decimal integer, stored as a long */
+        LONG,
+        /** Decimal number, stored as a double */
+        DOUBLE,
+        /** ISO local date-time, stored as epoch seconds and nanoseconds */
+        DATE_TIME,
+        /** Text with few distinct values, stored as codes into a dictionary */
+        SYMBOL,
+        /** Any other text, stored as it is */
+        STRING
+    }
+
+    private final ColumnType[] types;
+
+    private TableSchema(ColumnType[] types) {
+        this.types = types;
+    }
+
+    /**
+     * @param types the type of each column, in file order
+     */
+    public static TableSchema of(ColumnType... types) {
+        return new TableSchema(types.clone());
+    }
+
+    public int getColumnCount() {
+        return types.length;
+    }
+
+    public ColumnType getType(int column) {
+        return types[column];
+    }
+}
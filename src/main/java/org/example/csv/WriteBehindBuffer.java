@@ -0,0 +1,136 @@
+package org.example.csv;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rows appended to the files of a {@link CSVFileManager} and not written yet,
+ * in append order, one buffer per file.
+ * <p>
+ * The manager writes a buffer in one go when it fills up and before any other
+ * access to its file. The rest is written by a flush task run every flush
+ * interval on a daemon thread, started on first use, and once more on
+ * shutdown.
+ */
+class WriteBehindBuffer {
+
+    private final Map<String, Lines> pending = new ConcurrentHashMap<>();
+    private final int maxRows;
+    private final long flushMillis;
+    private final Runnable flushTask;
+    private ScheduledExecutorService flusher;
+
+    /**
+     * @param maxRows     the rows a buffer holds before it must be written, 0
+     *                    or less to disable buffering
+     * @param flushMillis how often the flush task runs
+     * @param flushTask   writes every buffered row
+     */
+    WriteBehindBuffer(int maxRows, long flushMillis, Runnable flushTask) {
+        this.maxRows = maxRows;
+        this.flushMillis = flushMillis;
+        this.flushTask = flushTask;
+    }
+
+    boolean isEnabled() {
+        return maxRows > 0;
+    }
+
+    /**
+     * Queues copies of rows for a file.
+     *
+     * @return true if the buffer of the file is full and should be written now
+     */
+    boolean add(String filePath, List<String[]> lines) {
+        List<String[]> copies = new ArrayList<>(lines.size());
+        for (String[] line : lines) {
+            copies.add(line.clone());
+        }
+        if (pending.computeIfAbsent(filePath, k -> new Lines()).add(copies) >= maxRows) {
+            return true;
+        }
+        startFlusher();
+        return false;
+    }
+
+    /**
+     * Takes the rows buffered for a file, leaving its buffer empty
+     */
+    List<String[]> drain(String filePath) {
+        Lines lines = pending.get(filePath);
+        return lines != null ? lines.drain() : new ArrayList<>();
+    }
+
+    /**
+     * Puts drained rows that could not be written back in front of the buffer
+     */
+    void putBack(String filePath, List<String[]> drained) {
+        pending.computeIfAbsent(filePath, k -> new Lines()).putBack(drained);
+    }
+
+    boolean hasPending(String filePath) {
+        Lines lines = pending.get(filePath);
+        return lines != null && !lines.isEmpty();
+    }
+
+    /**
+     * @return the files whose buffer is not empty
+     */
+    Set<String> pendingFiles() {
+        Set<String> files = new HashSet<>();
+        pending.forEach((filePath, lines) -> {
+            if (!lines.isEmpty()) {
+                files.add(filePath);
+            }
+        });
+        return files;
+    }
+
+    /**
+     * Starts the periodic flush task on first use, with a shutdown hook that
+     * runs it when the application exits.
+     */
+    private synchronized void startFlusher() {
+        if (flusher != null) {
+            return;
+        }
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "csv-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(flushTask, flushMillis, flushMillis, TimeUnit.MILLISECONDS);
+        Runtime.getRuntime().addShutdownHook(new Thread(flushTask, "csv-write-behind-shutdown"));
+    }
+
+    private static final class Lines {
+        private List<String[]> lines = new ArrayList<>();
+
+        private synchronized int add(List<String[]> newLines) {
+            lines.addAll(newLines);
+            return lines.size();
+        }
+
+        private synchronized List<String[]> drain() {
+            List<String[]> drained = lines;
+            lines = new ArrayList<>();
+            return drained;
+        }
+
+        private synchronized void putBack(List<String[]> drained) {
+            drained.addAll(lines);
+            lines = drained;
+        }
+
+        private synchronized boolean isEmpty() {
+            return lines.isEmpty();
+        }
+    }
+}
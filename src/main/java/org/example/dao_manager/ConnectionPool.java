@@ -0,0 +1,258 @@
+package org.example.dao_manager;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Bounded pool of JDBC connections.
+ * <p>
+ * Connections handed out by {@link #borrow()} are proxies: calling
+ * {@code close()} on them returns the physical connection to the pool instead
+ * of closing it, so DAOs can keep using try-with-resources as usual.
+ * Idle connections are validated on borrow and evicted in background once they
+ * stay unused longer than the idle timeout (never going below the minimum size).
+ */
+public class ConnectionPool {
+
+    private static final Logger logger = Logger.getLogger(ConnectionPool.class.getName());
+
+    private final String url;
+    private final Properties connectionProperties;
+    private final int minSize;
+    private final int maxSize;
+    private final long borrowTimeoutMillis;
+    private final long idleTimeoutMillis;
+    private final int validationTimeoutSeconds;
+
+    private final Semaphore permits;
+    private final LinkedBlockingDeque<IdleConnection> idleConnections = new LinkedBlockingDeque<>();
+    private final ScheduledExecutorService evictor;
+    private volatile boolean closed = false;
+
+    private final AtomicInteger activeCount = new AtomicInteger();
+    private final AtomicLong createdCount = new AtomicLong();
+    private final AtomicLong borrowCount = new AtomicLong();
+    private final AtomicLong timeoutCount = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    public ConnectionPool(String url, Properties connectionProperties, int minSize, int maxSize,
+            long borrowTimeoutMillis, long idleTimeoutMillis, int validationTimeoutSeconds) throws SQLException {
+        if (maxSize < 1 || minSize < 0 || minSize > maxSize)
+            throw new IllegalArgumentException("Invalid pool size: min=" + minSize + ", max=" + maxSize);
+        this.url = url;
+        this.connectionProperties = connectionProperties;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+        this.permits = new Semaphore(maxSize, true);
+
+        for (int i = 0; i < minSize; i++)
+            idleConnections.offerFirst(new IdleConnection(createPhysicalConnection()));
+
+        this.evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "db-pool-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1000, idleTimeoutMillis / 2);
+        evictor.scheduleAtFixedRate(this::evictIdleConnections, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Borrows a connection from the pool, waiting at most the configured borrow
+     * timeout for one to become available
+     *
+     * @return a pooled connection, to be closed by the caller to give it back
+     * @throws SQLException thrown if the pool is exhausted past the timeout or a
+     *                      new connection cannot be opened
+     */
+    public Connection borrow() throws SQLException {
+        if (closed)
+            throw new SQLException("Connection pool is closed");
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                timeoutCount.incrementAndGet();
+                throw new SQLException("Timed out after " + borrowTimeoutMillis
+                        + " ms waiting for a pooled connection (max size " + maxSize + ")");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a pooled connection", e);
+        }
+        try {
+            Connection physical = takeValidIdleConnection();
+            if (physical == null)
+                physical = createPhysicalConnection();
+            recordWait(System.nanoTime() - start);
+            activeCount.incrementAndGet();
+            return wrap(physical);
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private Connection takeValidIdleConnection() {
+        IdleConnection idle;
+        while ((idle = idleConnections.pollFirst()) != null) {
+            if (isValid(idle.connection))
+                return idle.connection;
+            closeQuietly(idle.connection);
+        }
+        return null;
+    }
+
+    private boolean isValid(Connection connection) {
+        try {
+            return !connection.isClosed() && connection.isValid(validationTimeoutSeconds);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private Connection createPhysicalConnection() throws SQLException {
+        Connection connection = DriverManager.getConnection(url, connectionProperties);
+        createdCount.incrementAndGet();
+        return connection;
+    }
+
+    /**
+     * Gives a physical connection back to the pool, discarding it if it has been
+     * left in an unusable state
+     */
+    private void release(Connection physical) {
+        activeCount.decrementAndGet();
+        try {
+            if (closed || physical.isClosed()) {
+                closeQuietly(physical);
+                return;
+            }
+            if (!physical.getAutoCommit()) {
+                physical.rollback();
+                physical.setAutoCommit(true);
+            }
+            idleConnections.offerFirst(new IdleConnection(physical));
+        } catch (SQLException e) {
+            logger.log(Level.FINE, "Discarding broken pooled connection", e);
+            closeQuietly(physical);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void evictIdleConnections() {
+        long now = System.currentTimeMillis();
+        for (IdleConnection idle : idleConnections) {
+            if (idleConnections.size() <= minSize)
+                return;
+            if (now - idle.lastUsed > idleTimeoutMillis && idleConnections.remove(idle))
+                closeQuietly(idle.connection);
+        }
+    }
+
+    private void recordWait(long waitNanos) {
+        borrowCount.incrementAndGet();
+        totalWaitNanos.addAndGet(waitNanos);
+        maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+    }
+
+    private Connection wrap(Connection physical) {
+        AtomicBoolean returned = new AtomicBoolean(false);
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[] { Connection.class },
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "close" -> {
+                            if (returned.compareAndSet(false, true))
+                                release(physical);
+                            return null;
+                        }
+                        case "isClosed" -> {
+                            return returned.get() || physical.isClosed();
+                        }
+                        case "equals" -> {
+                            return proxy == args[0];
+                        }
+                        case "hashCode" -> {
+                            return System.identityHashCode(proxy);
+                        }
+                        default -> {
+                            if (returned.get())
+                                throw new SQLException("Connection has already been returned to the pool");
+                            try {
+                                return method.invoke(physical, args);
+                            } catch (InvocationTargetException e) {
+                                throw e.getCause();
+                            }
+                        }
+                    }
+                });
+    }
+
+    /**
+     * Returns a snapshot of the pool usage counters
+     *
+     * @return the current pool statistics
+     */
+    public ConnectionPoolStats getStats() {
+        long borrows = borrowCount.get();
+        return new ConnectionPoolStats(
+                activeCount.get(),
+                idleConnections.size(),
+                maxSize,
+                createdCount.get(),
+                borrows,
+                timeoutCount.get(),
+                borrows == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(totalWaitNanos.get() / borrows),
+                TimeUnit.NANOSECONDS.toMicros(maxWaitNanos.get()));
+    }
+
+    /**
+     * Closes every idle connection and stops the evictor. Connections still in
+     * use are closed as soon as they are given back.
+     */
+    public void shutdown() {
+        closed = true;
+        evictor.shutdownNow();
+        IdleConnection idle;
+        while ((idle = idleConnections.pollFirst()) != null)
+            closeQuietly(idle.connection);
+    }
+
+    private static void closeQuietly(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            logger.log(Level.FINE, "Error while closing pooled connection", e);
+        }
+    }
+
+    private static final class IdleConnection {
+        private final Connection connection;
+        private final long lastUsed;
+
+        private IdleConnection(Connection connection) {
+            this.connection = connection;
+            this.lastUsed = System.currentTimeMillis();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package org.example.dao_manager;
+
+/**
+ * Immutable snapshot of the {@link ConnectionPool} usage counters
+ */
+public class ConnectionPoolStats {
+    private final int active;
+    private final int idle;
+    private final int maxSize;
+    private final long created;
+    private final long borrows;
+    private final long timeouts;
+    private final long avgWaitMicros;
+    private final long maxWaitMicros;
+
+    public ConnectionPoolStats(int active, int idle, int maxSize, long created, long borrows, long timeouts,
+            long avgWaitMicros, long maxWaitMicros) {
+        this.active = active;
+        this.idle = idle;
+        this.maxSize = maxSize;
+        this.created = created;
+        this.borrows = borrows;
+        this.timeouts = timeouts;
+        this.avgWaitMicros = avgWaitMicros;
+        this.maxWaitMicros = maxWaitMicros;
+    }
+
+    public int getActive() {
+        return active;
+    }
+
+    public int getIdle() {
+        return idle;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long getCreated() {
+        return created;
+    }
+
+    public long getBorrows() {
+        return borrows;
+    }
+
+    public long getTimeouts() {
+        return timeouts;
+    }
+
+    public long getAvgWaitMicros() {
+        return avgWaitMicros;
+    }
+
+    public long getMaxWaitMicros() {
+        return maxWaitMicros;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "active=%d idle=%d max=%d created=%d borrows=%d timeouts=%d avgWait=%dus maxWait=%dus",
+                active, idle, maxSize, created, borrows, timeouts, avgWaitMicros, maxWaitMicros);
+    }
+}
@@ -0,0 +1,117 @@
+package org.example.dao_manager;
+
+import org.example.PropertiesHandler;
+import org.example.exceptions.HabibiException;
+import org.example.exceptions.ResourceNotFoundException;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * Bounded executor dedicated to persistence I/O.
+ * <p>
+ * Any DAO (or facade) call can be turned into a {@link CompletableFuture} with
+ * {@link #submit(DAOTask)}, so graphic controllers can keep the UI thread free
+ * while the DB or the file system answers. Checked exceptions thrown by the
+ * task complete the future exceptionally; {@link #unwrap(Throwable)} gives
+ * back the original exception. When both the workers and the queue are full
+ * the submission is rejected and the returned future fails immediately,
+ * instead of piling up unbounded work.
+ */
+public class DAOExecutor {
+
+    private static final Logger logger = Logger.getLogger(DAOExecutor.class.getName());
+    private static DAOExecutor instance;
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * A unit of persistence work, allowed to throw the application's checked
+     * exceptions
+     *
+     * @param <T> the type of the result
+     */
+    @FunctionalInterface
+    public interface DAOTask<T> {
+        T call() throws HabibiException;
+    }
+
+    private DAOExecutor(int poolSize, int queueCapacity) {
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "dao-io-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+
+        Runtime.getRuntime().addShutdownHook(new Thread(executor::shutdown, "dao-io-shutdown"));
+    }
+
+    public static synchronized DAOExecutor getInstance() {
+        if (instance == null) {
+            int poolSize = 4;
+            int queueCapacity = 100;
+            try {
+                PropertiesHandler properties = PropertiesHandler.getInstance();
+                poolSize = Integer.parseInt(properties.getProperty("dao_io_pool_size", String.valueOf(poolSize)));
+                queueCapacity = Integer.parseInt(
+                        properties.getProperty("dao_io_queue_capacity", String.valueOf(queueCapacity)));
+            } catch (ResourceNotFoundException e) {
+                logger.warning("Properties not found, using default DAO executor sizes");
+            }
+            instance = new DAOExecutor(poolSize, queueCapacity);
+        }
+        return instance;
+    }
+
+    /**
+     * Runs a persistence task on the I/O executor
+     *
+     * @param task the work to run
+     * @param <T>  the type of the result
+     * @return a future completed with the task result, or exceptionally with the
+     *         exception or error thrown by the task (or a RejectedExecutionException if
+     *         the executor is saturated)
+     */
+    public <T> CompletableFuture<T> submit(DAOTask<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                try {
+                    future.complete(task.call());
+                } catch (Throwable e) {
+                    // Errors too, or callers waiting on the future would never be called back
+                    future.completeExceptionally(e);
+                    if (e instanceof Error error)
+                        throw error;
+                }
+            });
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * Gets the exception a task actually threw out of the wrapper added by
+     * CompletableFuture stages
+     *
+     * @param throwable the throwable received by a completion stage
+     * @return the original exception
+     */
+    public static Throwable unwrap(Throwable throwable) {
+        Throwable cause = throwable;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException)
+                && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+}
@@ -29,6 +29,7 @@ public abstract class DAOFactoryAbstract {
                     case DB -> me = new DAOFactoryDB();
                     case DEMO -> me = new DAOFactoryDemo();
                     case FS -> me = new DAOFactoryFS();
+                    case BIN -> me = new DAOFactoryBIN();
                     default -> throw new PropertyException(ExceptionMessagesEnum.UNEXPECTED_PROPERTY_NAME.message);
                 }
             else
@@ -0,0 +1,58 @@
+package org.example.dao_manager;
+
+import org.example.model.food.DAO.FoodDAOBIN;
+import org.example.model.food.DAO.FoodDAOInterface;
+import org.example.model.ordine.DAO.OrdineDAOBIN;
+import org.example.model.ordine.DAO.OrdineDAOInterface;
+import org.example.model.role.Amministratore.DAO.AmministratoreDAOBIN;
+import org.example.model.role.Amministratore.DAO.AmministratoreDAOInterface;
+import org.example.model.role.Cliente.DAO.ClienteDAOBIN;
+import org.example.model.role.Cliente.DAO.ClienteDAOInterface;
+import org.example.model.role.Kebabbaro.DAO.KebabbaroDAOBIN;
+import org.example.model.role.Kebabbaro.DAO.KebabbaroDAOInterface;
+import org.example.model.user.DAO.UserDAOBIN;
+import org.example.model.user.DAO.UserDAOInterface;
+import org.example.model.voucher.DAO.VoucherDAOBIN;
+import org.example.model.voucher.DAO.VoucherDAOInterface;
+
+/**
+ * DAO Factory implementation for binary file persistence, with the same
+ * tables as the File System one (see CsvBinaryConverter).
+ */
+public class DAOFactoryBIN extends DAOFactoryAbstract {
+
+    @Override
+    public KebabbaroDAOInterface getKebabbaroDAO() {
+        return KebabbaroDAOBIN.getInstance();
+    }
+
+    @Override
+    public AmministratoreDAOInterface getAmministratoreDAO() {
+        return AmministratoreDAOBIN.getInstance();
+    }
+
+    @Override
+    public ClienteDAOInterface getClienteDAO() {
+        return ClienteDAOBIN.getInstance();
+    }
+
+    @Override
+    public OrdineDAOInterface getOrdineDAO() {
+        return OrdineDAOBIN.getInstance();
+    }
+
+    @Override
+    public VoucherDAOInterface getVoucherDAO() {
+        return VoucherDAOBIN.getInstance();
+    }
+
+    @Override
+    public UserDAOInterface getUserDAO() {
+        return UserDAOBIN.getInstance();
+    }
+
+    @Override
+    public FoodDAOInterface getFoodDAO() {
+        return FoodDAOBIN.getInstance();
+    }
+}
@@ -5,18 +5,49 @@ import org.example.exceptions.PropertyException;
 import org.example.exceptions.ResourceNotFoundException;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.Properties;
+import java.util.logging.Logger;
 
+/**
+ * Entry point to the DB: hands out connections borrowed from a bounded
+ * {@link ConnectionPool}. Callers must close the returned connection (ideally
+ * with try-with-resources) to give it back to the pool.
+ */
 public class DBConnection {
+    private static final Logger logger = Logger.getLogger(DBConnection.class.getName());
     private static DBConnection instance;
-    private final Connection connection;
+    private final ConnectionPool pool;
 
     private DBConnection() throws SQLException, ResourceNotFoundException, PropertyException {
-        String username = PropertiesHandler.getInstance().getProperty("username");
-        String password = PropertiesHandler.getInstance().getProperty("password");
-        String url = PropertiesHandler.getInstance().getProperty("url");
-        this.connection = DriverManager.getConnection(url, username, password);
+        PropertiesHandler properties = PropertiesHandler.getInstance();
+        String url = properties.getProperty("url");
+        Properties connectionProperties = new Properties();
+        connectionProperties.setProperty("user", properties.getProperty("username"));
+        connectionProperties.setProperty("password", properties.getProperty("password"));
+        // Connector/J keeps a per-connection cache of server-side prepared statements
+        // keyed by SQL text, which pooled connections reuse across borrows
+        connectionProperties.setProperty("useServerPrepStmts", properties.getProperty("db_use_server_prep_stmts", "true"));
+        connectionProperties.setProperty("cachePrepStmts", properties.getProperty("db_cache_prep_stmts", "true"));
+        connectionProperties.setProperty("prepStmtCacheSize", properties.getProperty("db_prep_stmt_cache_size", "250"));
+        connectionProperties.setProperty("prepStmtCacheSqlLimit",
+                properties.getProperty("db_prep_stmt_cache_sql_limit", "2048"));
+        connectionProperties.setProperty("rewriteBatchedStatements",
+                properties.getProperty("db_rewrite_batched_statements", "true"));
+        // Without a server-side cursor the driver buffers whole result sets and ignores the fetch size
+        connectionProperties.setProperty("useCursorFetch", properties.getProperty("db_use_cursor_fetch", "true"));
+
+        this.pool = new ConnectionPool(url, connectionProperties,
+                Integer.parseInt(properties.getProperty("db_pool_min_size", "2")),
+                Integer.parseInt(properties.getProperty("db_pool_max_size", "10")),
+                Long.parseLong(properties.getProperty("db_pool_borrow_timeout_ms", "5000")),
+                Long.parseLong(properties.getProperty("db_pool_idle_timeout_ms", "300000")),
+                Integer.parseInt(properties.getProperty("db_pool_validation_timeout_s", "2")));
+
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            logger.info(() -> "Closing DB connection pool: " + pool.getStats());
+            pool.shutdown();
+        }, "db-pool-shutdown"));
     }
 
     public static synchronized DBConnection getInstance() throws SQLException, ResourceNotFoundException, PropertyException {
@@ -26,7 +57,18 @@ public class DBConnection {
         return instance;
     }
 
-    public Connection getConnection() {
-        return connection;
+    /**
+     * Borrows a connection from the pool
+     *
+     * @return a pooled connection, closing it returns it to the pool
+     * @throws SQLException thrown if no connection becomes available within the
+     *                      borrow timeout
+     */
+    public Connection getConnection() throws SQLException {
+        return pool.borrow();
+    }
+
+    public ConnectionPoolStats getPoolStats() {
+        return pool.getStats();
     }
 }
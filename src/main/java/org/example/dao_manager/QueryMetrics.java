@@ -0,0 +1,159 @@
+package org.example.dao_manager;
+
+import org.example.PropertiesHandler;
+import org.example.exceptions.ResourceNotFoundException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * In-process registry of DB query metrics.
+ * <p>
+ * Every query is recorded under its table and operation (select, insert,
+ * update, ...) with its latency, the number of rows it read or wrote and
+ * whether it failed. Latencies are kept in a fixed-bucket histogram, so
+ * recording never allocates and is safe from any thread. Queries slower than
+ * the db_slow_query_ms threshold are also logged with their SQL text.
+ */
+public class QueryMetrics {
+
+    private static final Logger logger = Logger.getLogger(QueryMetrics.class.getName());
+
+    /**
+     * Upper bounds, in milliseconds, of the latency histogram buckets; the last
+     * bucket collects everything slower
+     */
+    static final long[] BUCKET_BOUNDS_MILLIS = { 1, 5, 10, 25, 50, 100, 250, 500, 1000 };
+
+    private static QueryMetrics instance;
+    private final long slowThresholdNanos;
+    private final Map<String, Metric> metrics = new ConcurrentHashMap<>();
+
+    QueryMetrics(long slowThresholdMillis) {
+        this.slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowThresholdMillis);
+    }
+
+    public static synchronized QueryMetrics getInstance() {
+        if (instance == null) {
+            long threshold = 500;
+            try {
+                threshold = Long.parseLong(PropertiesHandler.getInstance()
+                        .getProperty("db_slow_query_ms", String.valueOf(threshold)));
+            } catch (ResourceNotFoundException e) {
+                logger.warning("Properties not found, using default slow query threshold");
+            }
+            instance = new QueryMetrics(threshold);
+        }
+        return instance;
+    }
+
+    /**
+     * Records the outcome of a query
+     *
+     * @param table        the table the query ran against
+     * @param operation    the kind of query (select, insert, update, ...)
+     * @param sql          the SQL text, logged only for slow queries
+     * @param elapsedNanos how long the query took
+     * @param rows         the rows read or affected
+     * @param failed       whether the query ended with an error
+     */
+    public void record(String table, String operation, String sql, long elapsedNanos, long rows, boolean failed) {
+        metrics.computeIfAbsent(table + ":" + operation, k -> new Metric(table, operation))
+                .record(elapsedNanos, rows, failed);
+        if (elapsedNanos >= slowThresholdNanos) {
+            logger.warning(() -> String.format("Slow query on %s (%s): %d ms, %d rows: %s", table, operation,
+                    TimeUnit.NANOSECONDS.toMillis(elapsedNanos), rows, sql));
+        }
+    }
+
+    /**
+     * Returns a snapshot of the metrics recorded so far, one entry per table and
+     * operation
+     *
+     * @return the current query statistics
+     */
+    public List<QueryStats> getStats() {
+        List<QueryStats> stats = new ArrayList<>();
+        for (Metric metric : metrics.values())
+            stats.add(metric.snapshot());
+        stats.sort((a, b) -> Long.compare(b.getTotalMillis(), a.getTotalMillis()));
+        return stats;
+    }
+
+    /**
+     * Returns the statistics of a single table and operation
+     *
+     * @param table     the table name
+     * @param operation the kind of query
+     * @return the statistics, or null if no such query has been recorded
+     */
+    public QueryStats getStats(String table, String operation) {
+        Metric metric = metrics.get(table + ":" + operation);
+        return metric == null ? null : metric.snapshot();
+    }
+
+    public long getSlowThresholdMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(slowThresholdNanos);
+    }
+
+    /**
+     * Clears every recorded metric
+     */
+    public void reset() {
+        metrics.clear();
+    }
+
+    private final class Metric {
+        private final String table;
+        private final String operation;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder slow = new LongAdder();
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private final LongAdder[] buckets = new LongAdder[BUCKET_BOUNDS_MILLIS.length + 1];
+
+        private Metric(String table, String operation) {
+            this.table = table;
+            this.operation = operation;
+            for (int i = 0; i < buckets.length; i++)
+                buckets[i] = new LongAdder();
+        }
+
+        private void record(long elapsedNanos, long rowCount, boolean failed) {
+            count.increment();
+            rows.add(rowCount);
+            totalNanos.add(elapsedNanos);
+            maxNanos.accumulateAndGet(elapsedNanos, Math::max);
+            if (failed)
+                errors.increment();
+            if (elapsedNanos >= slowThresholdNanos)
+                slow.increment();
+            buckets[bucketOf(elapsedNanos)].increment();
+        }
+
+        private QueryStats snapshot() {
+            long[] histogram = new long[buckets.length];
+            for (int i = 0; i < buckets.length; i++)
+                histogram[i] = buckets[i].sum();
+            return new QueryStats(table, operation, count.sum(), errors.sum(), slow.sum(), rows.sum(),
+                    TimeUnit.NANOSECONDS.toMillis(totalNanos.sum()),
+                    TimeUnit.NANOSECONDS.toMillis(maxNanos.get()), histogram);
+        }
+    }
+
+    private static int bucketOf(long elapsedNanos) {
+        long millis = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        for (int i = 0; i < BUCKET_BOUNDS_MILLIS.length; i++)
+            if (millis < BUCKET_BOUNDS_MILLIS[i])
+                return i;
+        return BUCKET_BOUNDS_MILLIS.length;
+    }
+}
@@ -0,0 +1,88 @@
+package org.example.dao_manager;
+
+import java.util.Arrays;
+
+/**
+ * Immutable snapshot of the {@link QueryMetrics} of one table and operation
+ */
+public class QueryStats {
+    private final String table;
+    private final String operation;
+    private final long count;
+    private final long errors;
+    private final long slow;
+    private final long rows;
+    private final long totalMillis;
+    private final long maxMillis;
+    private final long[] histogram;
+
+    public QueryStats(String table, String operation, long count, long errors, long slow, long rows,
+            long totalMillis, long maxMillis, long[] histogram) {
+        this.table = table;
+        this.operation = operation;
+        this.count = count;
+        this.errors = errors;
+        this.slow = slow;
+        this.rows = rows;
+        this.totalMillis = totalMillis;
+        this.maxMillis = maxMillis;
+        this.histogram = histogram.clone();
+    }
+
+    public String getTable() {
+        return table;
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getErrors() {
+        return errors;
+    }
+
+    public long getSlow() {
+        return slow;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public long getTotalMillis() {
+        return totalMillis;
+    }
+
+    public long getMaxMillis() {
+        return maxMillis;
+    }
+
+    public double getAvgMillis() {
+        return count == 0 ? 0 : (double) totalMillis / count;
+    }
+
+    /**
+     * Returns the number of queries per latency bucket
+     *
+     * @return the histogram counts, one per bound of
+     *         {@link #getHistogramBoundsMillis()} plus a last bucket for slower
+     *         queries
+     */
+    public long[] getHistogram() {
+        return histogram.clone();
+    }
+
+    public static long[] getHistogramBoundsMillis() {
+        return QueryMetrics.BUCKET_BOUNDS_MILLIS.clone();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s %s: count=%d errors=%d slow=%d rows=%d avg=%.1fms max=%dms histogram=%s",
+                table, operation, count, errors, slow, rows, getAvgMillis(), maxMillis, Arrays.toString(histogram));
+    }
+}
@@ -0,0 +1,23 @@
+package org.example.enums;
+
+public enum CacheWarmupTargetEnum {
+    // Prodotti base e add-on del catalogo
+    FOOD("food"),
+    // Voucher attivi
+    VOUCHER("voucher"),
+    // Ordini più recenti, quanti indicati da cache_warmup_ordini_recenti
+    ORDINI("ordini");
+
+    public final String value;
+
+    CacheWarmupTargetEnum(String value) {
+        this.value = value;
+    }
+
+    public static CacheWarmupTargetEnum getCacheWarmupTargetByValue(String value) {
+        for (CacheWarmupTargetEnum target : values())
+            if (target.value.equalsIgnoreCase(value))
+                return target;
+        return null;
+    }
+}
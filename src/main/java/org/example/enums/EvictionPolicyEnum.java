@@ -0,0 +1,22 @@
+package org.example.enums;
+
+public enum EvictionPolicyEnum {
+    // Evicts the least recently used entity
+    LRU("LRU"),
+    // Evicts like LRU, but a new entity is only cached if it is requested
+    // more often than the one it would evict
+    TINY_LFU("TINY_LFU");
+
+    public final String value;
+
+    EvictionPolicyEnum(String value) {
+        this.value = value;
+    }
+
+    public static EvictionPolicyEnum getEvictionPolicyByValue(String value) {
+        for (EvictionPolicyEnum policy : values())
+            if (policy.value.equals(value))
+                return policy;
+        return null;
+    }
+}
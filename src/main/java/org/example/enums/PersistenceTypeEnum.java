@@ -3,6 +3,7 @@ package org.example.enums;
 public enum PersistenceTypeEnum {
     DB("DB"),
     FS("FS"),
+    BIN("BIN"),
     DEMO("DEMO");
 
     public final String value;
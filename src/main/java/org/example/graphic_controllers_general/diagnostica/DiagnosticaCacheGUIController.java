@@ -0,0 +1,84 @@
+package org.example.graphic_controllers_general.diagnostica;
+
+import javafx.beans.property.SimpleStringProperty;
+import javafx.collections.FXCollections;
+import javafx.fxml.FXML;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.scene.control.cell.PropertyValueFactory;
+import org.example.PageNavigationController;
+import org.example.instances_management_abstracts.CacheRegistry;
+import org.example.instances_management_abstracts.CacheStats;
+
+/**
+ * Controller grafico del pannello di diagnostica dell'Amministratore: mostra
+ * i contatori delle cache delle LazyFactory (hit, miss, tempi di caricamento,
+ * evizioni, dimensione) per poterne regolare le dimensioni nel file di
+ * properties.
+ */
+public class DiagnosticaCacheGUIController {
+
+    @FXML
+    private TableView<CacheStats> tabellaCache;
+
+    @FXML
+    private TableColumn<CacheStats, String> colonnaNome;
+
+    @FXML
+    private TableColumn<CacheStats, Long> colonnaHit;
+
+    @FXML
+    private TableColumn<CacheStats, Long> colonnaMiss;
+
+    @FXML
+    private TableColumn<CacheStats, String> colonnaHitRate;
+
+    @FXML
+    private TableColumn<CacheStats, Long> colonnaCaricamenti;
+
+    @FXML
+    private TableColumn<CacheStats, String> colonnaTempoMedio;
+
+    @FXML
+    private TableColumn<CacheStats, Long> colonnaEvizioni;
+
+    @FXML
+    private TableColumn<CacheStats, Long> colonnaScadenze;
+
+    @FXML
+    private TableColumn<CacheStats, Integer> colonnaDimensione;
+
+    @FXML
+    private TableColumn<CacheStats, Long> colonnaPeso;
+
+    @FXML
+    public void initialize() {
+        colonnaNome.setCellValueFactory(new PropertyValueFactory<>("name"));
+        colonnaHit.setCellValueFactory(new PropertyValueFactory<>("hits"));
+        colonnaMiss.setCellValueFactory(new PropertyValueFactory<>("misses"));
+        colonnaHitRate.setCellValueFactory(
+                cellData -> new SimpleStringProperty(String.format("%.1f%%", cellData.getValue().getHitRate() * 100)));
+        colonnaCaricamenti.setCellValueFactory(new PropertyValueFactory<>("loads"));
+        colonnaTempoMedio.setCellValueFactory(
+                cellData -> new SimpleStringProperty(String.format("%.2f", cellData.getValue().getAvgLoadMillis())));
+        colonnaEvizioni.setCellValueFactory(new PropertyValueFactory<>("evictions"));
+        colonnaScadenze.setCellValueFactory(new PropertyValueFactory<>("expirations"));
+        colonnaDimensione.setCellValueFactory(new PropertyValueFactory<>("size"));
+        colonnaPeso.setCellValueFactory(new PropertyValueFactory<>("weight"));
+        aggiorna();
+    }
+
+    @FXML
+    private void handleAggiorna() {
+        aggiorna();
+    }
+
+    @FXML
+    private void handleIndietro() {
+        PageNavigationController.getInstance().returnToMainPage();
+    }
+
+    private void aggiorna() {
+        tabellaCache.setItems(FXCollections.observableArrayList(CacheRegistry.getInstance().getStats()));
+    }
+}
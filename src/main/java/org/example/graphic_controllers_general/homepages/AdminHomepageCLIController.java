@@ -1,8 +1,12 @@
 package org.example.graphic_controllers_general.homepages;
 
 import org.example.BaseCLIGraphicController;
+import org.example.instances_management_abstracts.CacheRegistry;
+import org.example.instances_management_abstracts.CacheStats;
 import org.example.use_cases.visualizza_ordini.graphic_controllers.VisualizzaOrdiniCLIController;
 
+import java.util.List;
+
 /**
  * CLI Graphic Controller for Admin/Kebabbaro Homepage.
  * Displays menu options specific to admin/kebabbaro role.
@@ -66,9 +70,19 @@ public class AdminHomepageCLIController extends BaseCLIGraphicController {
 
     private void handleReport() {
         printHeader("REPORT E STATISTICHE");
-        showInfo(CLI_NOT_IMPLEMENTED_MSG);
-        System.out.println("\n  I report e le statistiche saranno disponibili");
-        System.out.println(CLI_FUTURE_VERSION_MSG);
+        List<CacheStats> stats = CacheRegistry.getInstance().getStats();
+        if (stats.isEmpty()) {
+            showInfo("Nessuna cache ancora in uso");
+        } else {
+            System.out.printf("  %-15s %8s %8s %7s %8s %9s %8s %8s%n",
+                    "Cache", "Hit", "Miss", "Hit%", "Caric.", "Medio ms", "Evizioni", "Elementi");
+            System.out.println(THIN_SEPARATOR);
+            for (CacheStats s : stats) {
+                System.out.printf("  %-15s %8d %8d %6.1f%% %8d %9.2f %8d %8d%n",
+                        truncate(s.getName(), 15), s.getHits(), s.getMisses(), s.getHitRate() * 100, s.getLoads(),
+                        s.getAvgLoadMillis(), s.getEvictions(), s.getSize());
+            }
+        }
         waitForEnter();
     }
 
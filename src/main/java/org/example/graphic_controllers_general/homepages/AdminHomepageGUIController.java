@@ -192,6 +192,15 @@ public class AdminHomepageGUIController implements Initializable {
         PageNavigationController.getInstance().navigateTo("CreaVoucherView");
     }
 
+    /**
+     * Gestisce il click sul pulsante "Diagnostica".
+     */
+    @FXML
+    void handleDiagnostica(ActionEvent event) {
+        logger.log(Level.INFO, "Navigazione verso Diagnostica Cache");
+        PageNavigationController.getInstance().navigateTo("diagnostica_cache");
+    }
+
     /**
      * Gestisce il click sul pulsante "Gestione Utenti".
      */
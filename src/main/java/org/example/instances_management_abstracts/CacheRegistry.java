@@ -0,0 +1,64 @@
+package org.example.instances_management_abstracts;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+/**
+ * In-process registry of the entity caches of the LazyFactory classes, so that
+ * their usage counters can be read in one place. A factory registers its
+ * cache when it is first used; caches of factories never used are not listed.
+ */
+public class CacheRegistry {
+
+    private static final Logger logger = Logger.getLogger(CacheRegistry.class.getName());
+
+    private static CacheRegistry instance;
+    private final Map<String, EntityCache<?>> caches = new ConcurrentHashMap<>();
+
+    CacheRegistry() {
+    }
+
+    public static synchronized CacheRegistry getInstance() {
+        if (instance == null) {
+            instance = new CacheRegistry();
+        }
+        return instance;
+    }
+
+    /**
+     * Registers a cache. A name already taken keeps its first cache, so that
+     * the counters of a factory are never swapped for those of another one
+     */
+    public void register(String name, EntityCache<?> cache) {
+        EntityCache<?> registered = caches.putIfAbsent(name, cache);
+        if (registered != null && registered != cache) {
+            logger.warning(() -> "A cache named " + name + " is already registered, the new one is not listed");
+        }
+    }
+
+    /**
+     * Returns a snapshot of the counters of every registered cache
+     *
+     * @return the cache statistics, sorted by cache name
+     */
+    public List<CacheStats> getStats() {
+        List<CacheStats> stats = new ArrayList<>();
+        for (Map.Entry<String, EntityCache<?>> entry : caches.entrySet()) {
+            stats.add(entry.getValue().stats(entry.getKey()));
+        }
+        stats.sort(Comparator.comparing(CacheStats::getName));
+        return stats;
+    }
+
+    /**
+     * @return the statistics of a cache, or null if no cache has that name
+     */
+    public CacheStats getStats(String name) {
+        EntityCache<?> cache = caches.get(name);
+        return cache != null ? cache.stats(name) : null;
+    }
+}
@@ -0,0 +1,98 @@
+package org.example.instances_management_abstracts;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Immutable snapshot of the usage counters of an {@link EntityCache}
+ */
+public class CacheStats {
+    private final String name;
+    private final long hits;
+    private final long misses;
+    private final long loads;
+    private final long loadFailures;
+    private final long totalLoadNanos;
+    private final long evictions;
+    private final long expirations;
+    private final int size;
+    private final long weight;
+
+    public CacheStats(String name, long hits, long misses, long loads, long loadFailures, long totalLoadNanos,
+            long evictions, long expirations, int size, long weight) {
+        this.name = name;
+        this.hits = hits;
+        this.misses = misses;
+        this.loads = loads;
+        this.loadFailures = loadFailures;
+        this.totalLoadNanos = totalLoadNanos;
+        this.evictions = evictions;
+        this.expirations = expirations;
+        this.size = size;
+        this.weight = weight;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * @return the share of lookups served from the cache, 0 if none
+     */
+    public double getHitRate() {
+        long requests = hits + misses;
+        return requests == 0 ? 0 : (double) hits / requests;
+    }
+
+    public long getLoads() {
+        return loads;
+    }
+
+    public long getLoadFailures() {
+        return loadFailures;
+    }
+
+    public long getTotalLoadMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(totalLoadNanos);
+    }
+
+    /**
+     * @return the average time of a load from the persistence layer, failed
+     *         ones included
+     */
+    public double getAvgLoadMillis() {
+        long count = loads + loadFailures;
+        return count == 0 ? 0 : totalLoadNanos / 1_000_000.0 / count;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public long getExpirations() {
+        return expirations;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public long getWeight() {
+        return weight;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "%s: hits=%d misses=%d hitRate=%.1f%% loads=%d loadFailures=%d avgLoad=%.2fms evictions=%d expirations=%d size=%d weight=%d",
+                name, hits, misses, getHitRate() * 100, loads, loadFailures, getAvgLoadMillis(), evictions,
+                expirations, size, weight);
+    }
+}
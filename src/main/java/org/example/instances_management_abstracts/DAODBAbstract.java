@@ -1,6 +1,8 @@
 package org.example.instances_management_abstracts;
 
+import org.example.PropertiesHandler;
 import org.example.dao_manager.DBConnection;
+import org.example.dao_manager.QueryMetrics;
 import org.example.enums.ExceptionMessagesEnum;
 import org.example.exceptions.*;
 
@@ -8,10 +10,43 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetProvider;
 
 public abstract class DAODBAbstract<T> {
+    /**
+     * SQL text already built for a given query shape (operation, table and
+     * columns). Shapes never change at runtime, so each one is formatted once and
+     * then reused; the resulting identical SQL strings also let the driver-side
+     * prepared statement cache of every pooled connection hit.
+     */
+    private static final Map<List<Object>, String> SQL_TEXT_CACHE = new ConcurrentHashMap<>();
+
+    /**
+     * Number of rows fetched per round trip by read queries, loaded lazily from
+     * the db_fetch_size property
+     */
+    private static volatile Integer fetchSize;
+
+    /**
+     * Builds a lightweight read model from the current row of a projection
+     * query
+     *
+     * @param <R> the read model type
+     */
+    @FunctionalInterface
+    protected interface RowMapper<R> {
+        R map(ResultSet rs) throws SQLException;
+    }
+
     /**
      * Inserts an object into DB
      * 
@@ -125,40 +160,239 @@ public abstract class DAODBAbstract<T> {
             List<T> exclusions, List<Object> objects, Boolean wantAll) throws UserNotFoundException, DAOException,
             PropertyException, ResourceNotFoundException, MissingAuthorizationException, UnrecognizedRoleException,
             WrongListQueryIdentifierValue, ObjectNotFoundException {
-        String query;
-        if (wantAll.equals(Boolean.FALSE))
-            query = String.format("select * from %s where %s", table, andStringBuilder(identifiers, identifiersValue));
-        else
-            query = String.format("select * from %s", table);
+        String finalQuery = listSql(table, identifiers, identifiersValue, exclusions, wantAll);
+        CachedRowSet result = detachedQuery(table, "select list", finalQuery, wantAll, identifiersValue);
+        // The connection is already back in the pool: builders may query other DAOs
+        try (CachedRowSet rs = result) {
+            List<T> list = new ArrayList<>(rs.size());
+            while (rs.next())
+                list.add(queryObjectBuilder(rs, objects));
+            return list;
+        } catch (SQLException e) {
+            throw new DAOException(ExceptionMessagesEnum.DAO.message, e);
+        }
+    }
 
-        String finalQuery;
-        if (exclusions.isEmpty()) {
-            finalQuery = query;
-        } else {
-            finalQuery = getListQueryExclusions(query, identifiers, exclusions);
+    /**
+     * Queries the DB for a list of objects like getListQuery, but hands every
+     * object to a consumer as soon as its row is read instead of collecting them.
+     * Rows are read through a forward-only, read-only cursor fetching
+     * db_fetch_size rows at a time, so large tables are scanned in constant
+     * memory. The connection stays open while the builder and the consumer
+     * run, so this is only meant for builders that do not query other DAOs.
+     *
+     * @param table            the table where to find the information
+     * @param identifiers      the name of the columns needed to find the entry in
+     *                         the table
+     * @param identifiersValue the value of such identifiers
+     * @param exclusions       the list of objects to be excluded from the query
+     * @param objects          the objects needed to instantiate the new objects
+     * @param wantAll          true to read the whole table ignoring identifiers
+     * @param consumer         receives each object in the order rows are read
+     * @throws DAOException              thrown if errors occur while retrieving
+     *                                   data from persistence layer
+     * @throws PropertyException         thrown if errors occur while loading
+     *                                   properties from .properties file
+     * @throws ResourceNotFoundException thrown if the properties resource file
+     *                                   cannot be found
+     */
+    protected void streamListQuery(String table, List<String> identifiers, List<Object> identifiersValue,
+            List<T> exclusions, List<Object> objects, Boolean wantAll, Consumer<? super T> consumer)
+            throws UserNotFoundException, DAOException, PropertyException, ResourceNotFoundException,
+            MissingAuthorizationException, UnrecognizedRoleException, WrongListQueryIdentifierValue,
+            ObjectNotFoundException {
+        String finalQuery = listSql(table, identifiers, identifiersValue, exclusions, wantAll);
+        // Only the time spent in JDBC calls is recorded, not the time of the
+        // builder and the consumer between one row and the next
+        long jdbcNanos = 0;
+        long mark = System.nanoTime();
+        boolean inJdbc = true;
+        long rows = 0;
+        boolean failed = false;
+        try (Connection connection = DBConnection.getInstance().getConnection();
+                PreparedStatement stmt = createStatement(connection, finalQuery, wantAll, identifiersValue);
+                ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                jdbcNanos += System.nanoTime() - mark;
+                inJdbc = false;
+                rows++;
+                consumer.accept(queryObjectBuilder(rs, objects));
+                mark = System.nanoTime();
+                inJdbc = true;
+            }
+        } catch (PropertyException | ResourceNotFoundException | SQLException e) {
+            failed = true;
+            throw new DAOException(ExceptionMessagesEnum.DAO.message, e);
+        } finally {
+            if (inJdbc) {
+                jdbcNanos += System.nanoTime() - mark;
+            }
+            recordElapsed(table, "select list", finalQuery, jdbcNanos, rows, failed);
         }
-        List<T> list = new ArrayList<>();
-        Connection connection;
-        try {
-            connection = DBConnection.getInstance().getConnection();
+    }
+
+    /**
+     * Queries the DB selecting only the given columns, and hands a read model
+     * built by the mapper from each row to a consumer. Unlike streamListQuery,
+     * no entity is instantiated, so list screens transfer and build only what
+     * they show.
+     *
+     * @param <R>              the read model type
+     * @param table            the table where to find the information
+     * @param columns          the columns to be selected
+     * @param identifiers      the name of the columns needed to find the entry in
+     *                         the table
+     * @param identifiersValue the value of such identifiers
+     * @param mapper           builds the read model from a row
+     * @param consumer         receives each read model in the order rows are read
+     * @throws DAOException              thrown if errors occur while retrieving
+     *                                   data from persistence layer
+     * @throws PropertyException         thrown if errors occur while loading
+     *                                   properties from .properties file
+     * @throws ResourceNotFoundException thrown if the properties resource file
+     *                                   cannot be found
+     */
+    protected <R> void streamProjectionQuery(String table, List<String> columns, List<String> identifiers,
+            List<Object> identifiersValue, RowMapper<R> mapper, Consumer<? super R> consumer)
+            throws DAOException, PropertyException, ResourceNotFoundException {
+        checkSameSize(identifiers, identifiersValue);
+        String query = memoizedSql(List.of("projection", table, List.copyOf(columns), List.copyOf(identifiers)),
+                () -> String.format("select %s from %s where %s", String.join(", ", columns), table,
+                        andStringBuilder(identifiers)));
+        long start = System.nanoTime();
+        long rows = 0;
+        boolean failed = true;
+        try (Connection connection = DBConnection.getInstance().getConnection();
+                PreparedStatement stmt = createStatement(connection, query, false, identifiersValue);
+                ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                rows++;
+                consumer.accept(mapper.map(rs));
+            }
+            failed = false;
         } catch (SQLException e) {
             throw new DAOException(ExceptionMessagesEnum.DAO.message, e);
+        } finally {
+            recordQuery(table, "projection", query, start, rows, failed);
         }
-        try (PreparedStatement stmt = createStatement(connection, finalQuery, wantAll, identifiersValue);
+    }
+
+    /**
+     * Reads one page of a projection query with keyset (seek) pagination: rows
+     * are ordered by a unique key column and the page starts right after the
+     * last key of the previous one, so the DB never scans skipped rows as it
+     * would with an offset.
+     *
+     * @param <R>              the read model type
+     * @param table            the table where to find the information
+     * @param columns          the columns to be selected
+     * @param identifiers      the name of the columns needed to find the entry in
+     *                         the table, or an empty list to page the whole
+     *                         table
+     * @param identifiersValue the value of such identifiers
+     * @param keyColumn        the unique column the pages are ordered by
+     * @param afterKey         the last key of the previous page, null for the
+     *                         first page
+     * @param descending       true to order from the highest key
+     * @param limit            the maximum number of rows of the page
+     * @param mapper           builds the read model from a row
+     * @param consumer         receives each read model of the page, in order
+     * @throws DAOException              thrown if errors occur while retrieving
+     *                                   data from persistence layer
+     * @throws PropertyException         thrown if errors occur while loading
+     *                                   properties from .properties file
+     * @throws ResourceNotFoundException thrown if the properties resource file
+     *                                   cannot be found
+     */
+    protected <R> void streamProjectionPageQuery(String table, List<String> columns, List<String> identifiers,
+            List<Object> identifiersValue, String keyColumn, Object afterKey, boolean descending, int limit,
+            RowMapper<R> mapper, Consumer<? super R> consumer)
+            throws DAOException, PropertyException, ResourceNotFoundException {
+        checkSameSize(identifiers, identifiersValue);
+        boolean firstPage = afterKey == null;
+        String query = memoizedSql(
+                List.of("page", table, List.copyOf(columns), List.copyOf(identifiers), keyColumn, descending, firstPage),
+                () -> {
+                    List<CharSequence> conditions = new ArrayList<>();
+                    if (!identifiers.isEmpty())
+                        conditions.add(andStringBuilder(identifiers));
+                    if (!firstPage)
+                        conditions.add(String.format("%s %s ?", keyColumn, descending ? "<" : ">"));
+                    return String.format("select %s from %s%s order by %s %s limit ?",
+                            String.join(", ", columns), table,
+                            conditions.isEmpty() ? "" : " where " + String.join(" and ", conditions),
+                            keyColumn, descending ? "desc" : "asc");
+                });
+        List<Object> values = new ArrayList<>(identifiersValue);
+        if (!firstPage)
+            values.add(afterKey);
+        values.add(limit);
+        long start = System.nanoTime();
+        long rows = 0;
+        boolean failed = true;
+        try (Connection connection = DBConnection.getInstance().getConnection();
+                PreparedStatement stmt = createStatement(connection, query, false, values);
                 ResultSet rs = stmt.executeQuery()) {
             while (rs.next()) {
-                list.add(queryObjectBuilder(rs, objects));
+                rows++;
+                consumer.accept(mapper.map(rs));
             }
+            failed = false;
+        } catch (SQLException e) {
+            throw new DAOException(ExceptionMessagesEnum.DAO.message, e);
+        } finally {
+            recordQuery(table, "page", query, start, rows, failed);
+        }
+    }
+
+    private String listSql(String table, List<String> identifiers, List<Object> identifiersValue,
+            List<T> exclusions, Boolean wantAll) throws DAOException, WrongListQueryIdentifierValue {
+        String query;
+        if (wantAll.equals(Boolean.FALSE))
+            query = selectSql(table, identifiers, identifiersValue);
+        else
+            query = memoizedSql(List.of("select all", table), () -> String.format("select * from %s", table));
+
+        if (exclusions.isEmpty())
+            return query;
+        return getListQueryExclusions(query, identifiers, exclusions);
+    }
+
+    /**
+     * Runs a read query and copies its rows into a disconnected row set, so
+     * that the pooled connection is released before any entity is built. A
+     * builder that loads related objects through other DAOs then never holds
+     * two connections at once.
+     *
+     * @return the rows of the query, readable after the connection is closed
+     * @throws DAOException thrown if errors occur while retrieving data from
+     *                      persistence layer
+     */
+    private CachedRowSet detachedQuery(String table, String operation, String query, Boolean wantAll,
+            List<Object> identifiersValue) throws DAOException {
+        long start = System.nanoTime();
+        long rows = 0;
+        boolean failed = true;
+        try (Connection connection = DBConnection.getInstance().getConnection();
+                PreparedStatement stmt = createStatement(connection, query, wantAll, identifiersValue);
+                ResultSet rs = stmt.executeQuery()) {
+            CachedRowSet copy = RowSetProvider.newFactory().createCachedRowSet();
+            copy.populate(rs);
+            rows = copy.size();
+            failed = false;
+            return copy;
         } catch (PropertyException | ResourceNotFoundException | SQLException e) {
             throw new DAOException(ExceptionMessagesEnum.DAO.message, e);
+        } finally {
+            recordQuery(table, operation, query, start, rows, failed);
         }
-        return list;
     }
 
     private PreparedStatement createStatement(Connection connection, String finalQuery, Boolean wantAll,
-            List<Object> identifiersValue) throws SQLException {
-        PreparedStatement stmt = connection.prepareStatement(finalQuery, ResultSet.TYPE_SCROLL_SENSITIVE,
-                ResultSet.CONCUR_UPDATABLE);
+            List<Object> identifiersValue) throws SQLException, ResourceNotFoundException {
+        PreparedStatement stmt = connection.prepareStatement(finalQuery, ResultSet.TYPE_FORWARD_ONLY,
+                ResultSet.CONCUR_READ_ONLY);
+        stmt.setFetchSize(getFetchSize());
         if (wantAll.equals(Boolean.FALSE))
             setQueryQuestionMarksValue(stmt, identifiersValue, 1);
         return stmt;
@@ -214,21 +448,15 @@ public abstract class DAODBAbstract<T> {
             throws UserNotFoundException, DAOException, PropertyException, ResourceNotFoundException,
             UnrecognizedRoleException, MissingAuthorizationException, ObjectNotFoundException,
             WrongListQueryIdentifierValue {
-        String query = String.format("select * from %s where %s", table,
-                andStringBuilder(identifiers, identifiersValues));
-        Connection connection;
-        try {
-            connection = DBConnection.getInstance().getConnection();
-        } catch (SQLException e) {
-            throw new DAOException(ExceptionMessagesEnum.DAO.message, e);
-        }
-        try (PreparedStatement stmt = createStatement(connection, query, false, identifiersValues);
-                ResultSet rs = stmt.executeQuery()) {
-            if (rs.first()) {
+        String query = selectSql(table, identifiers, identifiersValues);
+        CachedRowSet result = detachedQuery(table, "select", query, false, identifiersValues);
+        // The connection is already back in the pool: builders may query other DAOs
+        try (CachedRowSet rs = result) {
+            if (rs.next())
                 return queryObjectBuilder(rs, objects);
-            } else
+            else
                 throw new ObjectNotFoundException(ExceptionMessagesEnum.OBJ_NOT_FOUND.message);
-        } catch (PropertyException | ResourceNotFoundException | SQLException e) {
+        } catch (SQLException e) {
             throw new DAOException(ExceptionMessagesEnum.DAO.message, e);
         }
     }
@@ -246,11 +474,8 @@ public abstract class DAODBAbstract<T> {
      */
     protected void insertQuery(String table, List<Object> parametersValue)
             throws DAOException, PropertyException, ResourceNotFoundException {
-        StringBuilder questionBuilder = new StringBuilder();
-        questionBuilder.append("?,".repeat(parametersValue.size()));
-        questionBuilder.deleteCharAt(questionBuilder.length() - 1);
-        String query = String.format("insert into %s values (%s)", table, questionBuilder);
-        setQuestionMarksAndExecuteQuery(parametersValue, query);
+        String query = insertSql(table, parametersValue.size());
+        setQuestionMarksAndExecuteQuery(table, "insert", parametersValue, query);
     }
 
     /**
@@ -272,8 +497,9 @@ public abstract class DAODBAbstract<T> {
             throws PropertyException, ResourceNotFoundException, DAOException {
         if (identifiers.size() != identifiersValue.size())
             throw new DAOException(ExceptionMessagesEnum.NUMBERS_DONT_MATCH.message); // TBI implementare exception
-        String query = String.format("delete from %s where %s", table, andStringBuilder(identifiers, identifiersValue));
-        setQuestionMarksAndExecuteQuery(identifiersValue, query);
+        String query = memoizedSql(List.of("delete", table, List.copyOf(identifiers)),
+                () -> String.format("delete from %s where %s", table, andStringBuilder(identifiers)));
+        setQuestionMarksAndExecuteQuery(table, "delete", identifiersValue, query);
     }
 
     /**
@@ -285,19 +511,20 @@ public abstract class DAODBAbstract<T> {
      * @throws PropertyException
      * @throws DAOException
      */
-    private void setQuestionMarksAndExecuteQuery(List<Object> values, String query)
+    private void setQuestionMarksAndExecuteQuery(String table, String operation, List<Object> values, String query)
             throws ResourceNotFoundException, PropertyException, DAOException {
-        Connection connection;
-        try {
-            connection = DBConnection.getInstance().getConnection();
-        } catch (SQLException e) {
-            throw new DAOException(ExceptionMessagesEnum.DAO.message, e);
-        }
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        long start = System.nanoTime();
+        long rows = 0;
+        boolean failed = true;
+        try (Connection connection = DBConnection.getInstance().getConnection();
+                PreparedStatement stmt = connection.prepareStatement(query)) {
             setQueryQuestionMarksValue(stmt, values, 1);
-            stmt.executeUpdate();
+            rows = stmt.executeUpdate();
+            failed = false;
         } catch (SQLException e) {
             throw new DAOException(ExceptionMessagesEnum.DAO.message, e);
+        } finally {
+            recordQuery(table, operation, query, start, rows, failed);
         }
     }
 
@@ -324,38 +551,234 @@ public abstract class DAODBAbstract<T> {
             throws DAOException, PropertyException, ResourceNotFoundException {
         if (identifiers.size() != identifiersValue.size())
             throw new DAOException(ExceptionMessagesEnum.NUMBERS_DONT_MATCH.message); // TBI implementare exception
-        StringBuilder columnBuilder = commaStringBuilder(parameters, parametersValue);
-        StringBuilder identifierBuilder = andStringBuilder(identifiers, identifiersValue);
-        String query = String.format("update %s set %s where %s", table, columnBuilder, identifierBuilder);
-        Connection connection;
-        try {
-            connection = DBConnection.getInstance().getConnection();
+        checkSameSize(parameters, parametersValue);
+        String query = updateSql(table, parameters, identifiers);
+        long start = System.nanoTime();
+        long rows = 0;
+        boolean failed = true;
+        try (Connection connection = DBConnection.getInstance().getConnection();
+                PreparedStatement stmt = connection.prepareStatement(query)) {
+            setQueryQuestionMarksValue(stmt, parametersValue, 1);
+            setQueryQuestionMarksValue(stmt, identifiersValue, parametersValue.size() + 1);
+            rows = stmt.executeUpdate();
+            failed = false;
         } catch (SQLException e) {
             throw new DAOException(ExceptionMessagesEnum.DAO.message, e);
+        } finally {
+            recordQuery(table, "update", query, start, rows, failed);
         }
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
-            setQueryQuestionMarksValue(stmt, parametersValue, 1);
-            setQueryQuestionMarksValue(stmt, identifiersValue, parametersValue.size() + 1);
-            stmt.executeUpdate();
+    }
+
+    /**
+     * Queries DB to insert many entries into a table with a single JDBC batch,
+     * executed in one transaction. With rewriteBatchedStatements enabled the
+     * driver sends the whole batch as multi-row inserts.
+     *
+     * @param table the table to insert into
+     * @param rows  the values of each entry to insert, all of the same size
+     * @throws DAOException              thrown if errors occur while retrieving
+     *                                   data from persistence layer
+     * @throws PropertyException         thrown if errors occur while loading
+     *                                   properties from .properties file
+     * @throws ResourceNotFoundException thrown if the properties resource file
+     *                                   cannot be found
+     */
+    protected void insertBatch(String table, List<List<Object>> rows)
+            throws DAOException, PropertyException, ResourceNotFoundException {
+        if (rows.isEmpty())
+            return;
+        int size = rows.get(0).size();
+        for (List<Object> row : rows)
+            if (row.size() != size)
+                throw new DAOException(ExceptionMessagesEnum.NUMBERS_DONT_MATCH.message);
+        String query = insertSql(table, size);
+        executeBatch(table, "insert batch", query, rows, List.of());
+    }
+
+    /**
+     * Queries DB to update many entries of a table with a single JDBC batch,
+     * executed in one transaction. Every entry updates the same columns.
+     *
+     * @param table             the table to update
+     * @param parameters        the columns to be updated
+     * @param parametersValues  the values to update, one list per entry
+     * @param identifiers       the identifiers columns aka the primary key
+     * @param identifiersValues the identifiers value of each entry to update
+     * @return the number of rows each entry matched, in entry order; entries
+     *         the driver reports as {@link Statement#SUCCESS_NO_INFO} count
+     *         as one row
+     * @throws DAOException              thrown if errors occur while retrieving
+     *                                   data from persistence layer
+     * @throws PropertyException         thrown if errors occur while loading
+     *                                   properties from .properties file
+     * @throws ResourceNotFoundException thrown if the properties resource file
+     *                                   cannot be found
+     */
+    protected int[] updateBatch(String table, List<String> parameters, List<List<Object>> parametersValues,
+            List<String> identifiers, List<List<Object>> identifiersValues)
+            throws DAOException, PropertyException, ResourceNotFoundException {
+        if (parametersValues.size() != identifiersValues.size())
+            throw new DAOException(ExceptionMessagesEnum.NUMBERS_DONT_MATCH.message);
+        if (parametersValues.isEmpty())
+            return new int[0];
+        for (int i = 0; i < parametersValues.size(); i++) {
+            checkSameSize(parameters, parametersValues.get(i));
+            checkSameSize(identifiers, identifiersValues.get(i));
+        }
+        String query = updateSql(table, parameters, identifiers);
+        return executeBatch(table, "update batch", query, parametersValues, identifiersValues);
+    }
+
+    /**
+     * Adds one batch entry per row of values and executes the batch inside a
+     * transaction, rolling it back if any entry fails
+     *
+     * @param query           the query to be filled and executed
+     * @param values          the values of the first question marks, per entry
+     * @param trailingValues  the values of the remaining question marks, per
+     *                        entry, or an empty list
+     * @return the number of rows affected by each entry, in entry order;
+     *         entries the driver reports as {@link Statement#SUCCESS_NO_INFO}
+     *         count as one row
+     * @throws ResourceNotFoundException
+     * @throws PropertyException
+     * @throws DAOException
+     */
+    private int[] executeBatch(String table, String operation, String query, List<List<Object>> values,
+            List<List<Object>> trailingValues) throws ResourceNotFoundException, PropertyException, DAOException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        try (Connection connection = DBConnection.getInstance().getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement stmt = connection.prepareStatement(query)) {
+                for (int i = 0; i < values.size(); i++) {
+                    setQueryQuestionMarksValue(stmt, values.get(i), 1);
+                    if (!trailingValues.isEmpty())
+                        setQueryQuestionMarksValue(stmt, trailingValues.get(i), values.get(i).size() + 1);
+                    stmt.addBatch();
+                }
+                int[] affected = stmt.executeBatch();
+                for (int i = 0; i < affected.length; i++)
+                    if (affected[i] == Statement.SUCCESS_NO_INFO)
+                        affected[i] = 1;
+                connection.commit();
+                failed = false;
+                return affected;
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
         } catch (SQLException e) {
             throw new DAOException(ExceptionMessagesEnum.DAO.message, e);
+        } finally {
+            recordQuery(table, operation, query, start, values.size(), failed);
         }
     }
 
+    private static String insertSql(String table, int size) {
+        return memoizedSql(List.of("insert", table, size), () -> {
+            StringBuilder questionBuilder = new StringBuilder();
+            questionBuilder.append("?,".repeat(size));
+            questionBuilder.deleteCharAt(questionBuilder.length() - 1);
+            return String.format("insert into %s values (%s)", table, questionBuilder);
+        });
+    }
+
+    private static String updateSql(String table, List<String> parameters, List<String> identifiers) {
+        return memoizedSql(List.of("update", table, List.copyOf(parameters), List.copyOf(identifiers)),
+                () -> String.format("update %s set %s where %s", table, commaStringBuilder(parameters),
+                        andStringBuilder(identifiers)));
+    }
+
+    /**
+     * Returns the select query filtering a table on the given identifiers,
+     * building it only the first time its shape is requested
+     *
+     * @param table       the table where to find the information
+     * @param identifiers the name of the columns in the where clause
+     * @param values      the values of such identifiers
+     * @return the select query string
+     * @throws DAOException thrown if the number of identifiers and values differ
+     */
+    protected String selectSql(String table, List<String> identifiers, List<Object> values) throws DAOException {
+        checkSameSize(identifiers, values);
+        return memoizedSql(List.of("select", table, List.copyOf(identifiers)),
+                () -> String.format("select * from %s where %s", table, andStringBuilder(identifiers)));
+    }
+
+    /**
+     * Returns the SQL text cached for a query shape, building it on first use
+     *
+     * @param shape      the key identifying the query shape
+     * @param sqlBuilder builds the SQL text if it has not been cached yet
+     * @return the SQL text
+     */
+    protected static String memoizedSql(List<Object> shape, Supplier<String> sqlBuilder) {
+        String sql = SQL_TEXT_CACHE.get(shape);
+        if (sql == null)
+            sql = SQL_TEXT_CACHE.computeIfAbsent(shape, k -> sqlBuilder.get());
+        return sql;
+    }
+
+    /**
+     * Records the latency, rows and outcome of a query in the
+     * {@link QueryMetrics} registry, tagged by table and operation
+     *
+     * @param table      the table the query ran against
+     * @param operation  the kind of query
+     * @param sql        the SQL text
+     * @param startNanos the System.nanoTime() taken before running the query
+     * @param rows       the rows read or affected
+     * @param failed     whether the query ended with an error
+     */
+    protected static void recordQuery(String table, String operation, String sql, long startNanos, long rows,
+            boolean failed) {
+        recordElapsed(table, operation, sql, System.nanoTime() - startNanos, rows, failed);
+    }
+
+    /**
+     * Records a query like {@link #recordQuery}, given the time spent in JDBC
+     * calls instead of a start time
+     *
+     * @param elapsedNanos the time spent running the query and reading its rows
+     */
+    protected static void recordElapsed(String table, String operation, String sql, long elapsedNanos, long rows,
+            boolean failed) {
+        QueryMetrics.getInstance().record(table, operation, sql, elapsedNanos, rows, failed);
+    }
+
+    /**
+     * Returns the number of rows read queries fetch per round trip
+     *
+     * @return the configured fetch size
+     * @throws ResourceNotFoundException thrown if the properties resource file
+     *                                   cannot be found
+     */
+    protected static int getFetchSize() throws ResourceNotFoundException {
+        Integer size = fetchSize;
+        if (size == null) {
+            size = Integer.parseInt(PropertiesHandler.getInstance().getProperty("db_fetch_size", "500"));
+            fetchSize = size;
+        }
+        return size;
+    }
+
+    private static void checkSameSize(List<String> names, List<Object> values) throws DAOException {
+        if (names.size() != values.size())
+            throw new DAOException(ExceptionMessagesEnum.NUMBERS_DONT_MATCH.message); // TBI implementare exception
+    }
+
     /**
      * Builds a comma separated, column names and question marks query string piece
-     * from a list of names and the list of their value
+     * from a list of names
      * 
-     * @param names  the identifiers name list
-     * @param values the values of such identifiers
+     * @param names the identifiers name list
      * @return the built String
-     * @throws DAOException thrown if errors occur while retrieving data from
-     *                      persistence layer
      */
-    private StringBuilder commaStringBuilder(List<String> names, List<Object> values) throws DAOException {
+    private static StringBuilder commaStringBuilder(List<String> names) {
         StringBuilder builder = new StringBuilder();
-        if (names.size() != values.size())
-            throw new DAOException(ExceptionMessagesEnum.NUMBERS_DONT_MATCH.message); // TBI implementare exception
         for (String s : names)
             builder.append(s).append(" = ? ,");
         builder.deleteCharAt(builder.length() - 1);
@@ -364,17 +787,12 @@ public abstract class DAODBAbstract<T> {
 
     /**
      * Builds an and separated, column names and question marks query string piece
-     * from a list of names and the list of their value
+     * from a list of names
      * 
-     * @param names  the identifiers name list
-     * @param values the values of such identifiers
+     * @param names the identifiers name list
      * @return the built String
-     * @throws DAOException thrown if errors occur while retrieving data from
-     *                      persistence layer
      */
-    private StringBuilder andStringBuilder(List<String> names, List<Object> values) throws DAOException {
-        if (names.size() != values.size())
-            throw new DAOException(ExceptionMessagesEnum.NUMBERS_DONT_MATCH.message); // TBI implementare exception
+    private static StringBuilder andStringBuilder(List<String> names) {
         StringBuilder builder = new StringBuilder();
         for (String s : names)
             builder.append(s).append(" = ? and ");
@@ -384,15 +802,22 @@ public abstract class DAODBAbstract<T> {
 
     protected void queryAndAddToList(String query, List<String> list)
             throws DAOException, PropertyException, ResourceNotFoundException {
+        long start = System.nanoTime();
+        long rows = 0;
+        boolean failed = true;
         try (Connection connection = DBConnection.getInstance().getConnection();
-                PreparedStatement stmt = connection.prepareStatement(query, ResultSet.TYPE_SCROLL_SENSITIVE,
-                        ResultSet.CONCUR_UPDATABLE);
+                PreparedStatement stmt = connection.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY,
+                        ResultSet.CONCUR_READ_ONLY);
                 ResultSet rs = stmt.executeQuery()) {
             while (rs.next()) {
+                rows++;
                 list.add(rs.getString("recipient"));
             }
+            failed = false;
         } catch (SQLException e) {
             throw new DAOException(ExceptionMessagesEnum.DAO.message, e);
+        } finally {
+            recordQuery("recipient", "select", query, start, rows, failed);
         }
     }
 }
@@ -0,0 +1,611 @@
+package org.example.instances_management_abstracts;
+
+import org.example.enums.EvictionPolicyEnum;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.ToIntFunction;
+import java.util.function.UnaryOperator;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Thread-safe cache of the entity instances handed out by a LazyFactory,
+ * indexed by each of the entity's natural keys (id, codice, email...).
+ * Lookups go straight to a concurrent hash map; writes are serialized so that
+ * the indexes of one entity are always updated together.
+ * <p>
+ * Keys are registered with {@link #addKey(Function)} when the factory is
+ * built, before the cache is shared. An entity is the same as a cached one
+ * if any of its keys matches, checked in registration order.
+ * <p>
+ * The cache is bounded by number of entities and by total weight: when over
+ * a bound the least recently used entity is evicted. With
+ * {@link EvictionPolicyEnum#TINY_LFU} a loaded entity is only admitted into a
+ * full cache if a sketch of recent lookups says its keys are requested more
+ * often than those of the entity it would evict, so a burst of one-off loads
+ * does not flush the entities in daily use. Entities expire a fixed time
+ * after being cached, and removal listeners are told about every entity that
+ * leaves the cache and why.
+ * <p>
+ * Lookups never wait for the lock: recency and frequency are only recorded
+ * when it is free, so under contention they are approximate. Hits, misses,
+ * evictions and expirations are counted exactly; the time spent loading
+ * entities is reported by the factory through {@link #recordLoad(long, boolean)}.
+ *
+ * @param <T> the cached entity type
+ */
+public class EntityCache<T> {
+
+    private static final Logger logger = Logger.getLogger(EntityCache.class.getName());
+
+    /**
+     * Why an entity left the cache
+     */
+    public enum RemovalCause {
+        /** Removed, invalidated or cleared by the application */
+        EXPLICIT,
+        /** Replaced by another instance with the same key */
+        REPLACED,
+        /** Cached for longer than the time to live */
+        EXPIRED,
+        /** Evicted to keep the cache within its bounds */
+        EVICTED
+    }
+
+    /**
+     * Told about every entity that leaves the cache, after the cache has been
+     * updated.
+     */
+    @FunctionalInterface
+    public interface RemovalListener<T> {
+        void onRemoval(T entity, RemovalCause cause);
+    }
+
+    private final List<Key<T, ?>> keys = new ArrayList<>();
+    private final List<RemovalListener<? super T>> listeners = new CopyOnWriteArrayList<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder loadFailures = new LongAdder();
+    private final LongAdder totalLoadNanos = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final long maximumSize;
+    private final long maximumWeight;
+    private final ToIntFunction<? super T> weigher;
+    private final long timeToLiveNanos;
+    private final LongSupplier ticker;
+    private final FrequencySketch sketch;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    // Guarded by lock: cached entities by identity, and their recency order
+    // from the eldest (order.next) to the most recent (order.prev)
+    private final Map<T, Entry<T>> entries = new IdentityHashMap<>();
+    private final Entry<T> order = new Entry<>(null, null, 0, 0);
+    private long totalWeight;
+
+    /**
+     * A natural key of the entity, with its own index.
+     *
+     * @param <T> the cached entity type
+     * @param <K> the key type
+     */
+    public static final class Key<T, K> {
+        private final Function<? super T, ? extends K> extractor;
+        private final UnaryOperator<K> normalizer;
+        private final Map<K, Entry<T>> index = new ConcurrentHashMap<>();
+
+        private Key(Function<? super T, ? extends K> extractor, UnaryOperator<K> normalizer) {
+            this.extractor = extractor;
+            this.normalizer = normalizer;
+        }
+
+        private K keyOf(T entity) {
+            K value = extractor.apply(entity);
+            return value != null ? normalizer.apply(value) : null;
+        }
+    }
+
+    /**
+     * A cached entity with the key values it was indexed under, which may
+     * differ from its current ones.
+     */
+    private static final class Entry<T> {
+        private final T entity;
+        private final Object[] keyValues;
+        private final int weight;
+        private final long expiresAt;
+        private Entry<T> prev = this;
+        private Entry<T> next = this;
+
+        private Entry(T entity, Object[] keyValues, int weight, long expiresAt) {
+            this.entity = entity;
+            this.keyValues = keyValues;
+            this.weight = weight;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /**
+     * Unbounded cache without expiry.
+     */
+    public EntityCache() {
+        this(EvictionPolicyEnum.LRU, Long.MAX_VALUE, Long.MAX_VALUE, entity -> 1, null);
+    }
+
+    /**
+     * @param policy        how entities are evicted and admitted
+     * @param maximumSize   the maximum number of entities
+     * @param maximumWeight the maximum total weight of the entities
+     * @param weigher       the weight of an entity, taken when it is cached
+     * @param timeToLive    how long an entity stays cached, or null for ever
+     */
+    public EntityCache(EvictionPolicyEnum policy, long maximumSize, long maximumWeight,
+            ToIntFunction<? super T> weigher, Duration timeToLive) {
+        this(policy, maximumSize, maximumWeight, weigher, timeToLive, System::nanoTime);
+    }
+
+    EntityCache(EvictionPolicyEnum policy, long maximumSize, long maximumWeight, ToIntFunction<? super T> weigher,
+            Duration timeToLive, LongSupplier ticker) {
+        this.maximumSize = maximumSize;
+        this.maximumWeight = maximumWeight;
+        this.weigher = weigher;
+        this.timeToLiveNanos = timeToLive != null && !timeToLive.isZero() ? timeToLive.toNanos() : Long.MAX_VALUE;
+        this.ticker = ticker;
+        this.sketch = policy == EvictionPolicyEnum.TINY_LFU ? new FrequencySketch(maximumSize) : null;
+    }
+
+    /**
+     * Registers a natural key. Entities whose key is null are not indexed
+     * under it.
+     *
+     * @param extractor reads the key of an entity
+     * @return the handle to look entities up by this key
+     */
+    public <K> Key<T, K> addKey(Function<? super T, ? extends K> extractor) {
+        return addKey(extractor, UnaryOperator.identity());
+    }
+
+    /**
+     * Registers a text key compared ignoring case.
+     *
+     * @param extractor reads the key of an entity
+     * @return the handle to look entities up by this key
+     */
+    public Key<T, String> addKeyIgnoreCase(Function<? super T, String> extractor) {
+        return addKey(extractor, value -> value.toLowerCase(Locale.ROOT));
+    }
+
+    private <K> Key<T, K> addKey(Function<? super T, ? extends K> extractor, UnaryOperator<K> normalizer) {
+        Key<T, K> key = new Key<>(extractor, normalizer);
+        keys.add(key);
+        return key;
+    }
+
+    public void addRemovalListener(RemovalListener<? super T> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Looks an entity up by one of its keys.
+     *
+     * @return the cached entity, or null if none has that key or it expired
+     */
+    public <K> T get(Key<T, K> key, K value) {
+        if (value == null) {
+            return null;
+        }
+        K normalized = key.normalizer.apply(value);
+        Entry<T> entry = key.index.get(normalized);
+        if (lock.tryLock()) {
+            try {
+                if (sketch != null) {
+                    sketch.increment(normalized.hashCode());
+                }
+                if (entry != null && entries.get(entry.entity) == entry) {
+                    unlink(entry);
+                    linkLast(entry);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (isExpired(entry)) {
+            misses.increment();
+            expire(entry);
+            return null;
+        }
+        hits.increment();
+        return entry.entity;
+    }
+
+    /**
+     * Records a load from the persistence layer, either of one entity after a
+     * miss or of a whole list.
+     *
+     * @param startNanos when the load started, from {@link System#nanoTime()}
+     * @param success    whether the load returned its entities
+     */
+    public void recordLoad(long startNanos, boolean success) {
+        totalLoadNanos.add(System.nanoTime() - startNanos);
+        (success ? loads : loadFailures).increment();
+    }
+
+    /**
+     * @param name the name to report the counters under
+     * @return a snapshot of the usage counters
+     */
+    public CacheStats stats(String name) {
+        int currentSize;
+        long currentWeight;
+        lock.lock();
+        try {
+            currentSize = entries.size();
+            currentWeight = totalWeight;
+        } finally {
+            lock.unlock();
+        }
+        return new CacheStats(name, hits.sum(), misses.sum(), loads.sum(), loadFailures.sum(),
+                totalLoadNanos.sum(), evictions.sum(), expirations.sum(), currentSize, currentWeight);
+    }
+
+    /**
+     * Caches a loaded entity unless one with the same key is already cached.
+     * When the cache is full the entity may not be admitted; it is returned
+     * all the same.
+     *
+     * @return the cached instance: the one already there, or the given one
+     */
+    public T putIfAbsent(T entity) {
+        List<Entry<T>> evicted = new ArrayList<>();
+        Entry<T> expired = null;
+        lock.lock();
+        try {
+            Entry<T> cached = find(entity);
+            if (cached != null) {
+                if (!isExpired(cached)) {
+                    return cached.entity;
+                }
+                expired = remove(cached);
+            }
+            Entry<T> candidate = newEntry(entity);
+            if (admit(candidate)) {
+                add(candidate);
+                evict(evicted);
+            }
+        } finally {
+            lock.unlock();
+        }
+        notifyRemoval(expired, RemovalCause.EXPIRED);
+        notifyRemovals(evicted, RemovalCause.EVICTED);
+        return entity;
+    }
+
+    /**
+     * Caches an entity created or changed by the application, replacing the
+     * one with the same key if any. It is always admitted.
+     */
+    public void put(T entity) {
+        List<Entry<T>> evicted = new ArrayList<>();
+        Entry<T> replaced = null;
+        lock.lock();
+        try {
+            Entry<T> cached = cachedEntry(entity);
+            if (cached != null) {
+                remove(cached);
+                if (cached.entity != entity) {
+                    replaced = cached;
+                }
+            }
+            Entry<T> entry = newEntry(entity);
+            add(entry);
+            evict(evicted);
+        } finally {
+            lock.unlock();
+        }
+        notifyRemoval(replaced, RemovalCause.REPLACED);
+        notifyRemovals(evicted, RemovalCause.EVICTED);
+    }
+
+    /**
+     * Removes an entity from every index.
+     */
+    public void remove(T entity) {
+        Entry<T> removed = null;
+        lock.lock();
+        try {
+            Entry<T> cached = cachedEntry(entity);
+            if (cached != null) {
+                removed = remove(cached);
+            }
+        } finally {
+            lock.unlock();
+        }
+        notifyRemoval(removed, RemovalCause.EXPLICIT);
+    }
+
+    /**
+     * Removes the entity with a key, if cached, so that it is loaded again on
+     * next request.
+     */
+    public <K> void invalidate(Key<T, K> key, K value) {
+        if (value == null) {
+            return;
+        }
+        Entry<T> removed = null;
+        lock.lock();
+        try {
+            Entry<T> entry = key.index.get(key.normalizer.apply(value));
+            if (entry != null && entries.get(entry.entity) == entry) {
+                removed = remove(entry);
+            }
+        } finally {
+            lock.unlock();
+        }
+        notifyRemoval(removed, RemovalCause.EXPLICIT);
+    }
+
+    public void clear() {
+        List<Entry<T>> removed;
+        lock.lock();
+        try {
+            removed = new ArrayList<>(entries.values());
+            for (Key<T, ?> key : keys) {
+                key.index.clear();
+            }
+            entries.clear();
+            order.prev = order;
+            order.next = order;
+            totalWeight = 0;
+        } finally {
+            lock.unlock();
+        }
+        notifyRemovals(removed, RemovalCause.EXPLICIT);
+    }
+
+    /**
+     * @return the number of cached entities
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return the total weight of the cached entities
+     */
+    public long weight() {
+        lock.lock();
+        try {
+            return totalWeight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean isExpired(Entry<T> entry) {
+        return entry.expiresAt != Long.MAX_VALUE && entry.expiresAt - ticker.getAsLong() <= 0;
+    }
+
+    private void expire(Entry<T> entry) {
+        Entry<T> removed = null;
+        lock.lock();
+        try {
+            if (entries.get(entry.entity) == entry) {
+                removed = remove(entry);
+            }
+        } finally {
+            lock.unlock();
+        }
+        notifyRemoval(removed, RemovalCause.EXPIRED);
+    }
+
+    private Entry<T> newEntry(T entity) {
+        Object[] keyValues = new Object[keys.size()];
+        for (int i = 0; i < keyValues.length; i++) {
+            keyValues[i] = keys.get(i).keyOf(entity);
+        }
+        long expiresAt = timeToLiveNanos == Long.MAX_VALUE ? Long.MAX_VALUE : ticker.getAsLong() + timeToLiveNanos;
+        return new Entry<>(entity, keyValues, weigher.applyAsInt(entity), expiresAt);
+    }
+
+    /**
+     * The entry of the entity itself if it is cached, even if its keys
+     * changed since, or of the cached entity sharing one of its keys.
+     */
+    private Entry<T> cachedEntry(T entity) {
+        Entry<T> entry = entries.get(entity);
+        return entry != null ? entry : find(entity);
+    }
+
+    private Entry<T> find(T entity) {
+        for (Key<T, ?> key : keys) {
+            Entry<T> cached = lookup(key, entity);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        return null;
+    }
+
+    private static <T, K> Entry<T> lookup(Key<T, K> key, T entity) {
+        K value = key.keyOf(entity);
+        return value != null ? key.index.get(value) : null;
+    }
+
+    /**
+     * Whether a loaded entity may enter the cache: always while there is
+     * room, and with TINY_LFU otherwise only if it is requested more often
+     * than the eldest entity.
+     */
+    private boolean admit(Entry<T> candidate) {
+        if (candidate.weight > maximumWeight) {
+            return false;
+        }
+        if (sketch == null || (entries.size() < maximumSize && totalWeight + candidate.weight <= maximumWeight)) {
+            return true;
+        }
+        Entry<T> victim = order.next;
+        return victim == order || frequency(candidate) > frequency(victim);
+    }
+
+    private int frequency(Entry<T> entry) {
+        int frequency = 0;
+        for (Object value : entry.keyValues) {
+            if (value != null) {
+                frequency = Math.max(frequency, sketch.frequency(value.hashCode()));
+            }
+        }
+        return frequency;
+    }
+
+    /**
+     * Evicts the eldest entities until the cache is within its bounds. The
+     * entity just added is the most recent, so it only goes if it alone
+     * exceeds them.
+     */
+    private void evict(List<Entry<T>> evicted) {
+        while (entries.size() > maximumSize || totalWeight > maximumWeight) {
+            evicted.add(remove(order.next));
+        }
+    }
+
+    private void add(Entry<T> entry) {
+        for (int i = 0; i < keys.size(); i++) {
+            index(keys.get(i), entry.keyValues[i], entry);
+        }
+        entries.put(entry.entity, entry);
+        totalWeight += entry.weight;
+        linkLast(entry);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T, K> void index(Key<T, K> key, Object value, Entry<T> entry) {
+        if (value != null) {
+            key.index.put((K) value, entry);
+        }
+    }
+
+    private Entry<T> remove(Entry<T> entry) {
+        for (int i = 0; i < keys.size(); i++) {
+            if (entry.keyValues[i] != null) {
+                keys.get(i).index.remove(entry.keyValues[i], entry);
+            }
+        }
+        entries.remove(entry.entity);
+        totalWeight -= entry.weight;
+        unlink(entry);
+        return entry;
+    }
+
+    private void linkLast(Entry<T> entry) {
+        entry.prev = order.prev;
+        entry.next = order;
+        order.prev.next = entry;
+        order.prev = entry;
+    }
+
+    private static <T> void unlink(Entry<T> entry) {
+        entry.prev.next = entry.next;
+        entry.next.prev = entry.prev;
+        entry.prev = entry;
+        entry.next = entry;
+    }
+
+    private void notifyRemovals(List<Entry<T>> removed, RemovalCause cause) {
+        for (Entry<T> entry : removed) {
+            notifyRemoval(entry, cause);
+        }
+    }
+
+    private void notifyRemoval(Entry<T> removed, RemovalCause cause) {
+        if (removed == null) {
+            return;
+        }
+        if (cause == RemovalCause.EVICTED) {
+            evictions.increment();
+        } else if (cause == RemovalCause.EXPIRED) {
+            expirations.increment();
+        }
+        for (RemovalListener<? super T> listener : listeners) {
+            try {
+                listener.onRemoval(removed.entity, cause);
+            } catch (RuntimeException e) {
+                logger.log(Level.WARNING, "Cache removal listener failed", e);
+            }
+        }
+    }
+
+    /**
+     * Count-min sketch of how often keys were looked up recently: four rows
+     * of saturating counters, all halved once enough lookups have been
+     * counted so that old popularity fades.
+     */
+    private static final class FrequencySketch {
+        private static final int[] SEEDS = { 0x9E3779B1, 0x85EBCA77, 0xC2B2AE3D, 0x27D4EB2F };
+        private static final int MAX_COUNT = 15;
+
+        private final byte[] counters;
+        private final int width;
+        private final int sampleSize;
+        private int additions;
+
+        private FrequencySketch(long maximumSize) {
+            int capacity = (int) Math.min(Math.max(maximumSize, 16), 1 << 20);
+            this.width = Integer.highestOneBit(capacity - 1) << 1;
+            this.counters = new byte[SEEDS.length * width];
+            this.sampleSize = 10 * width;
+        }
+
+        private void increment(int hash) {
+            boolean added = false;
+            for (int row = 0; row < SEEDS.length; row++) {
+                int index = index(hash, row);
+                if (counters[index] < MAX_COUNT) {
+                    counters[index]++;
+                    added = true;
+                }
+            }
+            if (added && ++additions >= sampleSize) {
+                for (int i = 0; i < counters.length; i++) {
+                    counters[i] = (byte) (counters[i] >>> 1);
+                }
+                additions /= 2;
+            }
+        }
+
+        private int frequency(int hash) {
+            int frequency = MAX_COUNT;
+            for (int row = 0; row < SEEDS.length; row++) {
+                frequency = Math.min(frequency, counters[index(hash, row)]);
+            }
+            return frequency;
+        }
+
+        private int index(int hash, int row) {
+            int h = (hash ^ (hash >>> 16)) * SEEDS[row];
+            h ^= h >>> 17;
+            return row * width + (h & (width - 1));
+        }
+    }
+}
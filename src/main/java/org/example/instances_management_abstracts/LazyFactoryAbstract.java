@@ -1,31 +1,118 @@
 package org.example.instances_management_abstracts;
 
-import org.example.exceptions.DAOException;
-import org.example.exceptions.MissingAuthorizationException;
-import org.example.exceptions.PropertyException;
+import org.example.PropertiesHandler;
+import org.example.enums.EvictionPolicyEnum;
 import org.example.exceptions.ResourceNotFoundException;
 
-import java.util.List;
+import java.time.Duration;
+import java.util.function.ToIntFunction;
+import java.util.logging.Logger;
 
-public abstract class LazyFactoryAbstract <T>{
-    protected List<T> factoryObjects;
+/**
+ * Base of the LazyFactory classes: entities are loaded from the persistence
+ * layer on first request and then served from an {@link EntityCache} indexed
+ * by their natural keys, so that every lookup is a hash lookup and factories
+ * can be used from many threads.
+ * <p>
+ * Each cache is bounded and configured in the properties by its name:
+ * {@code cache_<name>_max_size}, {@code cache_<name>_max_weight},
+ * {@code cache_<name>_ttl_seconds} and {@code cache_<name>_eviction_policy},
+ * each falling back to the {@code cache_*} property with the same suffix.
+ *
+ * @param <T> the entity type the factory hands out
+ */
+public abstract class LazyFactoryAbstract<T> {
+
+    private static final Logger logger = Logger.getLogger(LazyFactoryAbstract.class.getName());
+
+    private static final long DEFAULT_MAX_SIZE = 10_000;
+
+    protected final EntityCache<T> cache;
+    private final String cacheName;
+    private final Duration timeToLive;
+
+    /**
+     * @param cacheName the name of the cache in the properties
+     */
+    protected LazyFactoryAbstract(String cacheName) {
+        this(cacheName, entity -> 1);
+    }
+
+    /**
+     * @param cacheName the name of the cache in the properties
+     * @param weigher   the weight of an entity against the maximum weight
+     */
+    protected LazyFactoryAbstract(String cacheName, ToIntFunction<? super T> weigher) {
+        this(cacheName, weigher, true);
+    }
 
     /**
-     * Deletes an object from System and DB
-     * @param t the object to delete
-     * @throws DAOException thrown if errors occur while retrieving data from persistence layer
-     * @throws PropertyException thrown if errors occur while loading properties from .properties file
-     * @throws ResourceNotFoundException thrown if the properties resource file cannot be found
+     * @param cacheName  the name of the cache in the properties
+     * @param weigher    the weight of an entity against the maximum weight
+     * @param registered whether to list the cache in the {@link CacheRegistry};
+     *                   false for instances other than the singleton, such as
+     *                   those built by tests
      */
-    protected abstract void delete(T t) throws DAOException, PropertyException, ResourceNotFoundException;
+    protected LazyFactoryAbstract(String cacheName, ToIntFunction<? super T> weigher, boolean registered) {
+        EvictionPolicyEnum policy = EvictionPolicyEnum.TINY_LFU;
+        long maxSize = DEFAULT_MAX_SIZE;
+        long maxWeight = Long.MAX_VALUE;
+        long ttlSeconds = 0;
+        try {
+            PropertiesHandler properties = PropertiesHandler.getInstance();
+            EvictionPolicyEnum configured = EvictionPolicyEnum.getEvictionPolicyByValue(
+                    setting(properties, cacheName, "eviction_policy", policy.value));
+            if (configured != null) {
+                policy = configured;
+            } else {
+                logger.warning(() -> "Unknown eviction policy for cache " + cacheName + ", using " + EvictionPolicyEnum.TINY_LFU);
+            }
+            maxSize = Long.parseLong(setting(properties, cacheName, "max_size", String.valueOf(maxSize)));
+            maxWeight = Long.parseLong(setting(properties, cacheName, "max_weight", String.valueOf(maxWeight)));
+            ttlSeconds = Long.parseLong(setting(properties, cacheName, "ttl_seconds", String.valueOf(ttlSeconds)));
+        } catch (ResourceNotFoundException e) {
+            logger.warning(() -> "Properties not found, using default settings for cache " + cacheName);
+        }
+        this.cacheName = cacheName;
+        this.timeToLive = ttlSeconds > 0 ? Duration.ofSeconds(ttlSeconds) : null;
+        this.cache = new EntityCache<>(policy, maxSize, maxWeight, weigher, timeToLive);
+        if (registered) {
+            CacheRegistry.getInstance().register(cacheName, cache);
+        }
+    }
+
+    private static String setting(PropertiesHandler properties, String cacheName, String suffix, String defaultValue) {
+        return properties.getProperty("cache_" + cacheName + "_" + suffix,
+                properties.getProperty("cache_" + suffix, defaultValue));
+    }
 
     /**
-     * Updates an object present in DB to its current state
-     * @param t the object to be updated
-     * @throws DAOException thrown if errors occur while retrieving data from persistence layer
-     * @throws PropertyException thrown if errors occur while loading properties from .properties file
-     * @throws ResourceNotFoundException thrown if the properties resource file cannot be found
+     * @return how long entities stay in the cache after being loaded, or null
+     *         if they never expire; data a factory derives from them should
+     *         not outlive them
      */
-    protected abstract void update(T t) throws DAOException, PropertyException, ResourceNotFoundException, MissingAuthorizationException;
+    protected Duration getTimeToLive() {
+        return timeToLive;
+    }
 
+    /**
+     * Registers a hook told about every entity that leaves the cache
+     */
+    public void addRemovalListener(EntityCache.RemovalListener<? super T> listener) {
+        cache.addRemovalListener(listener);
+    }
+
+    /**
+     * @return a snapshot of the usage counters of the cache
+     */
+    public CacheStats getCacheStats() {
+        return cache.stats(cacheName);
+    }
+
+    /**
+     * Empties the cache, so that entities are loaded again on next request
+     */
+    public void clearCache() {
+        cache.clear();
+    }
 }
@@ -1,6 +1,7 @@
 package org.example.mappers;
 
 import org.example.model.ordine.Ordine;
+import org.example.model.ordine.OrdineSummary;
 import org.example.use_cases.crea_ordine.beans.OrdineBean;
 
 /**
@@ -42,4 +43,32 @@ public class OrdineMapper {
 
         return bean;
     }
+
+    /**
+     * Converte il riepilogo di un ordine in un OrdineBean.
+     * 
+     * @param summary il riepilogo da convertire
+     * @return bean popolato o null se summary è null
+     */
+    public static OrdineBean toBean(OrdineSummary summary) {
+        if (summary == null) {
+            return null;
+        }
+
+        OrdineBean bean = new OrdineBean();
+        bean.setNumeroOrdine(summary.getNumeroOrdine());
+        bean.setClienteId(summary.getClienteId());
+
+        if (summary.getDataCreazione() != null) {
+            bean.setDataCreazione(summary.getDataCreazione());
+        }
+
+        bean.setTotale(summary.getTotale());
+
+        if (summary.getStato() != null) {
+            bean.setStato(summary.getStato().toString());
+        }
+
+        return bean;
+    }
 }
@@ -0,0 +1,23 @@
+package org.example.model.food.DAO;
+
+import org.example.csv.BinaryFileManager;
+
+/**
+ * DAO per Food basato su file binari: stesse tabelle e stessa logica di
+ * {@link FoodDAOFS}, salvate nel formato compatto di {@link BinaryFileManager}.
+ */
+public class FoodDAOBIN extends FoodDAOFS {
+
+    private static FoodDAOBIN instance;
+
+    private FoodDAOBIN() {
+        super(BinaryFileManager.getInstance());
+    }
+
+    public static synchronized FoodDAOBIN getInstance() {
+        if (instance == null) {
+            instance = new FoodDAOBIN();
+        }
+        return instance;
+    }
+}
@@ -23,7 +23,14 @@ public class FoodDAOFS implements FoodDAOInterface {
     private static final String ADDON_TYPE = "ADDON";
 
     private FoodDAOFS() {
-        this.csvManager = CSVFileManager.getInstance();
+        this(CSVFileManager.getInstance());
+    }
+
+    /**
+     * Usato da {@link FoodDAOBIN} per salvare le stesse tabelle su file binari.
+     */
+    protected FoodDAOFS(CSVFileManager csvManager) {
+        this.csvManager = csvManager;
         initializeFile();
     }
 
@@ -71,11 +78,9 @@ public class FoodDAOFS implements FoodDAOInterface {
     @Override
     public Food getFoodById(Long id) throws DAOException, ObjectNotFoundException {
         try {
-            List<String[]> allFood = csvManager.readAllWithoutHeader(FILENAME);
-            for (String[] row : allFood) {
-                if (row.length >= 1 && Long.parseLong(row[0]) == id) {
-                    return buildFoodFromRow(row);
-                }
+            String[] row = csvManager.findRow(FILENAME, 0, String.valueOf(id));
+            if (row != null) {
+                return buildFoodFromRow(row);
             }
             throw new ObjectNotFoundException(ExceptionMessagesEnum.OBJ_NOT_FOUND.message);
         } catch (DAOException e) {
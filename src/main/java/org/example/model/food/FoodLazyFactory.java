@@ -3,17 +3,41 @@ package org.example.model. food;
 import org.example. dao_manager.DAOFactoryAbstract;
 import org.example.enums.ExceptionMessagesEnum;
 import org.example.exceptions.*;
+import org.example.instances_management_abstracts.EntityCache;
+import org.example.instances_management_abstracts.LazyFactoryAbstract;
 
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
-public class FoodLazyFactory {
+public class FoodLazyFactory extends LazyFactoryAbstract<Food> {
     
     private static FoodLazyFactory instance;
-    private final List<Food> foodCache;
+    private final EntityCache.Key<Food, Long> idKey = cache.addKey(Food::getId);
+
+    // Catalogo già letto, in sola lettura; null finché non viene caricato o dopo un inserimento.
+    // Scade come i Food della cache, così da rileggere le modifiche fatte da altre istanze
+    private volatile Catalogo foodBase;
+    private volatile Catalogo addOns;
+    // Incrementato a ogni modifica del catalogo: un caricamento iniziato prima non viene memorizzato
+    private final AtomicLong versioneCatalogo = new AtomicLong();
     
+    /**
+     * Elenco di prodotti con l'istante in cui è stato letto dal DAO
+     */
+    private static final class Catalogo {
+        private final List<Food> foods;
+        private final long caricatoNanos = System.nanoTime();
+
+        private Catalogo(List<Food> foods) {
+            this.foods = foods;
+        }
+    }
+
     private FoodLazyFactory() {
-        foodCache = new ArrayList<>();
+        super("food");
     }
     
     public static synchronized FoodLazyFactory getInstance() {
@@ -30,58 +54,97 @@ public class FoodLazyFactory {
             MissingAuthorizationException, WrongListQueryIdentifierValue, UserNotFoundException, UnrecognizedRoleException {
         
         // Cerca prima nella cache
-        for (Food f : foodCache) {
-            if (f.getId() != null && f.getId().equals(id)) {
-                return f;
-            }
+        Food cached = cache.get(idKey, id);
+        if (cached != null) {
+            return cached;
         }
         
         // Se non trovato, recupera dal DAO
+        long loadStart = System.nanoTime();
+        boolean loaded = false;
         try {
             Food daoFood = DAOFactoryAbstract.getInstance().getFoodDAO().getFoodById(id);
-            foodCache.add(daoFood);
-            return daoFood;
+            loaded = true;
+            return cache.putIfAbsent(daoFood);
         } catch (PropertyException | ResourceNotFoundException e) {
             throw new DAOException(ExceptionMessagesEnum. DAO. message, e);
+        } finally {
+            cache.recordLoad(loadStart, loaded);
         }
     }
     
     /**
-     * Recupera tutti i prodotti base (tipo = BASE)
+     * Recupera tutti i prodotti base (tipo = BASE).
+     * Il catalogo viene letto dal DAO e poi servito dalla cache fino alla scadenza.
      */
     public List<Food> getAllFoodBase() throws DAOException, ObjectNotFoundException, 
             MissingAuthorizationException, WrongListQueryIdentifierValue, UserNotFoundException, UnrecognizedRoleException {
+        Catalogo caricato = foodBase;
+        if (valido(caricato)) {
+            return caricato.foods;
+        }
+        List<Food> catalogo;
+        long versione = versioneCatalogo.get();
+        long loadStart = System.nanoTime();
+        boolean loaded = false;
         try {
-            List<Food> foodBase = DAOFactoryAbstract.getInstance().getFoodDAO(). getAllFoodBase();
-            // Aggiorna cache
-            for (Food f : foodBase) {
-                if (! isFoodInCache(f. getId())) {
-                    foodCache.add(f);
-                }
-            }
-            return foodBase;
+            catalogo = inCache(DAOFactoryAbstract.getInstance().getFoodDAO().getAllFoodBase());
+            loaded = true;
         } catch (PropertyException | ResourceNotFoundException e) {
             throw new DAOException(ExceptionMessagesEnum.DAO. message, e);
+        } finally {
+            cache.recordLoad(loadStart, loaded);
+        }
+        if (versioneCatalogo.get() == versione) {
+            foodBase = new Catalogo(catalogo);
         }
+        return catalogo;
     }
     
     /**
-     * Recupera tutti gli addon (tipo = ADDON)
+     * Recupera tutti gli addon (tipo = ADDON).
+     * Il catalogo viene letto dal DAO e poi servito dalla cache fino alla scadenza.
      */
     public List<Food> getAllAddOn() throws DAOException, ObjectNotFoundException, 
             MissingAuthorizationException, WrongListQueryIdentifierValue, UserNotFoundException, UnrecognizedRoleException {
+        Catalogo caricato = addOns;
+        if (valido(caricato)) {
+            return caricato.foods;
+        }
+        List<Food> catalogo;
+        long versione = versioneCatalogo.get();
+        long loadStart = System.nanoTime();
+        boolean loaded = false;
         try {
-            List<Food> addons = DAOFactoryAbstract.getInstance().getFoodDAO().getAllAddOn();
-            // Aggiorna cache
-            for (Food f : addons) {
-                if (!isFoodInCache(f.getId())) {
-                    foodCache.add(f);
-                }
-            }
-            return addons;
+            catalogo = inCache(DAOFactoryAbstract.getInstance().getFoodDAO().getAllAddOn());
+            loaded = true;
         } catch (PropertyException | ResourceNotFoundException e) {
             throw new DAOException(ExceptionMessagesEnum. DAO.message, e);
+        } finally {
+            cache.recordLoad(loadStart, loaded);
+        }
+        if (versioneCatalogo.get() == versione) {
+            addOns = new Catalogo(catalogo);
+        }
+        return catalogo;
+    }
+
+    // Un catalogo vale quanto i Food in cache: stesso time to live
+    private boolean valido(Catalogo catalogo) {
+        if (catalogo == null) {
+            return false;
         }
+        Duration ttl = getTimeToLive();
+        return ttl == null || System.nanoTime() - catalogo.caricatoNanos < ttl.toNanos();
+    }
+
+    // Aggiorna cache, restituendo le istanze già in cache al posto di quelle appena lette
+    private List<Food> inCache(List<Food> daoFoods) {
+        List<Food> foods = new ArrayList<>(daoFoods.size());
+        for (Food f : daoFoods) {
+            foods.add(cache.putIfAbsent(f));
+        }
+        return Collections.unmodifiableList(foods);
     }
     
     /**
@@ -93,27 +156,20 @@ public class FoodLazyFactory {
         } catch (PropertyException | ResourceNotFoundException e) {
             throw new DAOException(ExceptionMessagesEnum.DAO.message, e);
         }
-        foodCache.add(food);
+        cache.put(food);
+        invalidaCatalogo();
         return food;
     }
-    
-    /**
-     * Verifica se un Food è già in cache
-     */
-    private boolean isFoodInCache(Long id) {
-        if (id == null) return false;
-        for (Food f : foodCache) {
-            if (f.getId() != null && f.getId().equals(id)) {
-                return true;
-            }
-        }
-        return false;
-    }
-    
-    /**
-     * Pulisce la cache (utile per testing)
-     */
+
+    @Override
     public void clearCache() {
-        foodCache.clear();
+        super.clearCache();
+        invalidaCatalogo();
+    }
+
+    private void invalidaCatalogo() {
+        versioneCatalogo.incrementAndGet();
+        foodBase = null;
+        addOns = null;
     }
 }
\ No newline at end of file
@@ -0,0 +1,37 @@
+package org.example.model.ordine.DAO;
+
+import org.example.csv.BinaryFileManager;
+import org.example.model.food.DAO.FoodDAOBIN;
+import org.example.model.food.DAO.FoodDAOFS;
+import org.example.model.voucher.DAO.VoucherDAOBIN;
+import org.example.model.voucher.DAO.VoucherDAOFS;
+
+/**
+ * DAO per Ordine basato su file binari: stesse tabelle e stessa logica di
+ * {@link OrdineDAOFS}, salvate nel formato compatto di {@link BinaryFileManager}.
+ */
+public class OrdineDAOBIN extends OrdineDAOFS {
+
+    private static OrdineDAOBIN instance;
+
+    private OrdineDAOBIN() {
+        super(BinaryFileManager.getInstance());
+    }
+
+    public static synchronized OrdineDAOBIN getInstance() {
+        if (instance == null) {
+            instance = new OrdineDAOBIN();
+        }
+        return instance;
+    }
+
+    @Override
+    protected VoucherDAOFS voucherDAO() {
+        return VoucherDAOBIN.getInstance();
+    }
+
+    @Override
+    protected FoodDAOFS foodDAO() {
+        return FoodDAOBIN.getInstance();
+    }
+}
@@ -5,11 +5,15 @@ import org.example.exceptions.*;
 import org.example.instances_management_abstracts.DAODBAbstract;
 import org.example.enums.StatoOrdine;
 import org.example.model.ordine.Ordine;
+import org.example.model.ordine.OrdineSummary;
 
 import java.sql.*;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Implementazione DAO per Ordine con persistenza su Database.
@@ -25,6 +29,20 @@ public class OrdineDAODB extends DAODBAbstract<Ordine> implements OrdineDAOInter
     private static final String STATO = "stato";
     private static final String VOUCHER_CODICE = "voucher_codice";
     private static final String TOTALE = "totale";
+    private static final String SEQUENCE = "ORDINE_SEQUENCE";
+    private static final String NEXT_VAL = "next_val";
+
+    // La tabella e la sua unica riga sono create da sql/ordine_sequence.sql
+    private static final String RISERVA_SQL = "UPDATE " + SEQUENCE + " SET " + NEXT_VAL + " = LAST_INSERT_ID("
+            + NEXT_VAL + " + ?) WHERE id = 1";
+    private static final String ULTIMO_ID_SQL = "SELECT LAST_INSERT_ID()";
+
+    // Colonne lette dalle schermate elenco
+    private static final List<String> SUMMARY_COLUMNS = List.of(NUMERO_ORDINE, CLIENTE_ID, DATA_CREAZIONE, STATO,
+            TOTALE);
+    // Colonne lette per costruire l'entity Ordine
+    private static final List<String> ORDINE_COLUMNS = List.of(NUMERO_ORDINE, CLIENTE_ID, DATA_CREAZIONE,
+            DATA_CONFERMA, STATO, VOUCHER_CODICE, TOTALE);
 
     protected static OrdineDAOInterface instance;
 
@@ -77,6 +95,123 @@ public class OrdineDAODB extends DAODBAbstract<Ordine> implements OrdineDAOInter
                 Boolean.FALSE);
     }
 
+    @Override
+    public void forEachOrdineByCliente(String clienteId, Consumer<? super Ordine> consumer)
+            throws DAOException, PropertyException, ResourceNotFoundException,
+            UserNotFoundException, UnrecognizedRoleException, ObjectNotFoundException, MissingAuthorizationException,
+            WrongListQueryIdentifierValue {
+        streamListQuery(
+                ORDINE,
+                List.of(CLIENTE_ID),
+                List.of(clienteId),
+                List.of(),
+                List.of(),
+                Boolean.FALSE,
+                consumer);
+    }
+
+    @Override
+    public void forEachOrdineByStato(StatoOrdine stato, Consumer<? super Ordine> consumer)
+            throws DAOException, PropertyException, ResourceNotFoundException,
+            UserNotFoundException, UnrecognizedRoleException, ObjectNotFoundException, MissingAuthorizationException,
+            WrongListQueryIdentifierValue {
+        streamListQuery(
+                ORDINE,
+                List.of(STATO),
+                List.of(stato.name()),
+                List.of(),
+                List.of(),
+                Boolean.FALSE,
+                consumer);
+    }
+
+    @Override
+    public void forEachSummaryByCliente(String clienteId, Consumer<? super OrdineSummary> consumer)
+            throws DAOException, PropertyException, ResourceNotFoundException {
+        streamProjectionQuery(
+                ORDINE,
+                SUMMARY_COLUMNS,
+                List.of(CLIENTE_ID),
+                List.of(clienteId),
+                OrdineDAODB::summaryBuilder,
+                consumer);
+    }
+
+    @Override
+    public void forEachSummaryByStato(StatoOrdine stato, Consumer<? super OrdineSummary> consumer)
+            throws DAOException, PropertyException, ResourceNotFoundException {
+        streamProjectionQuery(
+                ORDINE,
+                SUMMARY_COLUMNS,
+                List.of(STATO),
+                List.of(stato.name()),
+                OrdineDAODB::summaryBuilder,
+                consumer);
+    }
+
+    @Override
+    public List<OrdineSummary> getSummaryPageByCliente(String clienteId, Long dopoNumero, int limite)
+            throws DAOException, PropertyException, ResourceNotFoundException {
+        List<OrdineSummary> pagina = new ArrayList<>();
+        streamProjectionPageQuery(
+                ORDINE,
+                SUMMARY_COLUMNS,
+                List.of(CLIENTE_ID),
+                List.of(clienteId),
+                NUMERO_ORDINE,
+                dopoNumero,
+                true,
+                limite,
+                OrdineDAODB::summaryBuilder,
+                pagina::add);
+        return pagina;
+    }
+
+    @Override
+    public List<OrdineSummary> getSummaryPageByStato(StatoOrdine stato, Long dopoNumero, int limite)
+            throws DAOException, PropertyException, ResourceNotFoundException {
+        List<OrdineSummary> pagina = new ArrayList<>();
+        streamProjectionPageQuery(
+                ORDINE,
+                SUMMARY_COLUMNS,
+                List.of(STATO),
+                List.of(stato.name()),
+                NUMERO_ORDINE,
+                dopoNumero,
+                false,
+                limite,
+                OrdineDAODB::summaryBuilder,
+                pagina::add);
+        return pagina;
+    }
+
+    @Override
+    public List<Ordine> getOrdiniRecenti(int limite) throws DAOException, PropertyException, ResourceNotFoundException {
+        List<Ordine> ordini = new ArrayList<>();
+        streamProjectionPageQuery(
+                ORDINE,
+                ORDINE_COLUMNS,
+                List.of(),
+                List.of(),
+                NUMERO_ORDINE,
+                null,
+                true,
+                limite,
+                OrdineDAODB::ordineBuilder,
+                ordini::add);
+        return ordini;
+    }
+
+    private static OrdineSummary summaryBuilder(ResultSet rs) throws SQLException {
+        Timestamp tsCreazione = rs.getTimestamp(DATA_CREAZIONE);
+        return new OrdineSummary(
+                rs.getLong(NUMERO_ORDINE),
+                rs.getString(CLIENTE_ID),
+                tsCreazione != null ? tsCreazione.toLocalDateTime() : null,
+                StatoOrdine.valueOf(rs.getString(STATO)),
+                rs.getDouble(TOTALE));
+    }
+
     @Override
     public void insert(Ordine ordine)
             throws DAOException, PropertyException, ResourceNotFoundException, MissingAuthorizationException {
@@ -124,21 +259,63 @@ public class OrdineDAODB extends DAODBAbstract<Ordine> implements OrdineDAOInter
                 List.of(ordine.getNumeroOrdine()));
     }
 
+    @Override
+    public List<Long> aggiornaStato(List<Long> numeriOrdine, StatoOrdine nuovoStato)
+            throws DAOException, PropertyException, ResourceNotFoundException {
+        // Un numero ripetuto conterebbe due volte e nasconderebbe un ordine mancante
+        List<Long> numeri = new ArrayList<>(new LinkedHashSet<>(numeriOrdine));
+        List<List<Object>> statoValues = new ArrayList<>();
+        List<List<Object>> numeroValues = new ArrayList<>();
+        for (Long numero : numeri) {
+            statoValues.add(List.of(nuovoStato.name()));
+            numeroValues.add(List.of(numero));
+        }
+        int[] aggiornati = updateBatch(
+                ORDINE,
+                List.of(STATO),
+                statoValues,
+                List.of(NUMERO_ORDINE),
+                numeroValues);
+        List<Long> mancanti = new ArrayList<>();
+        for (int i = 0; i < aggiornati.length; i++) {
+            if (aggiornati[i] == 0)
+                mancanti.add(numeri.get(i));
+        }
+        return mancanti;
+    }
+
     @Override
     public Long getNextNumeroOrdine() throws DAOException, PropertyException, ResourceNotFoundException {
-        try {
-            Connection conn = DBConnection.getInstance().getConnection();
-            String sql = "SELECT COALESCE(MAX(" + NUMERO_ORDINE + "), 0) + 1 AS next_numero FROM " + ORDINE;
+        return riservaNumeriOrdine(1);
+    }
 
-            try (PreparedStatement stmt = conn.prepareStatement(sql);
+    /**
+     * Riserva i numeri incrementando atomicamente il contatore di ORDINE_SEQUENCE.
+     * LAST_INSERT_ID(expr) memorizza il nuovo valore sulla connessione corrente,
+     * quindi la lettura successiva non vede gli incrementi di altre transazioni.
+     */
+    @Override
+    public Long riservaNumeriOrdine(int quantita) throws DAOException, PropertyException, ResourceNotFoundException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        try (Connection conn = DBConnection.getInstance().getConnection()) {
+            try (PreparedStatement stmt = conn.prepareStatement(RISERVA_SQL)) {
+                stmt.setInt(1, quantita);
+                // Senza la riga del contatore LAST_INSERT_ID() restituirebbe un valore vecchio
+                if (stmt.executeUpdate() != 1)
+                    throw new DAOException("Contatore " + SEQUENCE + " non inizializzato: eseguire sql/ordine_sequence.sql");
+            }
+            try (PreparedStatement stmt = conn.prepareStatement(ULTIMO_ID_SQL);
                     ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return rs.getLong("next_numero");
-                }
-                return 1L;
+                rs.next();
+                long primo = rs.getLong(1) - quantita;
+                failed = false;
+                return primo;
             }
         } catch (SQLException e) {
-            throw new DAOException("Errore nel recupero del prossimo numero ordine: " + e.getMessage(), e);
+            throw new DAOException("Errore nella riserva dei numeri ordine: " + e.getMessage(), e);
+        } finally {
+            recordQuery(SEQUENCE, "reserve", RISERVA_SQL + "; " + ULTIMO_ID_SQL, start, 1, failed);
         }
     }
 
@@ -146,7 +323,10 @@ public class OrdineDAODB extends DAODBAbstract<Ordine> implements OrdineDAOInter
     protected Ordine queryObjectBuilder(ResultSet rs, List<Object> objects) throws SQLException, DAOException,
             PropertyException, ResourceNotFoundException, UserNotFoundException, UnrecognizedRoleException,
             ObjectNotFoundException, MissingAuthorizationException, WrongListQueryIdentifierValue {
+        return ordineBuilder(rs);
+    }
 
+    private static Ordine ordineBuilder(ResultSet rs) throws SQLException {
         Long numOrdine = rs.getLong(NUMERO_ORDINE);
         String clienteId = rs.getString(CLIENTE_ID);
 
@@ -5,7 +5,9 @@ import org.example.exceptions.ObjectNotFoundException;
 import org.example.model.ordine.Ordine;
 
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicLong;
 
 public class OrdineDAODemo implements OrdineDAOInterface {
@@ -51,7 +53,9 @@ public class OrdineDAODemo implements OrdineDAOInterface {
 
     @Override
     public void insert(Ordine ordine) {
-        ordine.setNumeroOrdine(sequence.getAndIncrement());
+        if (ordine.getNumeroOrdine() == null) {
+            ordine.setNumeroOrdine(sequence.getAndIncrement());
+        }
         MOCK_ORDINI.add(ordine);
     }
 
@@ -70,6 +74,17 @@ public class OrdineDAODemo implements OrdineDAOInterface {
         }
     }
 
+    @Override
+    public List<Long> aggiornaStato(List<Long> numeriOrdine, StatoOrdine nuovoStato) {
+        Set<Long> mancanti = new LinkedHashSet<>(numeriOrdine);
+        for (Ordine o : MOCK_ORDINI) {
+            if (mancanti.remove(o.getNumeroOrdine())) {
+                o.setStato(nuovoStato);
+            }
+        }
+        return new ArrayList<>(mancanti);
+    }
+
     @Override
     public Ordine getOrdineByNumero(Long numeroOrdine) throws ObjectNotFoundException {
         return MOCK_ORDINI.stream()
@@ -92,8 +107,21 @@ public class OrdineDAODemo implements OrdineDAOInterface {
                 .toList();
     }
 
+    @Override
+    public List<Ordine> getOrdiniRecenti(int limite) {
+        return MOCK_ORDINI.stream()
+                .sorted(java.util.Comparator.comparing(Ordine::getNumeroOrdine).reversed())
+                .limit(limite)
+                .toList();
+    }
+
     @Override
     public Long getNextNumeroOrdine() {
-        return sequence.get();
+        return sequence.getAndIncrement();
+    }
+
+    @Override
+    public Long riservaNumeriOrdine(int quantita) {
+        return sequence.getAndAdd(quantita);
     }
 }
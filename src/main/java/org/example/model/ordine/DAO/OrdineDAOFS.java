@@ -1,18 +1,29 @@
 package org.example.model.ordine.DAO;
 
 import org.example.csv.CSVFileManager;
+import org.example.csv.ColumnarTable;
+import org.example.csv.TableSchema;
+import org.example.csv.TableSchema.ColumnType;
 import org.example.enums.ExceptionMessagesEnum;
 import org.example.enums.StatoOrdine;
 import org.example.exceptions.*;
 import org.example.model.food.Food;
+import org.example.model.food.DAO.FoodDAOFS;
 import org.example.model.ordine.Ordine;
+import org.example.model.ordine.OrdineSummary;
 import org.example.model.voucher.Voucher;
 import org.example.model.voucher.DAO.VoucherDAOFS;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -28,6 +39,7 @@ public class OrdineDAOFS implements OrdineDAOInterface {
     private final CSVFileManager csvManager;
     private static final String FILENAME = "ordini";
     private static final String PRODOTTI_FILENAME = "ordine_prodotti";
+    private static final String SEQUENCE_FILENAME = "ordini_sequence";
     private static final DateTimeFormatter DATETIME_FORMAT = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
 
     // CSV columns for ordini: numero_ordine, cliente_id, data_creazione,
@@ -35,11 +47,40 @@ public class OrdineDAOFS implements OrdineDAOInterface {
     private static final String[] HEADER = { "numero_ordine", "cliente_id", "data_creazione", "data_conferma", "stato",
             "totale", "voucher_id" };
 
+    // Tipi delle colonne di ordini: ogni valore viene interpretato una sola volta
+    // per versione del file, non a ogni lettura
+    private static final TableSchema SCHEMA = TableSchema.of(ColumnType.LONG, ColumnType.SYMBOL,
+            ColumnType.DATE_TIME, ColumnType.DATE_TIME, ColumnType.SYMBOL, ColumnType.DOUBLE, ColumnType.LONG);
+    private static final int COL_NUMERO = 0;
+    private static final int COL_CLIENTE = 1;
+    private static final int COL_DATA_CREAZIONE = 2;
+    private static final int COL_DATA_CONFERMA = 3;
+    private static final int COL_STATO = 4;
+    private static final int COL_TOTALE = 5;
+    private static final int COL_VOUCHER = 6;
+
     // CSV columns for ordine_prodotti: ordine_id, food_id
     private static final String[] PRODOTTI_HEADER = { "ordine_id", "food_id" };
 
+    // CSV columns for ordini_sequence: next_val (prossimo numero ordine libero)
+    private static final String[] SEQUENCE_HEADER = { "next_val" };
+
     private OrdineDAOFS() {
-        this.csvManager = CSVFileManager.getInstance();
+        this(CSVFileManager.getInstance());
+    }
+
+    /**
+     * Usato da {@link OrdineDAOBIN} per salvare le stesse tabelle su file binari.
+     */
+    protected OrdineDAOFS(CSVFileManager csvManager) {
+        this.csvManager = csvManager;
+        // Log append-only: aggiornamenti e cancellazioni aggiungono righe invece di
+        // riscrivere i file, che vengono compattati in background
+        csvManager.registerLogTable(FILENAME, 0, true);
+        csvManager.registerLogTable(PRODOTTI_FILENAME, 0, false);
+        // Indice persistente ordine -> righe, per caricare i prodotti di un ordine
+        // senza leggere tutto il file
+        csvManager.registerKeyIndex(PRODOTTI_FILENAME, 0);
         initializeFile();
     }
 
@@ -62,11 +103,10 @@ public class OrdineDAOFS implements OrdineDAOInterface {
     @Override
     public Ordine getOrdineByNumero(Long numeroOrdine) throws DAOException, ObjectNotFoundException {
         try {
-            List<String[]> allOrdini = csvManager.readAllWithoutHeader(FILENAME);
-            for (String[] row : allOrdini) {
-                if (row.length >= 1 && Long.parseLong(row[0]) == numeroOrdine) {
-                    return buildOrdineFromRow(row);
-                }
+            // Ricerca puntuale sull'indice hash (o sul sidecar per BIN): non serve decodificare la tabella
+            String[] row = csvManager.findRow(FILENAME, 0, String.valueOf(numeroOrdine));
+            if (row != null) {
+                return buildOrdineFromRow(row);
             }
             throw new ObjectNotFoundException(ExceptionMessagesEnum.OBJ_NOT_FOUND.message);
         } catch (DAOException e) {
@@ -77,13 +117,10 @@ public class OrdineDAOFS implements OrdineDAOInterface {
     @Override
     public List<Ordine> getOrdiniByCliente(String clienteId) throws DAOException {
         try {
-            List<String[]> allOrdini = csvManager.readAllWithoutHeader(FILENAME);
+            ColumnarTable ordini = csvManager.columnar(FILENAME, SCHEMA);
             List<Ordine> result = new ArrayList<>();
-
-            for (String[] row : allOrdini) {
-                if (row.length >= 2 && row[1].equalsIgnoreCase(clienteId)) {
-                    result.add(buildOrdineFromRow(row));
-                }
+            for (int row : ordini.findRows(COL_CLIENTE, clienteId)) {
+                result.add(buildOrdine(ordini, row));
             }
             return result;
         } catch (DAOException e) {
@@ -94,33 +131,156 @@ public class OrdineDAOFS implements OrdineDAOInterface {
     @Override
     public List<Ordine> getOrdiniByStato(StatoOrdine stato) throws DAOException {
         try {
-            List<String[]> allOrdini = csvManager.readAllWithoutHeader(FILENAME);
             List<Ordine> result = new ArrayList<>();
+            for (String[] row : righeByStato(stato)) {
+                result.add(buildOrdineFromRow(row));
+            }
+            return result;
+        } catch (DAOException e) {
+            throw new DAOException(ExceptionMessagesEnum.DAO.message, e);
+        }
+    }
 
-            for (String[] row : allOrdini) {
-                if (row.length >= 5 && row[4].equals(stato.name())) {
-                    result.add(buildOrdineFromRow(row));
+    @Override
+    public List<Long> aggiornaStato(List<Long> numeriOrdine, StatoOrdine nuovoStato) throws DAOException {
+        try {
+            List<String[]> nuoveVersioni = new ArrayList<>();
+            List<Long> mancanti = new ArrayList<>();
+            for (Long numero : new LinkedHashSet<>(numeriOrdine)) {
+                String[] row = csvManager.findRow(FILENAME, 0, String.valueOf(numero));
+                if (row != null && row.length >= 5) {
+                    String[] versione = row.clone();
+                    versione[4] = nuovoStato.name();
+                    nuoveVersioni.add(versione);
+                } else {
+                    mancanti.add(numero);
                 }
             }
-            return result;
+            // Una sola append con le nuove versioni di tutti gli ordini
+            csvManager.upsertRows(FILENAME, nuoveVersioni);
+            return mancanti;
         } catch (DAOException e) {
             throw new DAOException(ExceptionMessagesEnum.DAO.message, e);
         }
     }
 
     @Override
-    public Long getNextNumeroOrdine() throws DAOException {
-        List<String[]> allOrdini = csvManager.readAllWithoutHeader(FILENAME);
-        long maxId = 0;
-        for (String[] row : allOrdini) {
-            if (row.length >= 1 && !row[0].isEmpty()) {
-                long id = Long.parseLong(row[0]);
-                if (id > maxId) {
-                    maxId = id;
+    public void forEachOrdineByCliente(String clienteId, Consumer<? super Ordine> consumer) throws DAOException {
+        try {
+            ColumnarTable ordini = csvManager.columnar(FILENAME, SCHEMA);
+            for (int row : ordini.findRows(COL_CLIENTE, clienteId)) {
+                consumer.accept(buildOrdine(ordini, row));
+            }
+        } catch (DAOException e) {
+            throw new DAOException(ExceptionMessagesEnum.DAO.message, e);
+        }
+    }
+
+    @Override
+    public void forEachOrdineByStato(StatoOrdine stato, Consumer<? super Ordine> consumer) throws DAOException {
+        try {
+            for (String[] row : righeByStato(stato)) {
+                consumer.accept(buildOrdineFromRow(row));
+            }
+        } catch (DAOException e) {
+            throw new DAOException(ExceptionMessagesEnum.DAO.message, e);
+        }
+    }
+
+    @Override
+    public void forEachSummaryByCliente(String clienteId, Consumer<? super OrdineSummary> consumer)
+            throws DAOException {
+        try {
+            ColumnarTable ordini = csvManager.columnar(FILENAME, SCHEMA);
+            for (int row : ordini.findRows(COL_CLIENTE, clienteId)) {
+                consumer.accept(buildSummary(ordini, row));
+            }
+        } catch (DAOException e) {
+            throw new DAOException(ExceptionMessagesEnum.DAO.message, e);
+        }
+    }
+
+    @Override
+    public void forEachSummaryByStato(StatoOrdine stato, Consumer<? super OrdineSummary> consumer)
+            throws DAOException {
+        try {
+            for (String[] row : righeByStato(stato)) {
+                consumer.accept(buildSummaryFromRow(row));
+            }
+        } catch (DAOException e) {
+            throw new DAOException(ExceptionMessagesEnum.DAO.message, e);
+        }
+    }
+
+    @Override
+    public List<Ordine> getOrdiniRecenti(int limite) throws DAOException {
+        try {
+            ColumnarTable ordini = csvManager.columnar(FILENAME, SCHEMA);
+            // Min-heap delle righe con i numeri più alti: la cima è la prima da scartare
+            PriorityQueue<Integer> recenti = new PriorityQueue<>(
+                    Comparator.comparingLong(row -> ordini.getLong(COL_NUMERO, row)));
+            for (int row = 0; row < ordini.size() && limite > 0; row++) {
+                recenti.add(row);
+                if (recenti.size() > limite) {
+                    recenti.poll();
                 }
             }
+            List<Ordine> result = new ArrayList<>(recenti.size());
+            while (!recenti.isEmpty()) {
+                result.add(buildOrdine(ordini, recenti.poll()));
+            }
+            Collections.reverse(result);
+            return result;
+        } catch (DAOException e) {
+            throw new DAOException(ExceptionMessagesEnum.DAO.message, e);
         }
-        return maxId + 1;
+    }
+
+    @Override
+    public Long getNextNumeroOrdine() throws DAOException {
+        return riservaNumeriOrdine(1);
+    }
+
+    /**
+     * Riserva i numeri aggiornando il contatore persistito in
+     * ordini_sequence.csv. Il contatore viene inizializzato una sola volta dal
+     * massimo numero presente in ordini.csv.
+     */
+    @Override
+    public synchronized Long riservaNumeriOrdine(int quantita) throws DAOException {
+        List<String[]> rows = csvManager.readAllWithoutHeader(SEQUENCE_FILENAME);
+        long prossimo = !rows.isEmpty() && rows.get(0).length >= 1 && !rows.get(0)[0].isEmpty()
+                ? Long.parseLong(rows.get(0)[0])
+                : maxNumeroOrdine() + 1;
+
+        List<String[]> updated = new ArrayList<>();
+        updated.add(SEQUENCE_HEADER);
+        updated.add(new String[] { String.valueOf(prossimo + quantita) });
+        csvManager.writeAll(SEQUENCE_FILENAME, updated);
+        return prossimo;
+    }
+
+    /**
+     * Righe degli ordini in uno stato, selezionate dalla scansione sui byte del
+     * file: sopra csv_parallel_scan_min_bytes il filtro gira in parallelo sui
+     * blocchi del file e si materializzano solo le righe selezionate.
+     */
+    private List<String[]> righeByStato(StatoOrdine stato) throws DAOException {
+        String nome = stato.name();
+        return csvManager.scan(FILENAME, row -> row.size() > COL_STATO && row.fieldEqualsIgnoreCase(COL_STATO, nome));
+    }
+
+    private long maxNumeroOrdine() throws DAOException {
+        // Scansione sui byte del file: il numero si legge senza materializzare alcuna riga.
+        // Su file grandi il predicato gira in parallelo, da cui l'accumulatore
+        LongAccumulator maxId = new LongAccumulator(Math::max, 0);
+        csvManager.scan(FILENAME, row -> {
+            if (row.size() >= 1 && !row.fieldEquals(0, "")) {
+                maxId.accumulate(row.fieldAsLong(0));
+            }
+            return false;
+        });
+        return maxId.get();
     }
 
     @Override
@@ -133,20 +293,16 @@ public class OrdineDAOFS implements OrdineDAOInterface {
 
         // Save products relationship
         saveProdotti(ordine);
+
+        // Un ordine confermato deve essere su disco prima di rispondere al cliente
+        csvManager.flush(FILENAME);
+        csvManager.flush(PRODOTTI_FILENAME);
     }
 
     @Override
     public void delete(Ordine ordine) throws DAOException {
         try {
-            List<String[]> allLines = csvManager.readAll(FILENAME);
-
-            for (int i = 1; i < allLines.size(); i++) { // Skip header
-                String[] row = allLines.get(i);
-                if (row.length >= 1 && Long.parseLong(row[0]) == ordine.getNumeroOrdine()) {
-                    csvManager.deleteLine(FILENAME, i);
-                    break;
-                }
-            }
+            csvManager.deleteRows(FILENAME, String.valueOf(ordine.getNumeroOrdine()));
 
             // Delete products relationship
             deleteProdotti(ordine.getNumeroOrdine());
@@ -158,17 +314,13 @@ public class OrdineDAOFS implements OrdineDAOInterface {
     @Override
     public void update(Ordine ordine) throws DAOException {
         try {
-            List<String[]> allLines = csvManager.readAll(FILENAME);
-
-            for (int i = 1; i < allLines.size(); i++) { // Skip header
-                String[] row = allLines.get(i);
-                if (row.length >= 1 && Long.parseLong(row[0]) == ordine.getNumeroOrdine()) {
-                    csvManager.updateLine(FILENAME, i, buildRowFromOrdine(ordine));
+            if (csvManager.findRow(FILENAME, 0, String.valueOf(ordine.getNumeroOrdine())) != null) {
+                csvManager.upsertRows(FILENAME, Collections.singletonList(buildRowFromOrdine(ordine)));
 
-                    // Update products: delete and re-add
+                // Update products: tombstone and re-add, only if they may have changed
+                if (ordine.isProdottiCaricati()) {
                     deleteProdotti(ordine.getNumeroOrdine());
                     saveProdotti(ordine);
-                    return;
                 }
             }
         } catch (DAOException e) {
@@ -176,40 +328,81 @@ public class OrdineDAOFS implements OrdineDAOInterface {
         }
     }
 
+    private Ordine buildOrdine(ColumnarTable ordini, int row) {
+        return newOrdine(
+                ordini.getLong(COL_NUMERO, row),
+                ordini.getString(COL_CLIENTE, row),
+                ordini.getDateTime(COL_DATA_CREAZIONE, row),
+                ordini.getDateTime(COL_DATA_CONFERMA, row),
+                statoOf(ordini, row),
+                ordini.getDouble(COL_TOTALE, row),
+                ordini.isNull(COL_VOUCHER, row) ? null : ordini.getLong(COL_VOUCHER, row));
+    }
+
     private Ordine buildOrdineFromRow(String[] row) {
-        Long numeroOrdine = Long.parseLong(row[0]);
-        String clienteId = row[1];
-        LocalDateTime dataCreazione = row.length > 2 && !row[2].isEmpty() ? LocalDateTime.parse(row[2], DATETIME_FORMAT)
-                : LocalDateTime.now();
-        LocalDateTime dataConferma = row.length > 3 && !row[3].isEmpty() ? LocalDateTime.parse(row[3], DATETIME_FORMAT)
-                : null;
-        StatoOrdine stato = row.length > 4 && !row[4].isEmpty() ? StatoOrdine.valueOf(row[4])
-                : StatoOrdine.IN_CREAZIONE;
-        Double totale = row.length > 5 && !row[5].isEmpty() ? Double.parseDouble(row[5]) : 0.0;
-
-        Ordine ordine = new Ordine(numeroOrdine, clienteId, dataCreazione, dataConferma, stato);
+        return newOrdine(
+                Long.parseLong(row[0]),
+                row[1],
+                row.length > 2 && !row[2].isEmpty() ? LocalDateTime.parse(row[2], DATETIME_FORMAT) : null,
+                row.length > 3 && !row[3].isEmpty() ? LocalDateTime.parse(row[3], DATETIME_FORMAT) : null,
+                row.length > 4 && !row[4].isEmpty() ? StatoOrdine.valueOf(row[4]) : StatoOrdine.IN_CREAZIONE,
+                row.length > 5 && !row[5].isEmpty() ? Double.parseDouble(row[5]) : 0.0,
+                row.length > 6 && !row[6].isEmpty() ? Long.valueOf(row[6]) : null);
+    }
+
+    private Ordine newOrdine(Long numeroOrdine, String clienteId, LocalDateTime dataCreazione,
+            LocalDateTime dataConferma, StatoOrdine stato, Double totale, Long voucherId) {
+        Ordine ordine = new Ordine(numeroOrdine, clienteId, dataCreazione != null ? dataCreazione : LocalDateTime.now(),
+                dataConferma, stato);
         ordine.setTotaleCached(totale);
 
         // Load voucher if present
-        if (row.length > 6 && !row[6].isEmpty()) {
+        if (voucherId != null) {
             try {
-                Long voucherId = Long.parseLong(row[6]);
-                Voucher voucher = VoucherDAOFS.getInstance().getVoucherById(voucherId);
+                Voucher voucher = voucherDAO().getVoucherById(voucherId);
                 ordine.setVoucher(voucher);
             } catch (Exception e) {
                 // Log per debugging - il voucher potrebbe non essere valido/trovato
-                final Long ordNum = numeroOrdine;
                 logger.log(Level.FINE, e,
-                        () -> "Voucher not found or invalid for ordine " + ordNum + ": " + e.getMessage());
+                        () -> "Voucher not found or invalid for ordine " + numeroOrdine + ": " + e.getMessage());
             }
         }
 
-        // Load products is not done here to avoid complexity
-        // Products can be loaded on demand
+        // I prodotti si caricano dall'indice di ordine_prodotti solo se servono
+        ordine.setCaricatoreProdotti(() -> loadProdotti(numeroOrdine));
 
         return ordine;
     }
 
+    /**
+     * Costruisce il riepilogo di un ordine senza risolvere il voucher
+     */
+    private OrdineSummary buildSummary(ColumnarTable ordini, int row) {
+        return new OrdineSummary(
+                ordini.getLong(COL_NUMERO, row),
+                ordini.getString(COL_CLIENTE, row),
+                ordini.getDateTime(COL_DATA_CREAZIONE, row),
+                statoOf(ordini, row),
+                ordini.getDouble(COL_TOTALE, row));
+    }
+
+    private OrdineSummary buildSummaryFromRow(String[] row) {
+        return new OrdineSummary(
+                Long.parseLong(row[COL_NUMERO]),
+                row[COL_CLIENTE],
+                row.length > COL_DATA_CREAZIONE && !row[COL_DATA_CREAZIONE].isEmpty()
+                        ? LocalDateTime.parse(row[COL_DATA_CREAZIONE], DATETIME_FORMAT)
+                        : null,
+                row.length > COL_STATO && !row[COL_STATO].isEmpty() ? StatoOrdine.valueOf(row[COL_STATO])
+                        : StatoOrdine.IN_CREAZIONE,
+                row.length > COL_TOTALE && !row[COL_TOTALE].isEmpty() ? Double.parseDouble(row[COL_TOTALE]) : 0.0);
+    }
+
+    private static StatoOrdine statoOf(ColumnarTable ordini, int row) {
+        String stato = ordini.getString(COL_STATO, row);
+        return stato != null ? StatoOrdine.valueOf(stato) : StatoOrdine.IN_CREAZIONE;
+    }
+
     private String[] buildRowFromOrdine(Ordine ordine) {
         return new String[] {
                 String.valueOf(ordine.getNumeroOrdine()),
@@ -223,29 +416,61 @@ public class OrdineDAOFS implements OrdineDAOInterface {
         };
     }
 
+    /**
+     * DAO dei voucher che salva sullo stesso supporto di questo DAO.
+     */
+    protected VoucherDAOFS voucherDAO() {
+        return VoucherDAOFS.getInstance();
+    }
+
+    /**
+     * DAO dei prodotti che salva sullo stesso supporto di questo DAO.
+     */
+    protected FoodDAOFS foodDAO() {
+        return FoodDAOFS.getInstance();
+    }
+
+    /**
+     * Carica i prodotti di un ordine leggendo solo le sue righe di
+     * ordine_prodotti.
+     *
+     * @return i prodotti, o null se non è stato possibile leggerli
+     */
+    private List<Food> loadProdotti(Long numeroOrdine) {
+        try {
+            List<Food> prodotti = new ArrayList<>();
+            for (String[] row : csvManager.findRows(PRODOTTI_FILENAME, 0, String.valueOf(numeroOrdine))) {
+                if (row.length < 2 || row[1].isEmpty()) {
+                    continue;
+                }
+                try {
+                    prodotti.add(foodDAO().getFoodById(Long.parseLong(row[1])));
+                } catch (ObjectNotFoundException | NumberFormatException e) {
+                    // Prodotto rimosso dal catalogo dopo l'ordine
+                    logger.log(Level.FINE, e, () -> "Food " + row[1] + " not found for ordine " + numeroOrdine);
+                }
+            }
+            return prodotti;
+        } catch (DAOException e) {
+            logger.log(Level.WARNING, e, () -> "Could not load products of ordine " + numeroOrdine);
+            return null;
+        }
+    }
+
     private void saveProdotti(Ordine ordine) throws DAOException {
+        List<String[]> rows = new ArrayList<>();
         for (Food food : ordine.getProdotti()) {
             if (food.getId() != null) {
-                csvManager.appendLine(PRODOTTI_FILENAME, new String[] {
+                rows.add(new String[] {
                         String.valueOf(ordine.getNumeroOrdine()),
                         String.valueOf(food.getId())
                 });
             }
         }
+        csvManager.appendLines(PRODOTTI_FILENAME, rows);
     }
 
     private void deleteProdotti(Long ordineId) throws DAOException {
-        List<String[]> allLines = csvManager.readAll(PRODOTTI_FILENAME);
-        List<String[]> toKeep = new ArrayList<>();
-        toKeep.add(allLines.get(0)); // Keep header
-
-        for (int i = 1; i < allLines.size(); i++) {
-            String[] row = allLines.get(i);
-            if (row.length >= 1 && Long.parseLong(row[0]) != ordineId) {
-                toKeep.add(row);
-            }
-        }
-
-        csvManager.writeAll(PRODOTTI_FILENAME, toKeep);
+        csvManager.deleteRows(PRODOTTI_FILENAME, String.valueOf(ordineId));
     }
 }
@@ -2,8 +2,11 @@ package org.example.model.ordine.DAO;
 
 import org.example.exceptions.*;
 import org.example.model.ordine.Ordine;
+import org.example.model.ordine.OrdineSummary;
 
 import java.util.List;
+import java.util.function.Consumer;
+
 import org.example.enums.StatoOrdine;
 
 /**
@@ -91,6 +94,161 @@ public interface OrdineDAOInterface {
                         UserNotFoundException, UnrecognizedRoleException, ObjectNotFoundException,
                         MissingAuthorizationException, WrongListQueryIdentifierValue;
 
+        /**
+         * Porta più ordini allo stesso stato con un'unica operazione bulk, senza
+         * rileggerli prima dal persistence layer. I numeri ripetuti vengono
+         * aggiornati una volta sola; i numeri ordine non presenti vengono
+         * ignorati, senza impedire l'aggiornamento degli altri.
+         * 
+         * @param numeriOrdine i numeri degli ordini da aggiornare
+         * @param nuovoStato   lo stato da assegnare
+         * @return i numeri ordine non trovati, vuota se sono stati aggiornati
+         *         tutti
+         * @throws DAOException              errori durante l'accesso al persistence
+         *                                   layer
+         * @throws PropertyException         errori nel caricamento delle properties
+         * @throws ResourceNotFoundException risorsa properties non trovata
+         */
+        List<Long> aggiornaStato(List<Long> numeriOrdine, StatoOrdine nuovoStato)
+                        throws DAOException, PropertyException, ResourceNotFoundException;
+
+        /**
+         * Scorre gli ordini di un cliente passandoli uno alla volta al consumer,
+         * senza materializzare l'intera lista. L'implementazione di default si
+         * appoggia a getOrdiniByCliente; il DAO su DB la ridefinisce leggendo le
+         * righe in streaming.
+         * 
+         * @param clienteId l'ID del cliente
+         * @param consumer  riceve ogni ordine nell'ordine di lettura
+         * @throws DAOException              errori durante l'accesso al persistence
+         *                                   layer
+         * @throws PropertyException         errori nel caricamento delle properties
+         * @throws ResourceNotFoundException risorsa properties non trovata
+         */
+        default void forEachOrdineByCliente(String clienteId, Consumer<? super Ordine> consumer)
+                        throws DAOException, PropertyException, ResourceNotFoundException,
+                        UserNotFoundException, UnrecognizedRoleException, ObjectNotFoundException,
+                        MissingAuthorizationException, WrongListQueryIdentifierValue {
+                getOrdiniByCliente(clienteId).forEach(consumer);
+        }
+
+        /**
+         * Scorre gli ordini con un determinato stato passandoli uno alla volta al
+         * consumer, senza materializzare l'intera lista.
+         * 
+         * @param stato    lo stato degli ordini da cercare
+         * @param consumer riceve ogni ordine nell'ordine di lettura
+         * @throws DAOException              errori durante l'accesso al persistence
+         *                                   layer
+         * @throws PropertyException         errori nel caricamento delle properties
+         * @throws ResourceNotFoundException risorsa properties non trovata
+         */
+        default void forEachOrdineByStato(StatoOrdine stato, Consumer<? super Ordine> consumer)
+                        throws DAOException, PropertyException, ResourceNotFoundException,
+                        UserNotFoundException, UnrecognizedRoleException, ObjectNotFoundException,
+                        MissingAuthorizationException, WrongListQueryIdentifierValue {
+                getOrdiniByStato(stato).forEach(consumer);
+        }
+
+        /**
+         * Scorre i riepiloghi degli ordini di un cliente, senza caricare le
+         * entity Ordine complete. L'implementazione di default li ricava dagli
+         * ordini; i DAO su DB e su file leggono solo le colonne necessarie.
+         * 
+         * @param clienteId l'ID del cliente
+         * @param consumer  riceve ogni riepilogo nell'ordine di lettura
+         * @throws DAOException              errori durante l'accesso al persistence
+         *                                   layer
+         * @throws PropertyException         errori nel caricamento delle properties
+         * @throws ResourceNotFoundException risorsa properties non trovata
+         */
+        default void forEachSummaryByCliente(String clienteId, Consumer<? super OrdineSummary> consumer)
+                        throws DAOException, PropertyException, ResourceNotFoundException,
+                        UserNotFoundException, UnrecognizedRoleException, ObjectNotFoundException,
+                        MissingAuthorizationException, WrongListQueryIdentifierValue {
+                forEachOrdineByCliente(clienteId, o -> consumer.accept(OrdineSummary.of(o)));
+        }
+
+        /**
+         * Scorre i riepiloghi degli ordini con un determinato stato, senza
+         * caricare le entity Ordine complete.
+         * 
+         * @param stato    lo stato degli ordini da cercare
+         * @param consumer riceve ogni riepilogo nell'ordine di lettura
+         * @throws DAOException              errori durante l'accesso al persistence
+         *                                   layer
+         * @throws PropertyException         errori nel caricamento delle properties
+         * @throws ResourceNotFoundException risorsa properties non trovata
+         */
+        default void forEachSummaryByStato(StatoOrdine stato, Consumer<? super OrdineSummary> consumer)
+                        throws DAOException, PropertyException, ResourceNotFoundException,
+                        UserNotFoundException, UnrecognizedRoleException, ObjectNotFoundException,
+                        MissingAuthorizationException, WrongListQueryIdentifierValue {
+                forEachOrdineByStato(stato, o -> consumer.accept(OrdineSummary.of(o)));
+        }
+
+        /**
+         * Recupera una pagina dei riepiloghi ordine di un cliente, dal più recente
+         * (numero ordine più alto) al più vecchio, con paginazione keyset.
+         * 
+         * @param clienteId  l'ID del cliente
+         * @param dopoNumero il numero dell'ultimo ordine della pagina precedente,
+         *                   null per la prima pagina
+         * @param limite     la dimensione massima della pagina
+         * @return i riepiloghi della pagina; se sono meno di limite non ci sono
+         *         altre pagine
+         * @throws DAOException              errori durante l'accesso al persistence
+         *                                   layer
+         * @throws PropertyException         errori nel caricamento delle properties
+         * @throws ResourceNotFoundException risorsa properties non trovata
+         */
+        default List<OrdineSummary> getSummaryPageByCliente(String clienteId, Long dopoNumero, int limite)
+                        throws DAOException, PropertyException, ResourceNotFoundException,
+                        UserNotFoundException, UnrecognizedRoleException, ObjectNotFoundException,
+                        MissingAuthorizationException, WrongListQueryIdentifierValue {
+                OrdineSummaryPageCollector collector = new OrdineSummaryPageCollector(dopoNumero, limite, true);
+                forEachSummaryByCliente(clienteId, collector);
+                return collector.getPagina();
+        }
+
+        /**
+         * Recupera una pagina dei riepiloghi ordine con un determinato stato, dal
+         * più vecchio (numero ordine più basso) al più recente, con paginazione
+         * keyset.
+         * 
+         * @param stato      lo stato degli ordini da cercare
+         * @param dopoNumero il numero dell'ultimo ordine della pagina precedente,
+         *                   null per la prima pagina
+         * @param limite     la dimensione massima della pagina
+         * @return i riepiloghi della pagina; se sono meno di limite non ci sono
+         *         altre pagine
+         * @throws DAOException              errori durante l'accesso al persistence
+         *                                   layer
+         * @throws PropertyException         errori nel caricamento delle properties
+         * @throws ResourceNotFoundException risorsa properties non trovata
+         */
+        default List<OrdineSummary> getSummaryPageByStato(StatoOrdine stato, Long dopoNumero, int limite)
+                        throws DAOException, PropertyException, ResourceNotFoundException,
+                        UserNotFoundException, UnrecognizedRoleException, ObjectNotFoundException,
+                        MissingAuthorizationException, WrongListQueryIdentifierValue {
+                OrdineSummaryPageCollector collector = new OrdineSummaryPageCollector(dopoNumero, limite, false);
+                forEachSummaryByStato(stato, collector);
+                return collector.getPagina();
+        }
+
+        /**
+         * Recupera gli ordini più recenti, cioè quelli con i numeri più alti: i
+         * numeri ordine vengono assegnati in ordine crescente
+         * 
+         * @param limite quanti ordini recuperare al massimo
+         * @return gli ordini, dal più recente
+         * @throws DAOException              errori durante l'accesso al persistence
+         *                                   layer
+         * @throws PropertyException         errori nel caricamento delle properties
+         * @throws ResourceNotFoundException risorsa properties non trovata
+         */
+        List<Ordine> getOrdiniRecenti(int limite) throws DAOException, PropertyException, ResourceNotFoundException;
+
         /**
          * Genera il prossimo numero ordine disponibile
          * 
@@ -101,4 +259,18 @@ public interface OrdineDAOInterface {
          * @throws ResourceNotFoundException risorsa properties non trovata
          */
         Long getNextNumeroOrdine() throws DAOException, PropertyException, ResourceNotFoundException;
+
+        /**
+         * Riserva un blocco di numeri ordine consecutivi, garantendo che nessun
+         * altro chiamante (anche concorrente) riceva gli stessi numeri
+         * 
+         * @param quantita quanti numeri riservare
+         * @return il primo numero del blocco; il blocco va da questo valore
+         *         (incluso) a questo valore + quantita (escluso)
+         * @throws DAOException              errori durante l'accesso al persistence
+         *                                   layer
+         * @throws PropertyException         errori nel caricamento delle properties
+         * @throws ResourceNotFoundException risorsa properties non trovata
+         */
+        Long riservaNumeriOrdine(int quantita) throws DAOException, PropertyException, ResourceNotFoundException;
 }
\ No newline at end of file
@@ -0,0 +1,63 @@
+package org.example.model.ordine.DAO;
+
+import org.example.model.ordine.OrdineSummary;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+
+/**
+ * Raccoglie una pagina di riepiloghi ordine con paginazione keyset: tiene solo
+ * gli ordini che seguono il cursore (il numero dell'ultimo ordine della pagina
+ * precedente) e, tra questi, i primi "limite" nell'ordinamento richiesto.
+ * Usato dai DAO che non possono delegare la paginazione a una query.
+ */
+public class OrdineSummaryPageCollector implements Consumer<OrdineSummary> {
+
+    private final Long dopoNumero;
+    private final int limite;
+    private final boolean decrescente;
+    private final Comparator<OrdineSummary> ordinamento;
+    private final PriorityQueue<OrdineSummary> pagina;
+
+    /**
+     * @param dopoNumero  il cursore, null per la prima pagina
+     * @param limite      la dimensione massima della pagina
+     * @param decrescente true per ordinare dal numero ordine più alto
+     */
+    public OrdineSummaryPageCollector(Long dopoNumero, int limite, boolean decrescente) {
+        this.dopoNumero = dopoNumero;
+        this.limite = limite;
+        this.decrescente = decrescente;
+        Comparator<OrdineSummary> crescente = Comparator.comparing(OrdineSummary::getNumeroOrdine);
+        this.ordinamento = decrescente ? crescente.reversed() : crescente;
+        // In testa l'elemento che uscirebbe per primo dalla pagina
+        this.pagina = new PriorityQueue<>(Math.max(1, limite + 1), ordinamento.reversed());
+    }
+
+    @Override
+    public void accept(OrdineSummary summary) {
+        if (limite <= 0 || !segueIlCursore(summary.getNumeroOrdine()))
+            return;
+        pagina.offer(summary);
+        if (pagina.size() > limite)
+            pagina.poll();
+    }
+
+    private boolean segueIlCursore(Long numero) {
+        if (dopoNumero == null)
+            return true;
+        return decrescente ? numero < dopoNumero : numero > dopoNumero;
+    }
+
+    /**
+     * @return la pagina raccolta, nell'ordinamento richiesto
+     */
+    public List<OrdineSummary> getPagina() {
+        List<OrdineSummary> result = new ArrayList<>(pagina);
+        result.sort(ordinamento);
+        return result;
+    }
+}
@@ -0,0 +1,83 @@
+package org.example.model.ordine;
+
+import org.example.PropertiesHandler;
+import org.example.dao_manager.DAOFactoryAbstract;
+import org.example.enums.ExceptionMessagesEnum;
+import org.example.exceptions.DAOException;
+import org.example.exceptions.PropertyException;
+import org.example.exceptions.ResourceNotFoundException;
+
+/**
+ * Assegna i numeri ordine con la strategia hi-lo: riserva dal persistence layer
+ * un blocco di numeri consecutivi e li distribuisce in memoria, tornando al
+ * persistence layer solo quando il blocco è esaurito.
+ * I numeri di un blocco non usati prima della chiusura dell'applicazione vanno
+ * persi, quindi la numerazione può avere dei buchi ma mai duplicati.
+ */
+public class NumeroOrdineAllocator {
+
+    /**
+     * Sorgente dei blocchi di numeri ordine.
+     */
+    @FunctionalInterface
+    public interface BloccoSource {
+        /**
+         * Riserva un blocco di numeri consecutivi
+         *
+         * @param dimensione quanti numeri riservare
+         * @return il primo numero del blocco riservato
+         * @throws DAOException errori durante l'accesso al persistence layer
+         */
+        long riservaBlocco(int dimensione) throws DAOException;
+    }
+
+    private static NumeroOrdineAllocator instance;
+
+    private final BloccoSource source;
+    private final int dimensioneBlocco;
+    private long prossimo;
+    private long limite; // escluso
+
+    NumeroOrdineAllocator(BloccoSource source, int dimensioneBlocco) {
+        if (dimensioneBlocco < 1)
+            throw new IllegalArgumentException("La dimensione del blocco deve essere positiva");
+        this.source = source;
+        this.dimensioneBlocco = dimensioneBlocco;
+    }
+
+    public static synchronized NumeroOrdineAllocator getInstance() throws DAOException {
+        if (instance == null) {
+            try {
+                int dimensione = Integer.parseInt(
+                        PropertiesHandler.getInstance().getProperty("ordine_id_block_size", "20"));
+                instance = new NumeroOrdineAllocator(NumeroOrdineAllocator::riservaDalDAO, dimensione);
+            } catch (ResourceNotFoundException e) {
+                throw new DAOException(ExceptionMessagesEnum.DAO.message, e);
+            }
+        }
+        return instance;
+    }
+
+    private static long riservaDalDAO(int dimensione) throws DAOException {
+        try {
+            return DAOFactoryAbstract.getInstance().getOrdineDAO().riservaNumeriOrdine(dimensione);
+        } catch (PropertyException | ResourceNotFoundException e) {
+            throw new DAOException(ExceptionMessagesEnum.DAO.message, e);
+        }
+    }
+
+    /**
+     * Restituisce il prossimo numero ordine, riservando un nuovo blocco solo se
+     * quello corrente è esaurito
+     *
+     * @return un numero ordine mai assegnato prima
+     * @throws DAOException errori durante la riserva di un nuovo blocco
+     */
+    public synchronized Long next() throws DAOException {
+        if (prossimo >= limite) {
+            prossimo = source.riservaBlocco(dimensioneBlocco);
+            limite = prossimo + dimensioneBlocco;
+        }
+        return prossimo++;
+    }
+}
@@ -7,6 +7,7 @@ import org.example.model.voucher.Voucher;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Supplier;
 import org.example.enums.StatoOrdine;
 
 /**
@@ -24,6 +25,8 @@ public class Ordine {
     private LocalDateTime dataConferma;
     private StatoOrdine stato;
     private Double totaleCached; // Used when loading from DB
+    // Carica i prodotti al primo accesso; null se sono già in memoria
+    private Supplier<List<Food>> caricatoreProdotti;
 
     /**
      * Costruttore per nuovo ordine
@@ -53,34 +56,69 @@ public class Ordine {
     // ==================== GESTIONE PRODOTTI ====================
 
     public void aggiungiProdotto(Food food) {
+        caricaProdottiSeNecessario();
         if (food != null) {
             prodotti.add(food);
         }
     }
 
     public void rimuoviProdotto(Food food) {
+        caricaProdottiSeNecessario();
         prodotti.remove(food);
     }
 
     public void rimuoviProdotto(int index) {
+        caricaProdottiSeNecessario();
         if (index >= 0 && index < prodotti.size()) {
             prodotti.remove(index);
         }
     }
 
     public List<Food> getProdotti() {
+        caricaProdottiSeNecessario();
         return new ArrayList<>(prodotti);
     }
 
     public void setProdotti(List<Food> prodotti) {
         this.prodotti = prodotti != null ? new ArrayList<>(prodotti) : new ArrayList<>();
+        this.caricatoreProdotti = null;
+    }
+
+    /**
+     * Imposta il caricamento dei prodotti al primo accesso (usato quando si
+     * carica un ordine salvato, per non leggerne le righe se non servono).
+     * Se il caricatore restituisce null i prodotti restano da caricare e il
+     * caricamento viene ritentato all'accesso successivo.
+     */
+    public void setCaricatoreProdotti(Supplier<List<Food>> caricatoreProdotti) {
+        this.caricatoreProdotti = caricatoreProdotti;
+    }
+
+    /**
+     * Indica se i prodotti sono in memoria (e quindi possono essere stati
+     * modificati)
+     */
+    public boolean isProdottiCaricati() {
+        return caricatoreProdotti == null;
+    }
+
+    private void caricaProdottiSeNecessario() {
+        if (caricatoreProdotti != null) {
+            List<Food> caricati = caricatoreProdotti.get();
+            if (caricati != null) {
+                prodotti = new ArrayList<>(caricati);
+                caricatoreProdotti = null;
+            }
+        }
     }
 
     public int getNumeroProdotti() {
+        caricaProdottiSeNecessario();
         return prodotti.size();
     }
 
     public boolean isEmpty() {
+        caricaProdottiSeNecessario();
         return prodotti.isEmpty();
     }
 
@@ -114,6 +152,7 @@ public class Ordine {
      * Calcola il subtotale (senza sconto)
      */
     public double getSubtotale() {
+        caricaProdottiSeNecessario();
         double totale = 0;
         for (Food f : prodotti) {
             totale += f.getCosto();
@@ -131,9 +170,10 @@ public class Ordine {
     /**
      * Calcola il totale finale (con sconto applicato)
      * Se l'ordine è stato caricato dal DB e ha un totale cached, restituisce quello
+     * senza caricare i prodotti
      */
     public double getTotale() {
-        if (totaleCached != null && prodotti.isEmpty()) {
+        if (totaleCached != null && (caricatoreProdotti != null || prodotti.isEmpty())) {
             return totaleCached;
         }
         return getSubtotale() - getSconto();
@@ -150,6 +190,7 @@ public class Ordine {
      * Calcola la durata totale di preparazione
      */
     public int getDurataTotale() {
+        caricaProdottiSeNecessario();
         int durata = 0;
         for (Food f : prodotti) {
             durata += f.getDurata();
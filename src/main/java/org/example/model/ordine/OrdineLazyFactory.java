@@ -4,8 +4,11 @@ import org.example.dao_manager.DAOFactoryAbstract;
 import org.example.enums.ExceptionMessagesEnum;
 import org.example.enums.StatoOrdine;
 import org.example.exceptions.*;
+import org.example.instances_management_abstracts.EntityCache;
+import org.example.instances_management_abstracts.LazyFactoryAbstract;
+import org.example.model.ordine.DAO.OrdineDAOInterface;
 
-import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
 
 /**
@@ -13,13 +16,35 @@ import java.util.List;
  * Implementa il pattern Lazy Initialization con caching locale.
  * Segue lo stesso pattern di ClienteLazyFactory, KebabbaroLazyFactory, etc.
  */
-public class OrdineLazyFactory {
+public class OrdineLazyFactory extends LazyFactoryAbstract<Ordine> {
+
+    /**
+     * Sorgente del DAO degli ordini.
+     */
+    @FunctionalInterface
+    interface OrdineDAOSource {
+        OrdineDAOInterface getOrdineDAO() throws PropertyException, ResourceNotFoundException;
+    }
 
     private static OrdineLazyFactory instance;
-    private final List<Ordine> ordiniCache;
+    private final EntityCache.Key<Ordine, Long> numeroKey = cache.addKey(Ordine::getNumeroOrdine);
+    private final OrdineDAOSource daoSource;
 
     private OrdineLazyFactory() {
-        ordiniCache = new ArrayList<>();
+        this(() -> DAOFactoryAbstract.getInstance().getOrdineDAO(), true);
+    }
+
+    /**
+     * Istanza separata dal singleton, la cui cache non compare nel CacheRegistry.
+     */
+    OrdineLazyFactory(OrdineDAOSource daoSource) {
+        this(daoSource, false);
+    }
+
+    private OrdineLazyFactory(OrdineDAOSource daoSource, boolean registrata) {
+        // Un ordine pesa quanto le sue righe, se sono state caricate
+        super("ordini", ordine -> 1 + (ordine.isProdottiCaricati() ? ordine.getNumeroProdotti() : 0), registrata);
+        this.daoSource = daoSource;
     }
 
     public static synchronized OrdineLazyFactory getInstance() {
@@ -45,19 +70,22 @@ public class OrdineLazyFactory {
             UnrecognizedRoleException {
 
         // Cerca prima nella cache
-        for (Ordine o : ordiniCache) {
-            if (o.getNumeroOrdine() != null && o.getNumeroOrdine().equals(numeroOrdine)) {
-                return o;
-            }
+        Ordine cached = cache.get(numeroKey, numeroOrdine);
+        if (cached != null) {
+            return cached;
         }
 
         // Se non trovato, recupera dal DAO
+        long loadStart = System.nanoTime();
+        boolean loaded = false;
         try {
-            Ordine daoOrdine = DAOFactoryAbstract.getInstance().getOrdineDAO().getOrdineByNumero(numeroOrdine);
-            ordiniCache.add(daoOrdine);
-            return daoOrdine;
+            Ordine daoOrdine = daoSource.getOrdineDAO().getOrdineByNumero(numeroOrdine);
+            loaded = true;
+            return cache.putIfAbsent(daoOrdine);
         } catch (PropertyException | ResourceNotFoundException e) {
             throw new DAOException(ExceptionMessagesEnum.DAO.message, e);
+        } finally {
+            cache.recordLoad(loadStart, loaded);
         }
     }
 
@@ -72,19 +100,22 @@ public class OrdineLazyFactory {
             MissingAuthorizationException, WrongListQueryIdentifierValue, UserNotFoundException,
             UnrecognizedRoleException {
 
+        long loadStart = System.nanoTime();
+        boolean loaded = false;
         try {
-            List<Ordine> ordini = DAOFactoryAbstract.getInstance().getOrdineDAO().getOrdiniByCliente(clienteId);
+            List<Ordine> ordini = daoSource.getOrdineDAO().getOrdiniByCliente(clienteId);
+            loaded = true;
 
             // Aggiorna cache
             for (Ordine ordine : ordini) {
-                if (!isOrdineInCache(ordine.getNumeroOrdine())) {
-                    ordiniCache.add(ordine);
-                }
+                cache.putIfAbsent(ordine);
             }
 
             return ordini;
         } catch (PropertyException | ResourceNotFoundException e) {
             throw new DAOException(ExceptionMessagesEnum.DAO.message, e);
+        } finally {
+            cache.recordLoad(loadStart, loaded);
         }
     }
 
@@ -99,19 +130,49 @@ public class OrdineLazyFactory {
             MissingAuthorizationException, WrongListQueryIdentifierValue, UserNotFoundException,
             UnrecognizedRoleException {
 
+        long loadStart = System.nanoTime();
+        boolean loaded = false;
         try {
-            List<Ordine> ordini = DAOFactoryAbstract.getInstance().getOrdineDAO().getOrdiniByStato(stato);
+            List<Ordine> ordini = daoSource.getOrdineDAO().getOrdiniByStato(stato);
+            loaded = true;
 
             // Aggiorna cache
             for (Ordine ordine : ordini) {
-                if (!isOrdineInCache(ordine.getNumeroOrdine())) {
-                    ordiniCache.add(ordine);
-                }
+                cache.putIfAbsent(ordine);
             }
 
             return ordini;
         } catch (PropertyException | ResourceNotFoundException e) {
             throw new DAOException(ExceptionMessagesEnum.DAO.message, e);
+        } finally {
+            cache.recordLoad(loadStart, loaded);
+        }
+    }
+
+    /**
+     * Recupera gli ordini più recenti e li mette in cache.
+     *
+     * @param limite quanti ordini recuperare al massimo
+     * @return lista degli ordini, dal più recente
+     * @throws DAOException errori durante l'accesso al persistence layer
+     */
+    public List<Ordine> getOrdiniRecenti(int limite) throws DAOException {
+        long loadStart = System.nanoTime();
+        boolean loaded = false;
+        try {
+            List<Ordine> ordini = daoSource.getOrdineDAO().getOrdiniRecenti(limite);
+            loaded = true;
+
+            // Aggiorna cache
+            for (Ordine ordine : ordini) {
+                cache.putIfAbsent(ordine);
+            }
+
+            return ordini;
+        } catch (PropertyException | ResourceNotFoundException e) {
+            throw new DAOException(ExceptionMessagesEnum.DAO.message, e);
+        } finally {
+            cache.recordLoad(loadStart, loaded);
         }
     }
 
@@ -126,22 +187,17 @@ public class OrdineLazyFactory {
      * @return il nuovo Ordine creato
      */
     public Ordine newOrdine(String clienteId) throws DAOException {
-        try {
-            // Genera il numero ordine
-            Long numeroOrdine = DAOFactoryAbstract.getInstance().getOrdineDAO().getNextNumeroOrdine();
+        // Genera il numero ordine dal blocco riservato, senza accedere al DB per ogni ordine
+        Long numeroOrdine = NumeroOrdineAllocator.getInstance().next();
 
-            // Crea il nuovo ordine
-            Ordine ordine = new Ordine(clienteId);
-            ordine.setNumeroOrdine(numeroOrdine);
+        // Crea il nuovo ordine
+        Ordine ordine = new Ordine(clienteId);
+        ordine.setNumeroOrdine(numeroOrdine);
 
-            // Aggiungi alla cache (non ancora salvato nel DB)
-            ordiniCache.add(ordine);
+        // Aggiungi alla cache (non ancora salvato nel DB)
+        cache.put(ordine);
 
-            return ordine;
-
-        } catch (PropertyException | ResourceNotFoundException e) {
-            throw new DAOException(ExceptionMessagesEnum.DAO.message, e);
-        }
+        return ordine;
     }
 
     // ==================== METODI DI SALVATAGGIO ====================
@@ -161,7 +217,7 @@ public class OrdineLazyFactory {
             System.out.println("[DEBUG] Stato: " + ordine.getStato());
             System.out.println("[DEBUG] Totale: " + ordine.getTotale());
 
-            DAOFactoryAbstract.getInstance().getOrdineDAO().insert(ordine);
+            daoSource.getOrdineDAO().insert(ordine);
             System.out.println("[DEBUG] Ordine salvato con successo!");
 
         } catch (DAOException e) {
@@ -184,54 +240,68 @@ public class OrdineLazyFactory {
      */
     public void aggiornaOrdine(Ordine ordine) throws DAOException, MissingAuthorizationException {
         try {
-            DAOFactoryAbstract.getInstance().getOrdineDAO().update(ordine);
+            daoSource.getOrdineDAO().update(ordine);
+            // Reinserisce l'ordine per ricalcolarne il peso e la scadenza
+            cache.put(ordine);
         } catch (PropertyException | ResourceNotFoundException e) {
             throw new DAOException(ExceptionMessagesEnum.DAO.message, e);
         }
     }
 
     /**
-     * Elimina un ordine.
+     * Porta più ordini allo stesso stato con un'unica operazione bulk e toglie
+     * dalla cache le loro copie, che altrimenti resterebbero nello stato
+     * precedente fino alla scadenza.
      *
-     * @param ordine l'ordine da eliminare
+     * @param numeriOrdine i numeri degli ordini da aggiornare
+     * @param nuovoStato   lo stato da assegnare
+     * @return i numeri ordine non trovati; gli altri sono stati aggiornati
      * @throws DAOException errori durante l'accesso al persistence layer
      */
-    public void eliminaOrdine(Ordine ordine) throws DAOException {
+    public List<Long> aggiornaStato(List<Long> numeriOrdine, StatoOrdine nuovoStato) throws DAOException {
         try {
-            DAOFactoryAbstract.getInstance().getOrdineDAO().delete(ordine);
-            ordiniCache.remove(ordine);
+            return daoSource.getOrdineDAO().aggiornaStato(List.copyOf(new LinkedHashSet<>(numeriOrdine)),
+                    nuovoStato);
         } catch (PropertyException | ResourceNotFoundException e) {
             throw new DAOException(ExceptionMessagesEnum.DAO.message, e);
+        } finally {
+            // Anche dopo un errore alcune righe possono essere già state aggiornate
+            for (Long numeroOrdine : numeriOrdine) {
+                invalidate(numeroOrdine);
+            }
         }
     }
 
-    // ==================== METODI PRIVATI DI SUPPORTO ====================
-
     /**
-     * Verifica se un ordine è già presente nella cache.
+     * Elimina un ordine.
+     *
+     * @param ordine l'ordine da eliminare
+     * @throws DAOException errori durante l'accesso al persistence layer
      */
-    private boolean isOrdineInCache(Long numeroOrdine) {
-        if (numeroOrdine == null)
-            return false;
-        for (Ordine o : ordiniCache) {
-            if (o.getNumeroOrdine() != null && o.getNumeroOrdine().equals(numeroOrdine)) {
-                return true;
-            }
+    public void eliminaOrdine(Ordine ordine) throws DAOException {
+        try {
+            daoSource.getOrdineDAO().delete(ordine);
+            cache.remove(ordine);
+        } catch (PropertyException | ResourceNotFoundException e) {
+            throw new DAOException(ExceptionMessagesEnum.DAO.message, e);
         }
-        return false;
     }
 
+    // ==================== METODI DI SUPPORTO ====================
+
     /**
-     * Pulisce la cache (utile per testing o logout).
+     * Rimuove un ordine specifico dalla cache.
      */
-    public void clearCache() {
-        ordiniCache.clear();
+    public void removeFromCache(Ordine ordine) {
+        cache.remove(ordine);
     }
 
     /**
-     * Rimuove un ordine specifico dalla cache.
+     * Rimuove dalla cache l'ordine con un numero, se presente, così che venga
+     * ricaricato alla prossima richiesta (ad esempio dopo una modifica fatta
+     * da un'altra istanza dell'applicazione).
      */
-    public void removeFromCache(Ordine ordine) {
-        ordiniCache.remove(ordine);
+    public void invalidate(Long numeroOrdine) {
+        cache.invalidate(numeroKey, numeroOrdine);
     }
 }
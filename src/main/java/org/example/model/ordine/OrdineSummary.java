@@ -0,0 +1,59 @@
+package org.example.model.ordine;
+
+import org.example.enums.StatoOrdine;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read model leggero di un Ordine, usato dalle schermate elenco.
+ * Contiene solo le colonne mostrate nelle liste, senza prodotti né voucher,
+ * così da non materializzare l'entity Ordine completa per ogni riga.
+ */
+public class OrdineSummary {
+
+    private final Long numeroOrdine;
+    private final String clienteId;
+    private final LocalDateTime dataCreazione;
+    private final StatoOrdine stato;
+    private final double totale;
+
+    public OrdineSummary(Long numeroOrdine, String clienteId, LocalDateTime dataCreazione, StatoOrdine stato,
+            double totale) {
+        this.numeroOrdine = numeroOrdine;
+        this.clienteId = clienteId;
+        this.dataCreazione = dataCreazione;
+        this.stato = stato;
+        this.totale = totale;
+    }
+
+    /**
+     * Crea il riepilogo di un Ordine già caricato
+     *
+     * @param ordine l'ordine da riassumere
+     * @return il riepilogo dell'ordine
+     */
+    public static OrdineSummary of(Ordine ordine) {
+        return new OrdineSummary(ordine.getNumeroOrdine(), ordine.getClienteId(), ordine.getDataCreazione(),
+                ordine.getStato(), ordine.getTotale());
+    }
+
+    public Long getNumeroOrdine() {
+        return numeroOrdine;
+    }
+
+    public String getClienteId() {
+        return clienteId;
+    }
+
+    public LocalDateTime getDataCreazione() {
+        return dataCreazione;
+    }
+
+    public StatoOrdine getStato() {
+        return stato;
+    }
+
+    public double getTotale() {
+        return totale;
+    }
+}
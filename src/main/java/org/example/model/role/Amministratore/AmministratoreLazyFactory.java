@@ -3,17 +3,16 @@ package org.example.model.role.Amministratore;
 import org.example.dao_manager.DAOFactoryAbstract;
 import org.example.enums.ExceptionMessagesEnum;
 import org.example.exceptions.*;
+import org.example.instances_management_abstracts.EntityCache;
+import org.example.instances_management_abstracts.LazyFactoryAbstract;
 import org.example.model.user.User;
 
-import java.util.ArrayList;
-import java.util.List;
-
-public class AmministratoreLazyFactory {
+public class AmministratoreLazyFactory extends LazyFactoryAbstract<Amministratore> {
     private static AmministratoreLazyFactory instance;
-    private final List<Amministratore> amministratori;
+    private final EntityCache.Key<Amministratore, String> emailKey = cache.addKey(r -> r.getUser().getEmail());
 
     private AmministratoreLazyFactory() {
-        amministratori = new ArrayList<>();
+        super("amministratore");
     }
 
     public static synchronized AmministratoreLazyFactory getInstance() {
@@ -26,19 +25,40 @@ public class AmministratoreLazyFactory {
     public Amministratore getAmministratoreByUser(User user)
             throws DAOException, UserNotFoundException, UnrecognizedRoleException, ObjectNotFoundException,
             MissingAuthorizationException, WrongListQueryIdentifierValue {
-        for (Amministratore a : amministratori) {
-            if (a.getUser().equals(user)) {
-                return a;
-            }
+        Amministratore cached = cache.get(emailKey, user.getEmail());
+        if (cached != null && cached.getUser().equals(user)) {
+            return cached;
         }
+        long loadStart = System.nanoTime();
+        boolean loaded = false;
         try {
             Amministratore daoAdmin = DAOFactoryAbstract.getInstance().getAmministratoreDAO()
                     .getAmministratoreByUser(user);
-            amministratori.add(daoAdmin);
+            loaded = true;
+            // Replaces a cached one whose User no longer matches
+            cache.put(daoAdmin);
             return daoAdmin;
         } catch (PropertyException | ResourceNotFoundException e) {
             throw new DAOException(ExceptionMessagesEnum.DAO.message, e);
+        } finally {
+            cache.recordLoad(loadStart, loaded);
+        }
+    }
+
+    /**
+     * Mette in cache un amministratore letto insieme al suo User, ad esempio da una
+     * join, così che lo stesso User non abbia due istanze del ruolo
+     *
+     * @return il amministratore già in cache per lo stesso User, o quello dato
+     */
+    public Amministratore putIfAbsent(Amministratore admin) {
+        Amministratore cached = cache.putIfAbsent(admin);
+        if (cached != admin && !cached.getUser().equals(admin.getUser())) {
+            // Replaces a cached one whose User no longer matches
+            cache.put(admin);
+            return admin;
         }
+        return cached;
     }
 
     public Amministratore newAmministratore(User user) throws DAOException, MissingAuthorizationException {
@@ -50,7 +70,7 @@ public class AmministratoreLazyFactory {
         } catch (PropertyException | ResourceNotFoundException e) {
             throw new DAOException(ExceptionMessagesEnum.DAO.message, e);
         }
-        amministratori.add(admin);
+        cache.put(admin);
         return admin;
     }
 }
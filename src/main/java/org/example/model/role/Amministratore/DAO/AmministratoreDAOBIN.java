@@ -0,0 +1,23 @@
+package org.example.model.role.Amministratore.DAO;
+
+import org.example.csv.BinaryFileManager;
+
+/**
+ * DAO per Amministratore basato su file binari: stesse tabelle e stessa logica di
+ * {@link AmministratoreDAOFS}, salvate nel formato compatto di {@link BinaryFileManager}.
+ */
+public class AmministratoreDAOBIN extends AmministratoreDAOFS {
+
+    private static AmministratoreDAOBIN instance;
+
+    private AmministratoreDAOBIN() {
+        super(BinaryFileManager.getInstance());
+    }
+
+    public static synchronized AmministratoreDAOBIN getInstance() {
+        if (instance == null) {
+            instance = new AmministratoreDAOBIN();
+        }
+        return instance;
+    }
+}
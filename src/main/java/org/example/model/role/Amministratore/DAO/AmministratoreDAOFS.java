@@ -21,7 +21,14 @@ public class AmministratoreDAOFS implements AmministratoreDAOInterface {
     private static final String[] HEADER = { "id", "user_id", "department", "access_level" };
 
     private AmministratoreDAOFS() {
-        this.csvManager = CSVFileManager.getInstance();
+        this(CSVFileManager.getInstance());
+    }
+
+    /**
+     * Usato da {@link AmministratoreDAOBIN} per salvare le stesse tabelle su file binari.
+     */
+    protected AmministratoreDAOFS(CSVFileManager csvManager) {
+        this.csvManager = csvManager;
         initializeFile();
     }
 
@@ -3,17 +3,16 @@ package org.example.model.role.Cliente;
 import org.example.dao_manager.DAOFactoryAbstract;
 import org.example.enums.ExceptionMessagesEnum;
 import org.example.exceptions.*;
+import org.example.instances_management_abstracts.EntityCache;
+import org.example.instances_management_abstracts.LazyFactoryAbstract;
 import org.example.model.user.User;
 
-import java.util.ArrayList;
-import java.util.List;
-
-public class ClienteLazyFactory {
+public class ClienteLazyFactory extends LazyFactoryAbstract<Cliente> {
     private static ClienteLazyFactory instance;
-    private final List<Cliente> clients;
+    private final EntityCache.Key<Cliente, String> emailKey = cache.addKey(r -> r.getUser().getEmail());
 
     private ClienteLazyFactory() {
-        clients = new ArrayList<Cliente>();
+        super("cliente");
     }
 
     public static synchronized ClienteLazyFactory getInstance() {
@@ -25,18 +24,39 @@ public class ClienteLazyFactory {
 
     public Cliente getClienteByUser(User user) throws DAOException, UserNotFoundException, UnrecognizedRoleException,
             ObjectNotFoundException, MissingAuthorizationException, WrongListQueryIdentifierValue {
-        for (Cliente s : clients) {
-            if (s.getUser().equals(user)) {
-                return s;
-            }
+        Cliente cached = cache.get(emailKey, user.getEmail());
+        if (cached != null && cached.getUser().equals(user)) {
+            return cached;
         }
+        long loadStart = System.nanoTime();
+        boolean loaded = false;
         try {
             Cliente daoCliente = DAOFactoryAbstract.getInstance().getClienteDAO().getClienteByUser(user);
-            clients.add(daoCliente);
+            loaded = true;
+            // Replaces a cached one whose User no longer matches
+            cache.put(daoCliente);
             return daoCliente;
         } catch (PropertyException | ResourceNotFoundException e) {
             throw new DAOException(ExceptionMessagesEnum.DAO.message, e);
+        } finally {
+            cache.recordLoad(loadStart, loaded);
+        }
+    }
+
+    /**
+     * Mette in cache un cliente letto insieme al suo User, ad esempio da una
+     * join, così che lo stesso User non abbia due istanze del ruolo
+     *
+     * @return il cliente già in cache per lo stesso User, o quello dato
+     */
+    public Cliente putIfAbsent(Cliente cliente) {
+        Cliente cached = cache.putIfAbsent(cliente);
+        if (cached != cliente && !cached.getUser().equals(cliente.getUser())) {
+            // Replaces a cached one whose User no longer matches
+            cache.put(cliente);
+            return cliente;
         }
+        return cached;
     }
 
     public Cliente newCliente(User user, String id) throws DAOException, MissingAuthorizationException {
@@ -47,7 +67,7 @@ public class ClienteLazyFactory {
         } catch (PropertyException | ResourceNotFoundException e) {
             throw new DAOException(ExceptionMessagesEnum.DAO.message, e);
         }
-        clients.add(cliente);
+        cache.put(cliente);
         return cliente;
     }
 }
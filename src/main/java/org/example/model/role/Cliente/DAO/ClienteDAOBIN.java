@@ -0,0 +1,23 @@
+package org.example.model.role.Cliente.DAO;
+
+import org.example.csv.BinaryFileManager;
+
+/**
+ * DAO per Cliente basato su file binari: stesse tabelle e stessa logica di
+ * {@link ClienteDAOFS}, salvate nel formato compatto di {@link BinaryFileManager}.
+ */
+public class ClienteDAOBIN extends ClienteDAOFS {
+
+    private static ClienteDAOBIN instance;
+
+    private ClienteDAOBIN() {
+        super(BinaryFileManager.getInstance());
+    }
+
+    public static synchronized ClienteDAOBIN getInstance() {
+        if (instance == null) {
+            instance = new ClienteDAOBIN();
+        }
+        return instance;
+    }
+}
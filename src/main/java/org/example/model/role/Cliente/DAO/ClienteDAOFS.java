@@ -6,7 +6,10 @@ import org.example.exceptions.*;
 import org.example.model.role.Cliente.Cliente;
 import org.example.model.user.User;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 /**
  * DAO per Cliente basato su File System (CSV).
@@ -21,7 +24,14 @@ public class ClienteDAOFS implements ClienteDAOInterface {
     private static final String[] HEADER = { "id", "user_id", "punteggio", "voucher_utilizzati", "ordini_effettuati" };
 
     private ClienteDAOFS() {
-        this.csvManager = CSVFileManager.getInstance();
+        this(CSVFileManager.getInstance());
+    }
+
+    /**
+     * Usato da {@link ClienteDAOBIN} per salvare le stesse tabelle su file binari.
+     */
+    protected ClienteDAOFS(CSVFileManager csvManager) {
+        this.csvManager = csvManager;
         initializeFile();
     }
 
@@ -43,11 +53,9 @@ public class ClienteDAOFS implements ClienteDAOInterface {
     @Override
     public Cliente getClienteByUser(User user) throws DAOException {
         try {
-            List<String[]> allClienti = csvManager.readAllWithoutHeader(FILENAME);
-            for (String[] row : allClienti) {
-                if (row.length >= 2 && row[1].equalsIgnoreCase(user.getId())) {
-                    return buildClienteFromRow(row, user);
-                }
+            String[] row = csvManager.findRow(FILENAME, 1, user.getId());
+            if (row != null) {
+                return buildClienteFromRow(row, user);
             }
             // If not found, create a new Cliente for this user
             return new Cliente(user, user.getId());
@@ -56,6 +64,34 @@ public class ClienteDAOFS implements ClienteDAOInterface {
         }
     }
 
+    /**
+     * Costruisce i Clienti di più utenti leggendo clienti.csv una sola volta,
+     * invece di una scansione del file per ogni utente.
+     *
+     * @param users gli utenti con ruolo cliente
+     * @return i Clienti indicizzati per id utente (stesso fallback di
+     *         getClienteByUser per gli utenti senza riga)
+     * @throws DAOException errore di lettura del file
+     */
+    public Map<String, Cliente> getClientiByUsers(List<User> users) throws DAOException {
+        Map<String, User> usersById = new HashMap<>();
+        for (User user : users) {
+            usersById.put(user.getId().toLowerCase(Locale.ROOT), user);
+        }
+        Map<String, Cliente> clienti = new HashMap<>();
+        csvManager.forEachRowWithoutHeader(FILENAME, row -> {
+            if (row.length < 2)
+                return;
+            User user = usersById.get(row[1].toLowerCase(Locale.ROOT));
+            if (user != null && !clienti.containsKey(user.getId()))
+                clienti.put(user.getId(), buildClienteFromRow(row, user));
+        });
+        for (User user : users) {
+            clienti.computeIfAbsent(user.getId(), id -> new Cliente(user, id));
+        }
+        return clienti;
+    }
+
     @Override
     public void insert(Cliente cliente) throws DAOException {
         String[] row = buildRowFromCliente(cliente);
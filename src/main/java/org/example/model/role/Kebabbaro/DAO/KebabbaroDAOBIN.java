@@ -0,0 +1,23 @@
+package org.example.model.role.Kebabbaro.DAO;
+
+import org.example.csv.BinaryFileManager;
+
+/**
+ * DAO per Kebabbaro basato su file binari: stesse tabelle e stessa logica di
+ * {@link KebabbaroDAOFS}, salvate nel formato compatto di {@link BinaryFileManager}.
+ */
+public class KebabbaroDAOBIN extends KebabbaroDAOFS {
+
+    private static KebabbaroDAOBIN instance;
+
+    private KebabbaroDAOBIN() {
+        super(BinaryFileManager.getInstance());
+    }
+
+    public static synchronized KebabbaroDAOBIN getInstance() {
+        if (instance == null) {
+            instance = new KebabbaroDAOBIN();
+        }
+        return instance;
+    }
+}
@@ -23,7 +23,14 @@ public class KebabbaroDAOFS implements KebabbaroDAOInterface {
     private static final String[] HEADER = { "id", "user_id", "signature_dishes", "max_orders_per_hour" };
 
     private KebabbaroDAOFS() {
-        this.csvManager = CSVFileManager.getInstance();
+        this(CSVFileManager.getInstance());
+    }
+
+    /**
+     * Usato da {@link KebabbaroDAOBIN} per salvare le stesse tabelle su file binari.
+     */
+    protected KebabbaroDAOFS(CSVFileManager csvManager) {
+        this.csvManager = csvManager;
         initializeFile();
     }
 
@@ -3,17 +3,18 @@ package org.example.model.role.Kebabbaro;
 import org.example.dao_manager.DAOFactoryAbstract;
 import org.example.enums.ExceptionMessagesEnum;
 import org.example.exceptions.*;
+import org.example.instances_management_abstracts.EntityCache;
+import org.example.instances_management_abstracts.LazyFactoryAbstract;
 import org.example.model.user.User;
 
-import java.util.ArrayList;
 import java.util.List;
 
-public class KebabbaroLazyFactory {
+public class KebabbaroLazyFactory extends LazyFactoryAbstract<Kebabbaro> {
     private static KebabbaroLazyFactory instance;
-    private final List<Kebabbaro> kebabbari;
+    private final EntityCache.Key<Kebabbaro, String> emailKey = cache.addKey(r -> r.getUser().getEmail());
 
     private KebabbaroLazyFactory() {
-        kebabbari = new ArrayList<>();
+        super("kebabbaro");
     }
 
     public static synchronized KebabbaroLazyFactory getInstance() {
@@ -24,20 +25,41 @@ public class KebabbaroLazyFactory {
     }
 
     public Kebabbaro getKebabbaroByUser(User user) throws DAOException, UserNotFoundException, UnrecognizedRoleException, ObjectNotFoundException, MissingAuthorizationException, WrongListQueryIdentifierValue {
-        for (Kebabbaro k : kebabbari) {
-            if (k.getUser().equals(user)) {
-                return k;
-            }
+        Kebabbaro cached = cache.get(emailKey, user.getEmail());
+        if (cached != null && cached.getUser().equals(user)) {
+            return cached;
         }
+        long loadStart = System.nanoTime();
+        boolean loaded = false;
         try {
             Kebabbaro daoKebabbaro = DAOFactoryAbstract.getInstance().getKebabbaroDAO().getKebabbaroByUser(user);
-            kebabbari.add(daoKebabbaro);
+            loaded = true;
+            // Replaces a cached one whose User no longer matches
+            cache.put(daoKebabbaro);
             return daoKebabbaro;
         } catch (PropertyException | ResourceNotFoundException e) {
             throw new DAOException(ExceptionMessagesEnum.DAO.message, e);
+        } finally {
+            cache.recordLoad(loadStart, loaded);
         }
     }
 
+    /**
+     * Mette in cache un kebabbaro letto insieme al suo User, ad esempio da una
+     * join, così che lo stesso User non abbia due istanze del ruolo
+     *
+     * @return il kebabbaro già in cache per lo stesso User, o quello dato
+     */
+    public Kebabbaro putIfAbsent(Kebabbaro kebabbaro) {
+        Kebabbaro cached = cache.putIfAbsent(kebabbaro);
+        if (cached != kebabbaro && !cached.getUser().equals(kebabbaro.getUser())) {
+            // Replaces a cached one whose User no longer matches
+            cache.put(kebabbaro);
+            return kebabbaro;
+        }
+        return cached;
+    }
+
     public Kebabbaro newKebabbaro(User user, List<String> signatureDishes, int maxOrdersPerHour) throws DAOException, MissingAuthorizationException {
         Kebabbaro kebabbaro = new Kebabbaro(user, signatureDishes, maxOrdersPerHour);
         user.setRole(kebabbaro);
@@ -46,7 +68,7 @@ public class KebabbaroLazyFactory {
         } catch (PropertyException | ResourceNotFoundException e) {
             throw new DAOException(ExceptionMessagesEnum.DAO.message, e);
         }
-        kebabbari.add(kebabbaro);
+        cache.put(kebabbaro);
         return kebabbaro;
     }
 }
\ No newline at end of file
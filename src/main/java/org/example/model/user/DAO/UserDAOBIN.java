@@ -0,0 +1,30 @@
+package org.example.model.user.DAO;
+
+import org.example.csv.BinaryFileManager;
+import org.example.model.role.Cliente.DAO.ClienteDAOBIN;
+import org.example.model.role.Cliente.DAO.ClienteDAOFS;
+
+/**
+ * DAO per User basato su file binari: stesse tabelle e stessa logica di
+ * {@link UserDAOFS}, salvate nel formato compatto di {@link BinaryFileManager}.
+ */
+public class UserDAOBIN extends UserDAOFS {
+
+    private static UserDAOBIN instance;
+
+    private UserDAOBIN() {
+        super(BinaryFileManager.getInstance());
+    }
+
+    public static synchronized UserDAOBIN getInstance() {
+        if (instance == null) {
+            instance = new UserDAOBIN();
+        }
+        return instance;
+    }
+
+    @Override
+    protected ClienteDAOFS clienteDAO() {
+        return ClienteDAOBIN.getInstance();
+    }
+}
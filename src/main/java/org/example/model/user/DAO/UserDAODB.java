@@ -11,21 +11,38 @@ import org.example.exceptions.UnrecognizedRoleException;
 import org.example.exceptions.ObjectNotFoundException;
 import org.example.exceptions.MissingAuthorizationException;
 import org.example.exceptions.WrongListQueryIdentifierValue;
+import org.example.dao_manager.DBConnection;
 import org.example.instances_management_abstracts.DAODBAbstract;
+import org.example.model.role.AbstractRole;
+import org.example.model.role.Amministratore.Amministratore;
 import org.example.model.role.Amministratore.AmministratoreLazyFactory;
+import org.example.model.role.Cliente.Cliente;
 import org.example.model.role.Cliente.ClienteLazyFactory;
+import org.example.model.role.Kebabbaro.Kebabbaro;
 import org.example.model.role.Kebabbaro.KebabbaroLazyFactory;
 import org.example.model.user.User;
 
+import java.sql.Connection;
 import java.sql.Date;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.List;
 
 
 public class UserDAODB extends DAODBAbstract<User> implements UserDAOInterface {
     private static final String EMAIL = "email";
     private static final String CODICE_FISCALE = "codice_fiscale";
+    private static final String CLIENTE_PUNTEGGIO = "punteggio";
+    private static final String ADMIN_DEPARTMENT = "admin_department";
+    private static final String ADMIN_ACCESS_LEVEL = "admin_access_level";
+    // Users and the columns of every role table in a single round trip. CLIENTE
+    // is read with c.* because its punteggio column may be missing; it comes
+    // last so that the ID label still resolves to the USER column
+    private static final String ALL_USERS_WITH_ROLES_QUERY = "select u.*, a.department as " + ADMIN_DEPARTMENT
+            + ", a.access_level as " + ADMIN_ACCESS_LEVEL + ", c.*"
+            + " from USER u left join CLIENTE c on c.ID = u.ID left join AMMINISTRATORE a on a.ID = u.ID";
     protected static UserDAOInterface instance;
 
     private UserDAODB() {
@@ -62,9 +79,56 @@ public class UserDAODB extends DAODBAbstract<User> implements UserDAOInterface {
     }
 
     @Override
-    protected User queryObjectBuilder(ResultSet rs, List<Object> objects) throws SQLException, DAOException,
-            PropertyException, ResourceNotFoundException, UnrecognizedRoleException, UserNotFoundException,
-            ObjectNotFoundException, MissingAuthorizationException, WrongListQueryIdentifierValue {
+    public List<User> getAllUsers() throws DAOException, PropertyException, ResourceNotFoundException,
+            UnrecognizedRoleException {
+        List<User> users = new ArrayList<>();
+        long start = System.nanoTime();
+        boolean failed = true;
+        try (Connection connection = DBConnection.getInstance().getConnection();
+                PreparedStatement stmt = connection.prepareStatement(ALL_USERS_WITH_ROLES_QUERY,
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            stmt.setFetchSize(getFetchSize());
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    User user = userBuilder(rs);
+                    user.setRole(joinedRoleBuilder(rs, user, UserRoleEnum.getUserRoleByType(rs.getInt("role"))));
+                    users.add(user);
+                }
+            }
+            failed = false;
+        } catch (SQLException e) {
+            throw new DAOException(ExceptionMessagesEnum.DAO.message, e);
+        } finally {
+            recordQuery("USER", "select roles", ALL_USERS_WITH_ROLES_QUERY, start, users.size(), failed);
+        }
+        return users;
+    }
+
+    /**
+     * Builds the role of a User from the role columns joined to its row, the
+     * same way the role DAOs build them, and hands it to the role factory so
+     * that a role already cached for the same User is reused
+     */
+    private AbstractRole joinedRoleBuilder(ResultSet rs, User user, UserRoleEnum role) throws SQLException {
+        return switch (role) {
+            case CLIENTE -> {
+                Cliente cliente = new Cliente(user, user.getId());
+                // Il campo punteggio potrebbe non esistere, usa default 0
+                try {
+                    cliente.setPunteggio(rs.getInt(CLIENTE_PUNTEGGIO));
+                } catch (SQLException e) {
+                    cliente.setPunteggio(0);
+                }
+                yield ClienteLazyFactory.getInstance().putIfAbsent(cliente);
+            }
+            case KEBABBARO -> KebabbaroLazyFactory.getInstance()
+                    .putIfAbsent(new Kebabbaro(user, new ArrayList<>(), 10));
+            case AMMINISTRATORE -> AmministratoreLazyFactory.getInstance().putIfAbsent(
+                    new Amministratore(user, rs.getString(ADMIN_DEPARTMENT), rs.getInt(ADMIN_ACCESS_LEVEL)));
+        };
+    }
+
+    private User userBuilder(ResultSet rs) throws SQLException {
         User user = new User(
                 rs.getString("name"),
                 rs.getString("surname"),
@@ -74,6 +138,14 @@ public class UserDAODB extends DAODBAbstract<User> implements UserDAOInterface {
                 rs.getDate("registration_date").toLocalDate());
         // Imposta l'ID dal database (es. CLI001)
         user.setId(rs.getString("ID"));
+        return user;
+    }
+
+    @Override
+    protected User queryObjectBuilder(ResultSet rs, List<Object> objects) throws SQLException, DAOException,
+            PropertyException, ResourceNotFoundException, UnrecognizedRoleException, UserNotFoundException,
+            ObjectNotFoundException, MissingAuthorizationException, WrongListQueryIdentifierValue {
+        User user = userBuilder(rs);
         setUserRoleByRoleEnum(user, UserRoleEnum.getUserRoleByType(rs.getInt("role")));
         return user;
     }
@@ -59,6 +59,11 @@ public class UserDAODemo implements UserDAOInterface {
                 .orElseThrow(() -> new UserNotFoundException(ExceptionMessagesEnum.USER_NOT_FOUND.message));
     }
 
+    @Override
+    public List<User> getAllUsers() {
+        return new ArrayList<>(MOCK_USERS);
+    }
+
     @Override
     public void insert(User user) {
         MOCK_USERS.add(user);
@@ -15,6 +15,7 @@ import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 /**
  * DAO per User basato su File System (CSV).
@@ -33,7 +34,14 @@ public class UserDAOFS implements UserDAOInterface {
             "registration_date", "role_type" };
 
     private UserDAOFS() {
-        this.csvManager = CSVFileManager.getInstance();
+        this(CSVFileManager.getInstance());
+    }
+
+    /**
+     * Usato da {@link UserDAOBIN} per salvare le stesse tabelle su file binari.
+     */
+    protected UserDAOFS(CSVFileManager csvManager) {
+        this.csvManager = csvManager;
         initializeFile();
     }
 
@@ -55,9 +63,8 @@ public class UserDAOFS implements UserDAOInterface {
     @Override
     public User getUserByEmail(String email) throws UserNotFoundException, DAOException, UnrecognizedRoleException {
         try {
-            List<String[]> allUsers = csvManager.readAllWithoutHeader(FILENAME);
-            for (String[] row : allUsers) {
-                if (row.length >= 8 && row[4].equalsIgnoreCase(email)) {
+            for (String[] row : csvManager.findRows(FILENAME, 4, email)) {
+                if (row.length >= 8) {
                     return buildUserFromRow(row);
                 }
             }
@@ -71,9 +78,8 @@ public class UserDAOFS implements UserDAOInterface {
     public User getUserByCodiceFiscale(String codiceFiscale)
             throws UserNotFoundException, DAOException, UnrecognizedRoleException {
         try {
-            List<String[]> allUsers = csvManager.readAllWithoutHeader(FILENAME);
-            for (String[] row : allUsers) {
-                if (row.length >= 8 && row[3].equalsIgnoreCase(codiceFiscale)) {
+            for (String[] row : csvManager.findRows(FILENAME, 3, codiceFiscale)) {
+                if (row.length >= 8) {
                     return buildUserFromRow(row);
                 }
             }
@@ -83,6 +89,32 @@ public class UserDAOFS implements UserDAOInterface {
         }
     }
 
+    @Override
+    public List<User> getAllUsers() throws DAOException, UnrecognizedRoleException {
+        List<User> users = new ArrayList<>();
+        List<User> clienti = new ArrayList<>();
+        for (String[] row : csvManager.readAllWithoutHeader(FILENAME)) {
+            if (row.length < 8)
+                continue;
+            User user = buildUserWithoutRoleFromRow(row);
+            UserRoleEnum roleEnum = UserRoleEnum.getUserRoleByType(Integer.parseInt(row[7]));
+            if (roleEnum == UserRoleEnum.CLIENTE)
+                clienti.add(user);
+            else
+                user.setRole(createRoleForUser(user, roleEnum));
+            users.add(user);
+        }
+
+        // Tutti i clienti con una sola lettura di clienti.csv
+        if (!clienti.isEmpty()) {
+            Map<String, Cliente> clientiByUserId = clienteDAO().getClientiByUsers(clienti);
+            for (User user : clienti) {
+                user.setRole(clientiByUserId.get(user.getId()));
+            }
+        }
+        return users;
+    }
+
     @Override
     public void insert(User user) throws DAOException {
         String[] row = buildRowFromUser(user);
@@ -132,6 +164,20 @@ public class UserDAOFS implements UserDAOInterface {
      * Builds a User object from a CSV row.
      */
     private User buildUserFromRow(String[] row) throws UnrecognizedRoleException {
+        User user = buildUserWithoutRoleFromRow(row);
+
+        // Set role based on type
+        UserRoleEnum roleEnum = UserRoleEnum.getUserRoleByType(Integer.parseInt(row[7]));
+        AbstractRole role = createRoleForUser(user, roleEnum);
+        user.setRole(role);
+
+        return user;
+    }
+
+    /**
+     * Builds a User object from a CSV row, leaving its role unset.
+     */
+    private User buildUserWithoutRoleFromRow(String[] row) {
         // row: id, name, surname, codice_fiscale, email, password, registration_date,
         // role_type
         String id = row[0];
@@ -141,19 +187,19 @@ public class UserDAOFS implements UserDAOInterface {
         String email = row[4];
         String password = row[5];
         LocalDate registrationDate = LocalDate.parse(row[6], DATE_FORMAT);
-        int roleType = Integer.parseInt(row[7]);
 
         User user = new User(name, surname, codiceFiscale, email, password, registrationDate);
         user.setId(id);
-
-        // Set role based on type
-        UserRoleEnum roleEnum = UserRoleEnum.getUserRoleByType(roleType);
-        AbstractRole role = createRoleForUser(user, roleEnum);
-        user.setRole(role);
-
         return user;
     }
 
+    /**
+     * Clienti DAO storing on the same medium as this DAO.
+     */
+    protected ClienteDAOFS clienteDAO() {
+        return ClienteDAOFS.getInstance();
+    }
+
     /**
      * Creates a role instance for the user based on role type.
      * Note: Uses the same approach as DAODemo classes to create roles.
@@ -162,7 +208,7 @@ public class UserDAOFS implements UserDAOInterface {
         return switch (roleEnum) {
             case CLIENTE -> {
                 try {
-                    yield ClienteDAOFS.getInstance().getClienteByUser(user);
+                    yield clienteDAO().getClienteByUser(user);
                 } catch (DAOException e) {
                     // Fallback: create inline (same approach as Demo)
                     yield createClienteInline(user);
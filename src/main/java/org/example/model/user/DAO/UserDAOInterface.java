@@ -3,6 +3,8 @@ package org.example.model.user.DAO;
 import org.example.exceptions.*;
 import org.example.model.user.User;
 
+import java.util.List;
+
 public interface UserDAOInterface {
 
     /**
@@ -31,6 +33,24 @@ public interface UserDAOInterface {
             ResourceNotFoundException, UnrecognizedRoleException, ObjectNotFoundException,
             MissingAuthorizationException, WrongListQueryIdentifierValue;
 
+    /**
+     * Retrieves every registered User, each with its role already set. Roles
+     * are loaded together with the users (with a join, or one read per role
+     * type) instead of one extra lookup per user.
+     *
+     * @return the list of all Users
+     * @throws DAOException              thrown if errors occur while retrieving
+     *                                   data from persistence layer
+     * @throws PropertyException         thrown if errors occur while loading
+     *                                   properties from .properties file
+     * @throws ResourceNotFoundException thrown if the properties resource file
+     *                                   cannot be found
+     * @throws UnrecognizedRoleException thrown if a stored role value is not
+     *                                   recognized
+     */
+    List<User> getAllUsers() throws DAOException, PropertyException, ResourceNotFoundException,
+            UnrecognizedRoleException;
+
     /**
      * Inserts an object into the DB
      * 
@@ -2,17 +2,20 @@ package org.example.model.user;
 
 import org.example.dao_manager.DAOFactoryAbstract;
 import org.example.exceptions.*;
+import org.example.instances_management_abstracts.EntityCache;
+import org.example.instances_management_abstracts.LazyFactoryAbstract;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 
-public class UserLazyFactory {
+public class UserLazyFactory extends LazyFactoryAbstract<User> {
     private static UserLazyFactory instance;
-    private final List<User> registeredUsers;
+    private final EntityCache.Key<User, String> emailKey = cache.addKey(User::getEmail);
+    private final EntityCache.Key<User, String> codiceFiscaleKey = cache.addKey(User::getCodiceFiscale);
 
     private UserLazyFactory() {
-        registeredUsers = new ArrayList<>();
+        super("user");
     }
 
     public static synchronized UserLazyFactory getInstance() {
@@ -41,28 +44,70 @@ public class UserLazyFactory {
             ResourceNotFoundException, UnrecognizedRoleException, WrongListQueryIdentifierValue,
             ObjectNotFoundException, MissingAuthorizationException {
 
-        for (User u : registeredUsers) {
-            if (u.getEmail().equals(email)) {
-                return u;
-            }
+        User cached = cache.get(emailKey, email);
+        if (cached != null) {
+            return cached;
         }
 
-        User daoUser = DAOFactoryAbstract.getInstance().getUserDAO().getUserByEmail(email);
-        registeredUsers.add(daoUser);
-        return daoUser;
+        long loadStart = System.nanoTime();
+        boolean loaded = false;
+        try {
+            User daoUser = DAOFactoryAbstract.getInstance().getUserDAO().getUserByEmail(email);
+            loaded = true;
+            return cache.putIfAbsent(daoUser);
+        } finally {
+            cache.recordLoad(loadStart, loaded);
+        }
     }
 
     public User getUserByCodiceFiscale(String codiceFiscale) throws DAOException, UserNotFoundException,
             PropertyException, ResourceNotFoundException, UnrecognizedRoleException, WrongListQueryIdentifierValue,
             ObjectNotFoundException, MissingAuthorizationException {
-        for (User u : registeredUsers) {
-            if (u.getCodiceFiscale().equals(codiceFiscale)) {
-                return u;
-            }
+        User cached = cache.get(codiceFiscaleKey, codiceFiscale);
+        if (cached != null) {
+            return cached;
+        }
+        long loadStart = System.nanoTime();
+        boolean loaded = false;
+        try {
+            User daoUser = DAOFactoryAbstract.getInstance().getUserDAO().getUserByCodiceFiscale(codiceFiscale);
+            loaded = true;
+            return cache.putIfAbsent(daoUser);
+        } finally {
+            cache.recordLoad(loadStart, loaded);
+        }
+    }
+
+    /**
+     * Gets every registered User with its role, loading them from persistence
+     * in one pass. Users already cached are returned as the cached instance.
+     *
+     * @return the list of all Users
+     * @throws DAOException              thrown if errors occur while retrieving
+     *                                   data from persistence layer
+     * @throws PropertyException         thrown if errors occur while loading
+     *                                   properties from .properties file
+     * @throws ResourceNotFoundException thrown if the properties resource file
+     *                                   cannot be found
+     * @throws UnrecognizedRoleException thrown if a stored role value is not
+     *                                   recognized
+     */
+    public List<User> getAllUsers() throws DAOException, PropertyException, ResourceNotFoundException,
+            UnrecognizedRoleException {
+        List<User> daoUsers;
+        long loadStart = System.nanoTime();
+        boolean loaded = false;
+        try {
+            daoUsers = DAOFactoryAbstract.getInstance().getUserDAO().getAllUsers();
+            loaded = true;
+        } finally {
+            cache.recordLoad(loadStart, loaded);
+        }
+        List<User> users = new ArrayList<>();
+        for (User daoUser : daoUsers) {
+            users.add(cache.putIfAbsent(daoUser));
         }
-        User daoUser = DAOFactoryAbstract.getInstance().getUserDAO().getUserByCodiceFiscale(codiceFiscale);
-        registeredUsers.add(daoUser);
-        return daoUser;
+        return users;
     }
 
     public User newUser(String name, String surname, String codiceFiscale, String email, String password,
@@ -70,7 +115,7 @@ public class UserLazyFactory {
             throws DAOException, PropertyException, ResourceNotFoundException, MissingAuthorizationException {
         User newUser = new User(name, surname, codiceFiscale, email, password, registrationDate);
         DAOFactoryAbstract.getInstance().getUserDAO().insert(newUser);
-        registeredUsers.add(newUser);
+        cache.put(newUser);
         return newUser;
     }
 
@@ -0,0 +1,23 @@
+package org.example.model.voucher.DAO;
+
+import org.example.csv.BinaryFileManager;
+
+/**
+ * DAO per Voucher basato su file binari: stesse tabelle e stessa logica di
+ * {@link VoucherDAOFS}, salvate nel formato compatto di {@link BinaryFileManager}.
+ */
+public class VoucherDAOBIN extends VoucherDAOFS {
+
+    private static VoucherDAOBIN instance;
+
+    private VoucherDAOBIN() {
+        super(BinaryFileManager.getInstance());
+    }
+
+    public static synchronized VoucherDAOBIN getInstance() {
+        if (instance == null) {
+            instance = new VoucherDAOBIN();
+        }
+        return instance;
+    }
+}
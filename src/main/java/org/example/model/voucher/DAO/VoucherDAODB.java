@@ -112,37 +112,35 @@ public class VoucherDAODB extends DAODBAbstract<Voucher> implements VoucherDAOIn
             throw new DAOException("Column count doesn't match value count");
         }
 
-        // Costruisci la lista di colonne: "col1, col2, col3"
-        String columnsList = String.join(", ", columns);
-
-        // Costruisci i placeholder: "?, ?, ?"
-        StringBuilder questionMarks = new StringBuilder();
-        questionMarks.append("?,".repeat(values.size()));
-        questionMarks.deleteCharAt(questionMarks.length() - 1);
-
-        // Query: INSERT INTO table (col1, col2, col3) VALUES (?, ?, ?)
-        String query = String.format("INSERT INTO %s (%s) VALUES (%s)", table, columnsList, questionMarks);
+        // Query: INSERT INTO table (col1, col2, col3) VALUES (?, ?, ?), costruita una sola volta
+        String query = memoizedSql(List.of("insert columns", table, List.copyOf(columns)), () -> {
+            StringBuilder questionMarks = new StringBuilder();
+            questionMarks.append("?,".repeat(columns.size()));
+            questionMarks.deleteCharAt(questionMarks.length() - 1);
+            return String.format("INSERT INTO %s (%s) VALUES (%s)", table, String.join(", ", columns), questionMarks);
+        });
 
         // Esegui la query
-        executeInsertQuery(values, query);
+        executeInsertQuery(table, values, query);
     }
 
     /**
      * Metodo helper per eseguire query INSERT con parametri.
      */
-    private void executeInsertQuery(List<Object> values, String query)
+    private void executeInsertQuery(String table, List<Object> values, String query)
             throws DAOException, PropertyException, ResourceNotFoundException {
-        java.sql.Connection connection;
-        try {
-            connection = org.example.dao_manager.DBConnection.getInstance().getConnection();
-        } catch (java.sql.SQLException e) {
-            throw new DAOException(org.example.enums.ExceptionMessagesEnum.DAO.message, e);
-        }
-        try (java.sql.PreparedStatement stmt = connection.prepareStatement(query)) {
+        long start = System.nanoTime();
+        long rows = 0;
+        boolean failed = true;
+        try (java.sql.Connection connection = org.example.dao_manager.DBConnection.getInstance().getConnection();
+                java.sql.PreparedStatement stmt = connection.prepareStatement(query)) {
             setQueryQuestionMarksValue(stmt, values, 1);
-            stmt.executeUpdate();
+            rows = stmt.executeUpdate();
+            failed = false;
         } catch (java.sql.SQLException e) {
             throw new DAOException(org.example.enums.ExceptionMessagesEnum.DAO.message, e);
+        } finally {
+            recordQuery(table, "insert", query, start, rows, failed);
         }
     }
 
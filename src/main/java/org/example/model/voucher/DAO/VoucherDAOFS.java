@@ -27,7 +27,14 @@ public class VoucherDAOFS implements VoucherDAOInterface {
             "attivo", "descrizione" };
 
     private VoucherDAOFS() {
-        this.csvManager = CSVFileManager.getInstance();
+        this(CSVFileManager.getInstance());
+    }
+
+    /**
+     * Usato da {@link VoucherDAOBIN} per salvare le stesse tabelle su file binari.
+     */
+    protected VoucherDAOFS(CSVFileManager csvManager) {
+        this.csvManager = csvManager;
         initializeFile();
     }
 
@@ -1,19 +1,75 @@
 package org.example.model.voucher;
 
+import org.example.PropertiesHandler;
 import org.example.dao_manager.DAOFactoryAbstract;
 import org.example.enums.ExceptionMessagesEnum;
 import org.example.exceptions.*;
+import org.example.instances_management_abstracts.EntityCache;
+import org.example.instances_management_abstracts.LazyFactoryAbstract;
+import org.example.model.voucher.DAO.VoucherDAOInterface;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+public class VoucherLazyFactory extends LazyFactoryAbstract<Voucher> {
+
+    /**
+     * Sorgente del DAO dei voucher.
+     */
+    @FunctionalInterface
+    interface VoucherDAOSource {
+        VoucherDAOInterface getVoucherDAO() throws PropertyException, ResourceNotFoundException;
+    }
+
+    private static final Logger logger = Logger.getLogger(VoucherLazyFactory.class.getName());
 
-public class VoucherLazyFactory {
+    private static final long DEFAULT_NEGATIVE_TTL_SECONDS = 30;
+    private static final int DEFAULT_NEGATIVE_MAX_SIZE = 10_000;
 
     private static VoucherLazyFactory instance;
-    private final List<Voucher> voucherCache;
+    private final EntityCache.Key<Voucher, Long> idKey = cache.addKey(Voucher::getId);
+    private final EntityCache.Key<Voucher, String> codiceKey = cache.addKeyIgnoreCase(Voucher::getCodice);
+
+    // Codici non trovati, normalizzati in maiuscolo, con l'istante (System.nanoTime) di scadenza
+    private final Map<String, Long> codiciInesistenti = new ConcurrentHashMap<>();
+    // Incrementato a ogni inserimento: un "non trovato" letto prima di un inserimento non viene memorizzato
+    private final AtomicLong inserimenti = new AtomicLong();
+    private final long negativeTtlNanos;
+    private final int negativeMaxSize;
+    private final VoucherDAOSource daoSource;
 
     private VoucherLazyFactory() {
-        voucherCache = new ArrayList<>();
+        this(() -> DAOFactoryAbstract.getInstance().getVoucherDAO(), true);
+    }
+
+    /**
+     * Istanza separata dal singleton, la cui cache non compare nel CacheRegistry.
+     */
+    VoucherLazyFactory(VoucherDAOSource daoSource) {
+        this(daoSource, false);
+    }
+
+    private VoucherLazyFactory(VoucherDAOSource daoSource, boolean registrata) {
+        super("voucher", voucher -> 1, registrata);
+        this.daoSource = daoSource;
+        long ttlSeconds = DEFAULT_NEGATIVE_TTL_SECONDS;
+        int maxSize = DEFAULT_NEGATIVE_MAX_SIZE;
+        try {
+            PropertiesHandler properties = PropertiesHandler.getInstance();
+            ttlSeconds = Long.parseLong(properties.getProperty("cache_voucher_negative_ttl_seconds",
+                    String.valueOf(ttlSeconds)));
+            maxSize = Integer.parseInt(properties.getProperty("cache_voucher_negative_max_size",
+                    String.valueOf(maxSize)));
+        } catch (ResourceNotFoundException e) {
+            logger.warning("Properties not found, using default settings for unknown voucher codes");
+        }
+        this.negativeTtlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.negativeMaxSize = maxSize;
     }
 
     public static synchronized VoucherLazyFactory getInstance() {
@@ -27,18 +83,21 @@ public class VoucherLazyFactory {
             MissingAuthorizationException, WrongListQueryIdentifierValue, UserNotFoundException,
             UnrecognizedRoleException {
 
-        for (Voucher v : voucherCache) {
-            if (v.getId() != null && v.getId().equals(id)) {
-                return v;
-            }
+        Voucher cached = cache.get(idKey, id);
+        if (cached != null) {
+            return cached;
         }
 
+        long loadStart = System.nanoTime();
+        boolean loaded = false;
         try {
-            Voucher daoVoucher = DAOFactoryAbstract.getInstance().getVoucherDAO().getVoucherById(id);
-            voucherCache.add(daoVoucher);
-            return daoVoucher;
+            Voucher daoVoucher = daoSource.getVoucherDAO().getVoucherById(id);
+            loaded = true;
+            return cache.putIfAbsent(daoVoucher);
         } catch (PropertyException | ResourceNotFoundException e) {
             throw new DAOException(ExceptionMessagesEnum.DAO.message, e);
+        } finally {
+            cache.recordLoad(loadStart, loaded);
         }
     }
 
@@ -46,59 +105,121 @@ public class VoucherLazyFactory {
             MissingAuthorizationException, WrongListQueryIdentifierValue, UserNotFoundException,
             UnrecognizedRoleException {
 
-        for (Voucher v : voucherCache) {
-            if (v.getCodice() != null && v.getCodice().equalsIgnoreCase(codice)) {
-                return v;
-            }
+        Voucher cached = cache.get(codiceKey, codice);
+        if (cached != null) {
+            return cached;
+        }
+
+        // Un codice già cercato invano di recente non interroga di nuovo il DAO
+        String codiceNormalizzato = codice != null ? codice.toUpperCase(Locale.ROOT) : null;
+        if (isCodiceInesistente(codiceNormalizzato)) {
+            throw new ObjectNotFoundException(ExceptionMessagesEnum.OBJ_NOT_FOUND.message);
         }
 
+        long inserimentiPrimaDellaQuery = inserimenti.get();
+        long loadStart = System.nanoTime();
+        boolean loaded = false;
         try {
-            Voucher daoVoucher = DAOFactoryAbstract.getInstance().getVoucherDAO().getVoucherByCodice(codice);
-            voucherCache.add(daoVoucher);
-            return daoVoucher;
+            Voucher daoVoucher = daoSource.getVoucherDAO().getVoucherByCodice(codice);
+            loaded = true;
+            return cache.putIfAbsent(daoVoucher);
+        } catch (ObjectNotFoundException e) {
+            ricordaCodiceInesistente(codiceNormalizzato, inserimentiPrimaDellaQuery);
+            throw e;
         } catch (PropertyException | ResourceNotFoundException e) {
             throw new DAOException(ExceptionMessagesEnum.DAO.message, e);
+        } finally {
+            cache.recordLoad(loadStart, loaded);
         }
     }
 
     public List<Voucher> getAllVoucherAttivi() throws DAOException, ObjectNotFoundException,
             MissingAuthorizationException, WrongListQueryIdentifierValue, UserNotFoundException,
             UnrecognizedRoleException {
+        long loadStart = System.nanoTime();
+        boolean loaded = false;
         try {
-            List<Voucher> vouchers = DAOFactoryAbstract.getInstance().getVoucherDAO().getAllVoucherAttivi();
+            List<Voucher> vouchers = daoSource.getVoucherDAO().getAllVoucherAttivi();
+            loaded = true;
             for (Voucher v : vouchers) {
-                if (!isVoucherInCache(v.getId())) {
-                    voucherCache.add(v);
-                }
+                cache.putIfAbsent(v);
             }
             return vouchers;
         } catch (PropertyException | ResourceNotFoundException e) {
             throw new DAOException(ExceptionMessagesEnum.DAO.message, e);
+        } finally {
+            cache.recordLoad(loadStart, loaded);
         }
     }
 
     public Voucher newVoucher(Voucher voucher) throws DAOException, MissingAuthorizationException {
         try {
-            DAOFactoryAbstract.getInstance().getVoucherDAO().insert(voucher);
+            daoSource.getVoucherDAO().insert(voucher);
         } catch (PropertyException | ResourceNotFoundException e) {
             throw new DAOException(ExceptionMessagesEnum.DAO.message, e);
         }
-        voucherCache.add(voucher);
+        cache.put(voucher);
+        if (voucher.getCodice() != null) {
+            // Segnala l'inserimento e rimuove il codice sotto il lock della sua voce,
+            // lo stesso preso da ricordaCodiceInesistente
+            codiciInesistenti.compute(voucher.getCodice().toUpperCase(Locale.ROOT), (codice, scadenza) -> {
+                inserimenti.incrementAndGet();
+                return null;
+            });
+        }
         return voucher;
     }
 
-    private boolean isVoucherInCache(Long id) {
-        if (id == null)
+    @Override
+    public void clearCache() {
+        super.clearCache();
+        codiciInesistenti.clear();
+    }
+
+    /**
+     * @param codice il codice normalizzato in maiuscolo
+     * @return true se il codice è stato cercato invano e la voce non è scaduta
+     */
+    boolean isCodiceInesistente(String codice) {
+        if (codice == null) {
             return false;
-        for (Voucher v : voucherCache) {
-            if (v.getId() != null && v.getId().equals(id)) {
-                return true;
-            }
         }
+        Long scadenza = codiciInesistenti.get(codice);
+        if (scadenza == null) {
+            return false;
+        }
+        if (scadenza - System.nanoTime() > 0) {
+            return true;
+        }
+        codiciInesistenti.remove(codice, scadenza);
         return false;
     }
 
-    public void clearCache() {
-        voucherCache.clear();
+    /**
+     * Memorizza un codice non trovato, a meno che nel frattempo sia stato
+     * inserito un voucher. Il confronto con il contatore degli inserimenti e la
+     * scrittura avvengono in un'unica compute: un newVoucher dello stesso codice
+     * viene eseguito o prima, e il codice non viene memorizzato, o dopo, e lo
+     * rimuove.
+     *
+     * @param codice                     il codice normalizzato in maiuscolo
+     * @param inserimentiPrimaDellaQuery il contatore degli inserimenti letto prima della query
+     */
+    private void ricordaCodiceInesistente(String codice, long inserimentiPrimaDellaQuery) {
+        if (codice == null || negativeTtlNanos <= 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        if (codiciInesistenti.size() >= negativeMaxSize) {
+            // Piena (ad esempio per tentativi a forza bruta): si scartano i codici scaduti
+            // e, se non basta, il nuovo codice non viene memorizzato
+            codiciInesistenti.values().removeIf(scadenza -> scadenza - now <= 0);
+            if (codiciInesistenti.size() >= negativeMaxSize) {
+                return;
+            }
+        }
+        Long scadenza = now + negativeTtlNanos;
+        codiciInesistenti.compute(codice, (k, attuale) ->
+                inserimenti.get() == inserimentiPrimaDellaQuery ? scadenza : attuale);
     }
-}
\ No newline at end of file
+}
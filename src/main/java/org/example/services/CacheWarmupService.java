@@ -0,0 +1,175 @@
+package org.example.services;
+
+import org.example.PropertiesHandler;
+import org.example.dao_manager.DAOExecutor;
+import org.example.enums.CacheWarmupTargetEnum;
+import org.example.exceptions.ResourceNotFoundException;
+import org.example.model.food.FoodLazyFactory;
+import org.example.model.ordine.OrdineLazyFactory;
+import org.example.model.voucher.VoucherLazyFactory;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Servizio Singleton che precarica le cache delle LazyFactory all'avvio
+ * dell'applicazione, così che il primo utente non paghi i caricamenti a
+ * freddo del catalogo, dei voucher attivi e degli ordini più recenti.
+ * 
+ * <p>
+ * Ogni gruppo di entity viene caricato in parallelo sull'executor di I/O
+ * ({@link DAOExecutor}); la durata di ciascun caricamento e quella totale
+ * vengono riportate nel log. Un caricamento fallito viene solo segnalato:
+ * le entity verranno caricate alla prima richiesta, come senza warm-up.
+ * </p>
+ * 
+ * <h2>Configurazione</h2>
+ * <ul>
+ * <li><b>cache_warmup_enabled</b>: abilita il warm-up (default true)</li>
+ * <li><b>cache_warmup_set</b>: gruppi da precaricare, separati da virgola
+ * (food, voucher, ordini)</li>
+ * <li><b>cache_warmup_blocking</b>: se true l'avvio attende il warm-up prima
+ * della schermata di login, altrimenti prosegue in background</li>
+ * <li><b>cache_warmup_timeout_ms</b>: attesa massima in modalità
+ * bloccante</li>
+ * <li><b>cache_warmup_ordini_recenti</b>: quanti ordini precaricare, a
+ * partire dal numero ordine più alto</li>
+ * </ul>
+ */
+public class CacheWarmupService {
+
+    private static final Logger logger = Logger.getLogger(CacheWarmupService.class.getName());
+
+    private static final String DEFAULT_WARMUP_SET = "food,voucher,ordini";
+    private static final long DEFAULT_TIMEOUT_MS = 5000;
+    private static final int DEFAULT_ORDINI_RECENTI = 200;
+
+    private static CacheWarmupService instance;
+
+    private final boolean enabled;
+    private final Set<CacheWarmupTargetEnum> targets;
+    private final boolean blocking;
+    private final long timeoutMillis;
+    private final int ordiniRecenti;
+
+    private CacheWarmupService() {
+        boolean abilitato = true;
+        String insieme = DEFAULT_WARMUP_SET;
+        boolean bloccante = false;
+        long timeout = DEFAULT_TIMEOUT_MS;
+        int recenti = DEFAULT_ORDINI_RECENTI;
+        try {
+            PropertiesHandler properties = PropertiesHandler.getInstance();
+            abilitato = Boolean.parseBoolean(properties.getProperty("cache_warmup_enabled", "true"));
+            insieme = properties.getProperty("cache_warmup_set", insieme);
+            bloccante = Boolean.parseBoolean(properties.getProperty("cache_warmup_blocking", "false"));
+            timeout = Long.parseLong(properties.getProperty("cache_warmup_timeout_ms", String.valueOf(timeout)));
+            recenti = Integer.parseInt(
+                    properties.getProperty("cache_warmup_ordini_recenti", String.valueOf(recenti)));
+        } catch (ResourceNotFoundException e) {
+            logger.warning("Properties non trovate, uso le impostazioni di default per il warm-up delle cache");
+        }
+        this.enabled = abilitato;
+        this.targets = parseTargets(insieme);
+        this.blocking = bloccante;
+        this.timeoutMillis = timeout;
+        this.ordiniRecenti = recenti;
+    }
+
+    public static synchronized CacheWarmupService getInstance() {
+        if (instance == null) {
+            instance = new CacheWarmupService();
+        }
+        return instance;
+    }
+
+    /**
+     * Avvia il warm-up delle cache configurate. In modalità bloccante ritorna
+     * al termine del warm-up o allo scadere del timeout, altrimenti subito.
+     *
+     * @return il future completato al termine di tutti i caricamenti
+     */
+    public CompletableFuture<Void> start() {
+        if (!enabled || targets.isEmpty()) {
+            logger.log(Level.INFO, "Warm-up delle cache disabilitato");
+            return CompletableFuture.completedFuture(null);
+        }
+
+        long inizio = System.nanoTime();
+        List<CompletableFuture<Void>> caricamenti = new ArrayList<>();
+        for (CacheWarmupTargetEnum target : targets) {
+            caricamenti.add(precarica(target));
+        }
+        CompletableFuture<Void> warmup = CompletableFuture.allOf(caricamenti.toArray(new CompletableFuture<?>[0]))
+                .whenComplete((r, e) -> logger.log(Level.INFO, () -> "Warm-up delle cache " + targets
+                        + " completato in " + millisDa(inizio) + " ms"));
+
+        if (blocking) {
+            attendi(warmup);
+        }
+        return warmup;
+    }
+
+    private CompletableFuture<Void> precarica(CacheWarmupTargetEnum target) {
+        long inizio = System.nanoTime();
+        return DAOExecutor.getInstance()
+                .submit(() -> switch (target) {
+                    case FOOD -> FoodLazyFactory.getInstance().getAllFoodBase().size()
+                            + FoodLazyFactory.getInstance().getAllAddOn().size();
+                    case VOUCHER -> VoucherLazyFactory.getInstance().getAllVoucherAttivi().size();
+                    case ORDINI -> OrdineLazyFactory.getInstance().getOrdiniRecenti(ordiniRecenti).size();
+                })
+                .handle((caricati, e) -> {
+                    if (e != null) {
+                        Throwable causa = DAOExecutor.unwrap(e);
+                        logger.log(Level.WARNING, () -> "Warm-up della cache " + target.value + " fallito dopo "
+                                + millisDa(inizio) + " ms: " + causa);
+                    } else {
+                        logger.log(Level.INFO, () -> "Warm-up della cache " + target.value + ": " + caricati
+                                + " elementi in " + millisDa(inizio) + " ms");
+                    }
+                    return null;
+                });
+    }
+
+    private void attendi(CompletableFuture<Void> warmup) {
+        try {
+            warmup.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            logger.log(Level.WARNING, () -> "Warm-up delle cache non concluso entro " + timeoutMillis
+                    + " ms, prosegue in background");
+        } catch (ExecutionException e) {
+            logger.log(Level.WARNING, "Warm-up delle cache fallito", DAOExecutor.unwrap(e));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Set<CacheWarmupTargetEnum> parseTargets(String insieme) {
+        Set<CacheWarmupTargetEnum> result = EnumSet.noneOf(CacheWarmupTargetEnum.class);
+        for (String nome : insieme.split(",")) {
+            if (nome.isBlank()) {
+                continue;
+            }
+            CacheWarmupTargetEnum target = CacheWarmupTargetEnum.getCacheWarmupTargetByValue(nome.trim());
+            if (target != null) {
+                result.add(target);
+            } else {
+                logger.log(Level.WARNING, () -> "Gruppo di warm-up sconosciuto: " + nome.trim());
+            }
+        }
+        return result;
+    }
+
+    private static long millisDa(long inizio) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inizio);
+    }
+}
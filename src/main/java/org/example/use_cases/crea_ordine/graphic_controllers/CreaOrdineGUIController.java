@@ -1,5 +1,6 @@
 package org.example.use_cases.crea_ordine.graphic_controllers;
 
+import javafx.application.Platform;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
@@ -9,6 +10,7 @@ import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
 import org.example.BaseGraphicControl;
 import org.example.PageNavigationController;
+import org.example.dao_manager.DAOExecutor;
 import org.example.exceptions.*;
 import org.example.use_cases.crea_ordine.CreaOrdineFacade;
 import org.example.use_cases.crea_ordine.beans.FoodBean;
@@ -362,31 +364,34 @@ public class CreaOrdineGUIController extends BaseGraphicControl implements Initi
 
     @FXML
     private void onConfermaOrdine() {
-        try {
-            // Verifica che l'ordine non sia vuoto
-            if (righeOrdineObservable.isEmpty()) {
-                mostraWarning("Ordine vuoto", "Aggiungi almeno un prodotto all'ordine prima di confermare.");
-                return;
-            }
-            // Costruisce il riepilogo dell'ordine e mostra la conferma
-            // Se l'utente conferma, chiama il facade per confermare l'ordine
-            // Mostra messaggi di conferma o errore in base al risultato
-            RiepilogoOrdineBean riepilogo = facade.getRiepilogoOrdine();
-
-            boolean success = facade.confermaOrdine();
-            if (success) {
-                mostraInfo("Ordine confermato",
-                        "Il tuo ordine #" + riepilogo.getNumeroOrdine() + " è stato confermato!\n\n" +
-                                "Totale: " + riepilogo.getTotaleFormattato() + "\n" +
-                                "Tempo di preparazione stimato: " + riepilogo.getDurataFormattata());
-                org.example.PageNavigationController.getInstance().returnToMainPage();
-            } else {
-                mostraErrore(ERROR_TITLE, "Si è verificato un errore durante la conferma dell'ordine.");
-            }
-
-        } catch (DAOException | MissingAuthorizationException e) {
-            mostraErrore(ERROR_TITLE, e.getMessage());
+        // Verifica che l'ordine non sia vuoto
+        if (righeOrdineObservable.isEmpty()) {
+            mostraWarning("Ordine vuoto", "Aggiungi almeno un prodotto all'ordine prima di confermare.");
+            return;
         }
+        // Costruisce il riepilogo dell'ordine, conferma l'ordine sull'executor di I/O
+        // e mostra messaggi di conferma o errore sul thread JavaFX
+        RiepilogoOrdineBean riepilogo = facade.getRiepilogoOrdine();
+
+        btnConfermaOrdine.setDisable(true);
+        btnAnnullaOrdine.setDisable(true);
+        DAOExecutor.getInstance()
+                .submit(facade::confermaOrdine)
+                .whenComplete((success, errore) -> Platform.runLater(() -> {
+                    btnConfermaOrdine.setDisable(false);
+                    btnAnnullaOrdine.setDisable(false);
+                    if (errore != null) {
+                        mostraErrore(ERROR_TITLE, DAOExecutor.unwrap(errore).getMessage());
+                    } else if (Boolean.TRUE.equals(success)) {
+                        mostraInfo("Ordine confermato",
+                                "Il tuo ordine #" + riepilogo.getNumeroOrdine() + " è stato confermato!\n\n" +
+                                        "Totale: " + riepilogo.getTotaleFormattato() + "\n" +
+                                        "Tempo di preparazione stimato: " + riepilogo.getDurataFormattata());
+                        org.example.PageNavigationController.getInstance().returnToMainPage();
+                    } else {
+                        mostraErrore(ERROR_TITLE, "Si è verificato un errore durante la conferma dell'ordine.");
+                    }
+                }));
     }
 
     @FXML
@@ -3,10 +3,12 @@ package org.example.use_cases.storico_ordini;
 import org.example.dao_manager.DAOFactoryAbstract;
 import org.example.exceptions.*;
 import org.example.model.ordine.Ordine;
+import org.example.model.ordine.OrdineSummary;
 import org.example.model.ordine.DAO.OrdineDAOInterface;
 import org.example.model.user.User;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public class StoricoOrdiniController {
 
@@ -37,4 +39,20 @@ public class StoricoOrdiniController {
 
         return result;
     }
+
+    public List<OrdineSummary> getPaginaByCliente(User cliente, Long dopoNumero, int limite)
+            throws DAOException, PropertyException, ResourceNotFoundException, UserNotFoundException,
+            UnrecognizedRoleException, ObjectNotFoundException, MissingAuthorizationException,
+            WrongListQueryIdentifierValue {
+        OrdineDAOInterface dao = DAOFactoryAbstract.getInstance().getOrdineDAO();
+        return dao.getSummaryPageByCliente(cliente.getId(), dopoNumero, limite);
+    }
+
+    public void forEachSummaryByCliente(User cliente, Consumer<? super OrdineSummary> consumer)
+            throws DAOException, PropertyException, ResourceNotFoundException, UserNotFoundException,
+            UnrecognizedRoleException, ObjectNotFoundException, MissingAuthorizationException,
+            WrongListQueryIdentifierValue {
+        OrdineDAOInterface dao = DAOFactoryAbstract.getInstance().getOrdineDAO();
+        dao.forEachSummaryByCliente(cliente.getId(), consumer);
+    }
 }
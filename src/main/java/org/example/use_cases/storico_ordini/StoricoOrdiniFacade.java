@@ -2,7 +2,7 @@ package org.example.use_cases.storico_ordini;
 
 import org.example.exceptions.*;
 import org.example.use_cases.crea_ordine.beans.OrdineBean;
-import org.example.model.ordine.Ordine;
+import org.example.model.ordine.OrdineSummary;
 import org.example.model.user.User;
 import org.example.session_manager.SessionManager;
 
@@ -21,14 +21,40 @@ public class StoricoOrdiniFacade {
             throw new MissingAuthorizationException("Nessun utente loggato");
         }
 
-        List<Ordine> ordini = controller.getOrdiniByCliente(user);
         List<OrdineBean> beans = new ArrayList<>();
-
-        for (Ordine o : ordini) {
+        // Ogni riepilogo viene convertito in bean appena letto, senza caricare le entity Ordine
+        controller.forEachSummaryByCliente(user, o -> {
             OrdineBean bean = org.example.mappers.OrdineMapper.toBean(o);
             if (bean != null) {
                 beans.add(bean);
             }
+        });
+        return beans;
+    }
+
+    /**
+     * Recupera una pagina dello storico ordini dell'utente loggato, dal più
+     * recente.
+     *
+     * @param dopoNumero il numero dell'ultimo ordine della pagina precedente,
+     *                   null per la prima pagina
+     * @param limite     la dimensione massima della pagina
+     * @return i bean della pagina
+     */
+    public List<OrdineBean> getStoricoOrdini(Long dopoNumero, int limite) throws DAOException, PropertyException,
+            ResourceNotFoundException, UserNotFoundException, UnrecognizedRoleException,
+            ObjectNotFoundException, MissingAuthorizationException, WrongListQueryIdentifierValue {
+        User user = SessionManager.getInstance().getSessionUser();
+        if (user == null) {
+            throw new MissingAuthorizationException("Nessun utente loggato");
+        }
+
+        List<OrdineBean> beans = new ArrayList<>();
+        for (OrdineSummary summary : controller.getPaginaByCliente(user, dopoNumero, limite)) {
+            OrdineBean bean = org.example.mappers.OrdineMapper.toBean(summary);
+            if (bean != null) {
+                beans.add(bean);
+            }
         }
         return beans;
     }
@@ -14,6 +14,7 @@ import java.util.List;
 public class StoricoOrdiniCLIController extends BaseCLIGraphicController {
 
     private final StoricoOrdiniFacade facade;
+    private static final int DIMENSIONE_PAGINA = 20;
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
 
     public StoricoOrdiniCLIController(String tokenKey) {
@@ -26,15 +27,35 @@ public class StoricoOrdiniCLIController extends BaseCLIGraphicController {
         printHeader("STORICO ORDINI");
 
         try {
-            List<OrdineBean> ordini = facade.getStoricoOrdini();
+            List<OrdineBean> pagina = facade.getStoricoOrdini(null, DIMENSIONE_PAGINA);
 
-            if (ordini == null || ordini.isEmpty()) {
+            if (pagina.isEmpty()) {
                 showInfo("Non hai ancora effettuato nessun ordine.");
                 System.out.println("\n  Vai alla sezione 'Nuovo Ordine' per creare il tuo primo ordine!");
-            } else {
-                displayOrderTable(ordini);
+                waitForEnter();
+                return;
             }
 
+            int ordiniMostrati = 0;
+            double spesaMostrata = 0;
+            boolean altrePagine = true;
+            while (altrePagine) {
+                displayOrderTable(pagina);
+                ordiniMostrati += pagina.size();
+                spesaMostrata += pagina.stream().mapToDouble(OrdineBean::getTotale).sum();
+
+                altrePagine = pagina.size() == DIMENSIONE_PAGINA && chiediPaginaSuccessiva();
+                if (altrePagine) {
+                    Long ultimo = pagina.get(pagina.size() - 1).getNumeroOrdine();
+                    pagina = facade.getStoricoOrdini(ultimo, DIMENSIONE_PAGINA);
+                    altrePagine = !pagina.isEmpty();
+                }
+            }
+
+            System.out.println("\n  📊 Statistiche:");
+            System.out.println("     Ordini visualizzati: " + ordiniMostrati);
+            System.out.println("     Spesa complessiva: " + formatPrice(spesaMostrata));
+
         } catch (Exception e) {
             showError("Impossibile recuperare lo storico ordini: " + e.getMessage());
         }
@@ -42,8 +63,13 @@ public class StoricoOrdiniCLIController extends BaseCLIGraphicController {
         waitForEnter();
     }
 
+    private boolean chiediPaginaSuccessiva() {
+        System.out.print("\n  Mostrare gli ordini precedenti? (s/n): ");
+        String risposta = scanner.nextLine().trim().toLowerCase();
+        return risposta.equals("s") || risposta.equals("si") || risposta.equals("sì");
+    }
+
     private void displayOrderTable(List<OrdineBean> ordini) {
-        System.out.println("  Trovati " + ordini.size() + " ordini:\n");
 
         // Table header
         System.out.println("  ┌──────────┬─────────────────────┬────────────────┬──────────┐");
@@ -63,15 +89,6 @@ public class StoricoOrdiniCLIController extends BaseCLIGraphicController {
 
         // Table footer
         System.out.println("  └──────────┴─────────────────────┴────────────────┴──────────┘");
-
-        // Summary
-        double totaleComplessivo = ordini.stream()
-                .mapToDouble(OrdineBean::getTotale)
-                .sum();
-
-        System.out.println("\n  📊 Statistiche:");
-        System.out.println("     Ordini totali: " + ordini.size());
-        System.out.println("     Spesa complessiva: " + formatPrice(totaleComplessivo));
     }
 
     /**
@@ -1,5 +1,6 @@
 package org.example.use_cases.storico_ordini.graphic_controllers;
 
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
@@ -7,18 +8,16 @@ import javafx.fxml.Initializable;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
 import javafx.scene.control.cell.PropertyValueFactory;
+import org.example.dao_manager.DAOExecutor;
 import org.example.use_cases.crea_ordine.beans.OrdineBean;
 import org.example.use_cases.storico_ordini.StoricoOrdiniFacade;
 
 import java.net.URL;
 import java.time.LocalDateTime;
-import java.util.List;
 import java.util.ResourceBundle;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
-import org.example.exceptions.HabibiException;
-
 import java.time.format.DateTimeFormatter;
 
 public class StoricoOrdiniGUIController implements Initializable {
@@ -43,6 +42,11 @@ public class StoricoOrdiniGUIController implements Initializable {
     @FXML
     private TableColumn<OrdineBean, Double> colTotale;
 
+    @FXML
+    private javafx.scene.control.Button btnCaricaAltri;
+
+    private static final int DIMENSIONE_PAGINA = 50;
+
     private final StoricoOrdiniFacade facade = new StoricoOrdiniFacade();
     private ObservableList<OrdineBean> ordiniList = FXCollections.observableArrayList();
 
@@ -75,18 +79,36 @@ public class StoricoOrdiniGUIController implements Initializable {
     }
 
     private void loadData() {
-        try {
-            List<OrdineBean> ordini = facade.getStoricoOrdini();
-            ordiniList.setAll(ordini);
-        } catch (HabibiException e) {
-            logger.log(Level.SEVERE, "Errore nel caricamento storico ordini", e);
-            mostraErrore("Errore Caricamento", "Impossibile caricare lo storico ordini: " + e.getMessage());
-        } catch (Exception e) {
-            logger.log(Level.SEVERE, "Errore imprevisto nel caricamento storico ordini", e);
-            mostraErrore("Errore Caricamento", "Impossibile caricare lo storico ordini: " + e.getMessage());
+        ordiniList.clear();
+        loadPage(null);
+    }
+
+    @FXML
+    private void handleCaricaAltri() {
+        if (!ordiniList.isEmpty()) {
+            loadPage(ordiniList.get(ordiniList.size() - 1).getNumeroOrdine());
         }
     }
 
+    // La query gira sull'executor di I/O, la tabella si aggiorna sul thread JavaFX
+    private void loadPage(Long dopoNumero) {
+        btnCaricaAltri.setDisable(true);
+        DAOExecutor.getInstance()
+                .submit(() -> facade.getStoricoOrdini(dopoNumero, DIMENSIONE_PAGINA))
+                .whenComplete((pagina, errore) -> Platform.runLater(() -> {
+                    if (errore != null) {
+                        Throwable causa = DAOExecutor.unwrap(errore);
+                        logger.log(Level.SEVERE, "Errore nel caricamento storico ordini", causa);
+                        mostraErrore("Errore Caricamento",
+                                "Impossibile caricare lo storico ordini: " + causa.getMessage());
+                        btnCaricaAltri.setDisable(false);
+                        return;
+                    }
+                    ordiniList.addAll(pagina);
+                    btnCaricaAltri.setDisable(pagina.size() < DIMENSIONE_PAGINA);
+                }));
+    }
+
     private void mostraErrore(String titolo, String messaggio) {
         javafx.scene.control.Alert alert = new javafx.scene.control.Alert(javafx.scene.control.Alert.AlertType.ERROR);
         alert.setTitle(titolo);
@@ -1,12 +1,16 @@
 package org.example.use_cases.visualizza_ordini;
 
 import org.example.dao_manager.DAOFactoryAbstract;
+import org.example.enums.ExceptionMessagesEnum;
 import org.example.enums.StatoOrdine;
 import org.example.exceptions.*;
 import org.example.model.ordine.Ordine;
+import org.example.model.ordine.OrdineLazyFactory;
+import org.example.model.ordine.OrdineSummary;
 import org.example.model.ordine.DAO.OrdineDAOInterface;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public class VisualizzaOrdiniController {
 
@@ -17,12 +21,35 @@ public class VisualizzaOrdiniController {
         return dao.getOrdiniByStato(stato);
     }
 
+    public void forEachSummaryByStato(StatoOrdine stato, Consumer<? super OrdineSummary> consumer)
+            throws DAOException, PropertyException, ResourceNotFoundException, UserNotFoundException,
+            UnrecognizedRoleException, ObjectNotFoundException, MissingAuthorizationException,
+            WrongListQueryIdentifierValue {
+        OrdineDAOInterface dao = DAOFactoryAbstract.getInstance().getOrdineDAO();
+        dao.forEachSummaryByStato(stato, consumer);
+    }
+
+    public List<OrdineSummary> getPaginaByStato(StatoOrdine stato, Long dopoNumero, int limite)
+            throws DAOException, PropertyException, ResourceNotFoundException, UserNotFoundException,
+            UnrecognizedRoleException, ObjectNotFoundException, MissingAuthorizationException,
+            WrongListQueryIdentifierValue {
+        OrdineDAOInterface dao = DAOFactoryAbstract.getInstance().getOrdineDAO();
+        return dao.getSummaryPageByStato(stato, dopoNumero, limite);
+    }
+
     public void aggiornaStatoOrdine(Long numeroOrdine, StatoOrdine nuovoStato) throws DAOException, PropertyException,
             ResourceNotFoundException, UserNotFoundException, UnrecognizedRoleException,
             ObjectNotFoundException, MissingAuthorizationException, WrongListQueryIdentifierValue {
-        OrdineDAOInterface dao = DAOFactoryAbstract.getInstance().getOrdineDAO();
-        Ordine ordine = dao.getOrdineByNumero(numeroOrdine);
-        ordine.setStato(nuovoStato);
-        dao.update(ordine);
+        aggiornaStatoOrdini(List.of(numeroOrdine), nuovoStato);
+    }
+
+    public void aggiornaStatoOrdini(List<Long> numeriOrdine, StatoOrdine nuovoStato) throws DAOException,
+            PropertyException, ResourceNotFoundException, ObjectNotFoundException {
+        if (numeriOrdine.isEmpty())
+            return;
+        List<Long> mancanti = OrdineLazyFactory.getInstance().aggiornaStato(numeriOrdine, nuovoStato);
+        // Gli ordini trovati restano aggiornati: si segnalano solo quelli mancanti
+        if (!mancanti.isEmpty())
+            throw new ObjectNotFoundException(ExceptionMessagesEnum.ORDERS_PARTIALLY_UPDATED.message + mancanti);
     }
 }
@@ -3,7 +3,7 @@ package org.example.use_cases.visualizza_ordini;
 import org.example.exceptions.*;
 import org.example.use_cases.crea_ordine.beans.OrdineBean;
 import org.example.enums.StatoOrdine;
-import org.example.model.ordine.Ordine;
+import org.example.model.ordine.OrdineSummary;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -15,14 +15,34 @@ public class VisualizzaOrdiniFacade {
     public List<OrdineBean> getOrdiniInCreazione() throws DAOException, PropertyException,
             ResourceNotFoundException, UserNotFoundException, UnrecognizedRoleException,
             ObjectNotFoundException, MissingAuthorizationException, WrongListQueryIdentifierValue {
-        List<Ordine> ordini = controller.getOrdiniByStato(StatoOrdine.IN_CREAZIONE);
         List<OrdineBean> beans = new ArrayList<>();
-
-        for (Ordine o : ordini) {
+        // Ogni riepilogo viene convertito in bean appena letto, senza caricare le entity Ordine
+        controller.forEachSummaryByStato(StatoOrdine.IN_CREAZIONE, o -> {
             OrdineBean bean = org.example.mappers.OrdineMapper.toBean(o);
             if (bean != null) {
                 beans.add(bean);
             }
+        });
+        return beans;
+    }
+
+    /**
+     * Recupera una pagina degli ordini in creazione, dal più vecchio.
+     *
+     * @param dopoNumero il numero dell'ultimo ordine della pagina precedente,
+     *                   null per la prima pagina
+     * @param limite     la dimensione massima della pagina
+     * @return i bean della pagina
+     */
+    public List<OrdineBean> getOrdiniInCreazione(Long dopoNumero, int limite) throws DAOException,
+            PropertyException, ResourceNotFoundException, UserNotFoundException, UnrecognizedRoleException,
+            ObjectNotFoundException, MissingAuthorizationException, WrongListQueryIdentifierValue {
+        List<OrdineBean> beans = new ArrayList<>();
+        for (OrdineSummary summary : controller.getPaginaByStato(StatoOrdine.IN_CREAZIONE, dopoNumero, limite)) {
+            OrdineBean bean = org.example.mappers.OrdineMapper.toBean(summary);
+            if (bean != null) {
+                beans.add(bean);
+            }
         }
         return beans;
     }
@@ -32,4 +52,13 @@ public class VisualizzaOrdiniFacade {
             ObjectNotFoundException, MissingAuthorizationException, WrongListQueryIdentifierValue {
         controller.aggiornaStatoOrdine(ordineBean.getNumeroOrdine(), StatoOrdine.IN_CONSEGNA);
     }
+
+    public void impostaInConsegna(List<OrdineBean> ordiniBean) throws DAOException, PropertyException,
+            ResourceNotFoundException, ObjectNotFoundException {
+        List<Long> numeri = new ArrayList<>();
+        for (OrdineBean bean : ordiniBean) {
+            numeri.add(bean.getNumeroOrdine());
+        }
+        controller.aggiornaStatoOrdini(numeri, StatoOrdine.IN_CONSEGNA);
+    }
 }
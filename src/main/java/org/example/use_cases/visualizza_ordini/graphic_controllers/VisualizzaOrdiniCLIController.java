@@ -5,7 +5,10 @@ import org.example.use_cases.crea_ordine.beans.OrdineBean;
 import org.example.use_cases.visualizza_ordini.VisualizzaOrdiniFacade;
 
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * CLI Controller for "Visualizza Ordini" use case (Amministratore/Kebabbaro).
@@ -14,6 +17,9 @@ import java.util.List;
 public class VisualizzaOrdiniCLIController extends BaseCLIGraphicController {
 
     private final VisualizzaOrdiniFacade facade;
+    private static final int DIMENSIONE_PAGINA = 20;
+    // Numero dell'ultimo ordine della pagina precedente, null sulla prima pagina
+    private Long dopoNumero = null;
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
 
     public VisualizzaOrdiniCLIController(String tokenKey) {
@@ -29,9 +35,12 @@ public class VisualizzaOrdiniCLIController extends BaseCLIGraphicController {
             printHeader("GESTIONE ORDINI");
 
             try {
-                List<OrdineBean> ordini = facade.getOrdiniInCreazione();
+                List<OrdineBean> ordini = facade.getOrdiniInCreazione(dopoNumero, DIMENSIONE_PAGINA);
 
-                if (ordini == null || ordini.isEmpty()) {
+                if (ordini.isEmpty() && dopoNumero != null) {
+                    // Gli ordini della pagina sono stati evasi: riparti dalla prima
+                    dopoNumero = null;
+                } else if (ordini.isEmpty()) {
                     showInfo("Non ci sono ordini in attesa al momento.");
                     System.out.println("\n  Tutti gli ordini sono stati processati! 🎉");
                     waitForEnter();
@@ -75,8 +84,11 @@ public class VisualizzaOrdiniCLIController extends BaseCLIGraphicController {
         // Menu
         System.out.println("\n  Azioni disponibili:");
         System.out.println(THIN_SEPARATOR);
-        printMenuOption(1, "🚚", "Imposta ordine 'In Consegna'");
+        printMenuOption(1, "🚚", "Imposta ordini 'In Consegna'");
         printMenuOption(2, "🔄", "Aggiorna lista ordini");
+        if (ordini.size() == DIMENSIONE_PAGINA) {
+            printMenuOption(3, "➡️", "Pagina successiva");
+        }
         System.out.println(THIN_SEPARATOR);
         printMenuOption(0, "⬅️", "Torna alla homepage");
     }
@@ -90,9 +102,18 @@ public class VisualizzaOrdiniCLIController extends BaseCLIGraphicController {
                 return true;
             }
             case 2 -> {
+                dopoNumero = null;
                 showInfo("Lista aggiornata.");
                 return true;
             }
+            case 3 -> {
+                if (ordini.size() == DIMENSIONE_PAGINA) {
+                    dopoNumero = ordini.get(ordini.size() - 1).getNumeroOrdine();
+                } else {
+                    showError("Non ci sono altre pagine.");
+                }
+                return true;
+            }
             case 0 -> {
                 return false;
             }
@@ -104,26 +125,29 @@ public class VisualizzaOrdiniCLIController extends BaseCLIGraphicController {
     }
 
     private void handleSetInConsegna(List<OrdineBean> ordini) {
-        System.out.print("\n  Inserisci il numero dell'ordine da impostare 'In Consegna' (1-" + ordini.size() + "): ");
+        System.out.print("\n  Inserisci i numeri degli ordini da impostare 'In Consegna' (1-" + ordini.size()
+                + ", separati da virgola, * per tutti): ");
 
         try {
-            int index = Integer.parseInt(scanner.nextLine().trim());
+            List<OrdineBean> selectedOrders = parseSelezione(scanner.nextLine().trim(), ordini);
 
-            if (index < 1 || index > ordini.size()) {
+            if (selectedOrders.isEmpty()) {
                 showError("Numero ordine non valido.");
                 waitForEnter();
                 return;
             }
 
-            OrdineBean selectedOrder = ordini.get(index - 1);
-
-            System.out.println("\n  Ordine selezionato: #" + selectedOrder.getNumeroOrdine());
+            StringBuilder numeri = new StringBuilder();
+            for (OrdineBean o : selectedOrders) {
+                numeri.append(" #").append(o.getNumeroOrdine());
+            }
+            System.out.println("\n  Ordini selezionati:" + numeri);
             System.out.print("  Confermi di impostare come 'In Consegna'? (s/n): ");
 
             String confirm = scanner.nextLine().trim().toLowerCase();
 
             if (confirm.equals("s") || confirm.equals("si") || confirm.equals("sì")) {
-                executeImpostaInConsegna(selectedOrder);
+                executeImpostaInConsegna(selectedOrders);
             } else {
                 showInfo("Operazione annullata.");
             }
@@ -135,10 +159,31 @@ public class VisualizzaOrdiniCLIController extends BaseCLIGraphicController {
         waitForEnter();
     }
 
-    private void executeImpostaInConsegna(OrdineBean ordine) {
+    private List<OrdineBean> parseSelezione(String input, List<OrdineBean> ordini) {
+        if (input.equals("*")) {
+            return new ArrayList<>(ordini);
+        }
+        Set<Integer> indici = new LinkedHashSet<>();
+        for (String token : input.split(",")) {
+            int index = Integer.parseInt(token.trim());
+            if (index < 1 || index > ordini.size()) {
+                return List.of();
+            }
+            indici.add(index);
+        }
+        List<OrdineBean> selezionati = new ArrayList<>();
+        for (int index : indici) {
+            selezionati.add(ordini.get(index - 1));
+        }
+        return selezionati;
+    }
+
+    private void executeImpostaInConsegna(List<OrdineBean> ordini) {
         try {
-            facade.impostaInConsegna(ordine);
-            showSuccess("Ordine #" + ordine.getNumeroOrdine() + " impostato 'In Consegna'!");
+            facade.impostaInConsegna(ordini);
+            showSuccess(ordini.size() == 1
+                    ? "Ordine #" + ordini.get(0).getNumeroOrdine() + " impostato 'In Consegna'!"
+                    : ordini.size() + " ordini impostati 'In Consegna'!");
         } catch (Exception e) {
             showError("Impossibile aggiornare lo stato: " + e.getMessage());
         }
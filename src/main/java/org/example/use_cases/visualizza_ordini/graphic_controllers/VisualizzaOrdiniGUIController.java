@@ -1,5 +1,6 @@
 package org.example.use_cases.visualizza_ordini.graphic_controllers;
 
+import javafx.application.Platform;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
@@ -7,6 +8,8 @@ import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.util.Callback;
+import org.example.dao_manager.DAOExecutor;
+import org.example.exceptions.ObjectNotFoundException;
 import org.example.use_cases.crea_ordine.beans.OrdineBean;
 import org.example.use_cases.visualizza_ordini.VisualizzaOrdiniFacade;
 
@@ -15,8 +18,6 @@ import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
-import org.example.exceptions.HabibiException;
-
 public class VisualizzaOrdiniGUIController {
 
     private static final Logger logger = Logger.getLogger(VisualizzaOrdiniGUIController.class.getName());
@@ -39,12 +40,21 @@ public class VisualizzaOrdiniGUIController {
     @FXML
     private TableColumn<OrdineBean, Void> colonnaAzioni;
 
+    @FXML
+    private Button bottoneCaricaAltri;
+
+    private static final int DIMENSIONE_PAGINA = 50;
+
     private final VisualizzaOrdiniFacade facade = new VisualizzaOrdiniFacade();
     private final ObservableList<OrdineBean> listaOrdini = FXCollections.observableArrayList();
+    // Incrementata a ogni ricaricamento della lista, solo dal thread JavaFX: le pagine
+    // di un caricamento precedente ancora in corso vengono scartate
+    private long generazione;
 
     @FXML
     public void initialize() {
         configuraTabella();
+        tabellaOrdini.getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
         caricaOrdini();
     }
 
@@ -96,31 +106,85 @@ public class VisualizzaOrdiniGUIController {
     }
 
     private void caricaOrdini() {
-        try {
-            List<OrdineBean> ordini = facade.getOrdiniInCreazione();
-            listaOrdini.setAll(ordini);
-            tabellaOrdini.setItems(listaOrdini);
-        } catch (HabibiException e) {
-            logger.log(Level.SEVERE, "Errore nel caricamento ordini", e);
-            mostraErrore("Errore Caricamento", "Impossibile caricare gli ordini: " + e.getMessage());
-        } catch (Exception e) {
-            logger.log(Level.SEVERE, "Errore imprevisto nel caricamento ordini", e);
-            mostraErrore("Errore Caricamento", "Impossibile caricare gli ordini: " + e.getMessage());
+        generazione++;
+        listaOrdini.clear();
+        tabellaOrdini.setItems(listaOrdini);
+        caricaPagina(null);
+    }
+
+    @FXML
+    private void handleCaricaAltri() {
+        if (!listaOrdini.isEmpty()) {
+            caricaPagina(listaOrdini.get(listaOrdini.size() - 1).getNumeroOrdine());
         }
     }
 
+    // La query gira sull'executor di I/O, la tabella si aggiorna sul thread JavaFX
+    private void caricaPagina(Long dopoNumero) {
+        long richiesta = generazione;
+        bottoneCaricaAltri.setDisable(true);
+        DAOExecutor.getInstance()
+                .submit(() -> facade.getOrdiniInCreazione(dopoNumero, DIMENSIONE_PAGINA))
+                .whenComplete((pagina, errore) -> Platform.runLater(() -> {
+                    if (richiesta != generazione) {
+                        return; // La lista è stata ricaricata nel frattempo
+                    }
+                    if (errore != null) {
+                        Throwable causa = DAOExecutor.unwrap(errore);
+                        logger.log(Level.SEVERE, "Errore nel caricamento ordini", causa);
+                        mostraErrore("Errore Caricamento", "Impossibile caricare gli ordini: " + causa.getMessage());
+                        bottoneCaricaAltri.setDisable(false);
+                        return;
+                    }
+                    listaOrdini.addAll(pagina);
+                    bottoneCaricaAltri.setDisable(pagina.size() < DIMENSIONE_PAGINA);
+                }));
+    }
+
     private void handleConsegna(OrdineBean ordine) {
-        try {
-            facade.impostaInConsegna(ordine);
-            mostraInfo("Successo", "Ordine #" + ordine.getNumeroOrdine() + " passato in consegna!");
-            caricaOrdini(); // Ricarica la lista
-        } catch (HabibiException e) {
-            logger.log(Level.SEVERE, "Errore nell'aggiornamento ordine", e);
-            mostraErrore("Errore Aggiornamento", "Impossibile aggiornare l'ordine: " + e.getMessage());
-        } catch (Exception e) {
-            logger.log(Level.SEVERE, "Errore imprevisto nell'aggiornamento ordine", e);
-            mostraErrore("Errore Aggiornamento", "Impossibile aggiornare l'ordine: " + e.getMessage());
+        DAOExecutor.getInstance()
+                .submit(() -> {
+                    facade.impostaInConsegna(ordine);
+                    return null;
+                })
+                .whenComplete((esito, errore) -> Platform.runLater(() -> {
+                    if (errore != null) {
+                        Throwable causa = DAOExecutor.unwrap(errore);
+                        logger.log(Level.SEVERE, "Errore nell'aggiornamento ordine", causa);
+                        mostraErrore("Errore Aggiornamento", "Impossibile aggiornare l'ordine: " + causa.getMessage());
+                        return;
+                    }
+                    mostraInfo("Successo", "Ordine #" + ordine.getNumeroOrdine() + " passato in consegna!");
+                    caricaOrdini(); // Ricarica la lista
+                }));
+    }
+
+    @FXML
+    private void handleConsegnaSelezionati() {
+        List<OrdineBean> selezionati = List.copyOf(tabellaOrdini.getSelectionModel().getSelectedItems());
+        if (selezionati.isEmpty()) {
+            mostraInfo("Nessuna selezione", "Seleziona uno o più ordini dalla tabella.");
+            return;
         }
+        DAOExecutor.getInstance()
+                .submit(() -> {
+                    facade.impostaInConsegna(selezionati);
+                    return null;
+                })
+                .whenComplete((esito, errore) -> Platform.runLater(() -> {
+                    if (errore != null) {
+                        Throwable causa = DAOExecutor.unwrap(errore);
+                        logger.log(Level.SEVERE, "Errore nell'aggiornamento ordini", causa);
+                        mostraErrore("Errore Aggiornamento", "Impossibile aggiornare gli ordini: " + causa.getMessage());
+                        if (causa instanceof ObjectNotFoundException) {
+                            // Gli ordini trovati sono passati in consegna comunque
+                            caricaOrdini();
+                        }
+                        return;
+                    }
+                    mostraInfo("Successo", selezionati.size() + " ordini passati in consegna!");
+                    caricaOrdini();
+                }));
     }
 
     private void mostraErrore(String titolo, String messaggio) {
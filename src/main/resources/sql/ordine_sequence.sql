@@ -0,0 +1,11 @@
+-- Contatore dei numeri ordine, usato da OrdineDAODB.riservaNumeriOrdine.
+-- Va eseguito una volta sul database, dopo la creazione della tabella ORDINE:
+-- la riga id = 1 riparte dal numero successivo al massimo già presente.
+
+CREATE TABLE IF NOT EXISTS ORDINE_SEQUENCE (
+    id TINYINT PRIMARY KEY,
+    next_val BIGINT NOT NULL
+);
+
+INSERT IGNORE INTO ORDINE_SEQUENCE (id, next_val)
+SELECT 1, COALESCE(MAX(numero_ordine), 0) + 1 FROM ORDINE;
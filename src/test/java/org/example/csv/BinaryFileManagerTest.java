@@ -0,0 +1,70 @@
+package org.example.csv;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for BinaryFileManager.
+ * Tests the binary records, the sidecar key index and the CSV conversion.
+ */
+@DisplayName("BinaryFileManager Unit Test")
+class BinaryFileManagerTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Indexed lookups should resolve versions and tombstones without loading the table")
+    void testFindRows_UsesSidecarIndex() throws Exception {
+        // ARRANGE
+        BinaryFileManager manager = new BinaryFileManager(tempDir.toString() + "/");
+        manager.registerLogTable("ordini", 0, true);
+        manager.createFileWithHeader("ordini", new String[] { "numero_ordine", "note" });
+        manager.appendLines("ordini", List.of(new String[] { "1", "senza cipolla, \"piccante\"" },
+                new String[] { "2", "" }, new String[] { "3", "à emporter" }));
+        manager.upsertRows("ordini", List.<String[]>of(new String[] { "1", "doppia salsa" }));
+        manager.deleteRows("ordini", "2");
+
+        // ACT
+        String[] primo = manager.findRow("ordini", 0, "1");
+        String[] secondo = manager.findRow("ordini", 0, "2");
+        BinaryFileManager restarted = new BinaryFileManager(tempDir.toString() + "/");
+        restarted.registerLogTable("ordini", 0, true);
+
+        // ASSERT
+        assertArrayEquals(new String[] { "1", "doppia salsa" }, primo);
+        assertNull(secondo);
+        assertTrue(Files.exists(tempDir.resolve("ordini.bin.idx")));
+        assertEquals("à emporter", restarted.findRow("ordini", 0, "3")[1]);
+        assertEquals(2, restarted.readAllWithoutHeader("ordini").size());
+    }
+
+    @Test
+    @DisplayName("Importing from CSV and exporting back should give the same rows")
+    void testConverter_RoundTrip() throws Exception {
+        // ARRANGE
+        CSVFileManager csv = new CSVFileManager(tempDir.resolve("csv").toString() + "/");
+        BinaryFileManager bin = new BinaryFileManager(tempDir.resolve("bin").toString() + "/");
+        CSVFileManager exported = new CSVFileManager(tempDir.resolve("export").toString() + "/");
+        csv.createFileWithHeader("users", new String[] { "id", "email" });
+        csv.appendLines("users", List.of(new String[] { "1", "mario@example.com" },
+                new String[] { "2", "luigi@example.com" }));
+
+        // ACT
+        List<String> imported = CsvBinaryConverter.importFromCsv(csv, bin);
+        CsvBinaryConverter.exportToCsv(bin, exported);
+
+        // ASSERT
+        assertEquals(List.of("users"), imported);
+        assertEquals("2", bin.findRow("users", 1, "LUIGI@example.com")[0]);
+        List<String[]> rows = exported.readAll("users");
+        assertEquals(3, rows.size());
+        assertArrayEquals(new String[] { "1", "mario@example.com" }, rows.get(1));
+    }
+}
@@ -0,0 +1,327 @@
+package org.example.csv;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for CSVFileManager.
+ * Tests the cached, indexed reads and their invalidation, mapped scans, log
+ * tables, the journal, the write-behind buffer, the sidecar index and the
+ * columnar tables.
+ */
+@DisplayName("CSVFileManager Unit Test")
+class CSVFileManagerTest {
+
+    @TempDir
+    Path tempDir;
+
+    private CSVFileManager manager;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        manager = new CSVFileManager(tempDir.toString() + "/");
+        manager.createFileWithHeader("users", new String[] { "id", "email" });
+        manager.appendLine("users", new String[] { "1", "mario@example.com" });
+        manager.appendLine("users", new String[] { "2", "luigi@example.com" });
+        manager.flush();
+    }
+
+    @Test
+    @DisplayName("Indexed lookups should match the key column ignoring case")
+    void testFindRows_UsesColumnIndex() throws Exception {
+        // ACT
+        String[] row = manager.findRow("users", 1, "LUIGI@example.com");
+
+        // ASSERT
+        assertNotNull(row);
+        assertEquals("2", row[0]);
+        assertTrue(manager.findRows("users", 1, "peach@example.com").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Writes through the manager should be visible to the next read")
+    void testFindRows_SeesOwnWrites() throws Exception {
+        // ARRANGE
+        manager.findRow("users", 1, "mario@example.com");
+
+        // ACT
+        manager.appendLine("users", new String[] { "3", "peach@example.com" });
+        List<String[]> rows = manager.readAll("users");
+        rows.set(1, new String[] { "1", "toad@example.com" });
+        manager.writeAll("users", rows);
+
+        // ASSERT
+        assertEquals("3", manager.findRow("users", 1, "peach@example.com")[0]);
+        assertNull(manager.findRow("users", 1, "mario@example.com"));
+        assertEquals("1", manager.findRow("users", 1, "toad@example.com")[0]);
+    }
+
+    @Test
+    @DisplayName("A file changed outside the manager should be parsed again")
+    void testFindRows_DetectsExternalChanges() throws Exception {
+        // ARRANGE
+        manager.findRow("users", 1, "mario@example.com");
+
+        // ACT
+        Files.writeString(tempDir.resolve("users.csv"), "\"id\",\"email\"\n\"7\",\"bowser@example.com\"\n");
+
+        // ASSERT
+        assertEquals("7", manager.findRow("users", 1, "bowser@example.com")[0]);
+        assertNull(manager.findRow("users", 1, "mario@example.com"));
+    }
+
+    @Test
+    @DisplayName("Rows returned by readAll should be copies of the cached table")
+    void testReadAll_ReturnsCopies() throws Exception {
+        // ACT
+        manager.readAllWithoutHeader("users").get(0)[1] = "changed@example.com";
+
+        // ASSERT
+        assertNotNull(manager.findRow("users", 1, "mario@example.com"));
+    }
+
+    @Test
+    @DisplayName("Log tables should resolve appended versions and tombstones to the live rows")
+    void testLogTable_ResolvesVersionsAndTombstones() throws Exception {
+        // ARRANGE
+        CSVFileManager logManager = new CSVFileManager(tempDir.toString() + "/", Long.MAX_VALUE, 0);
+        logManager.registerLogTable("ordini", 0, true);
+        logManager.createFileWithHeader("ordini", new String[] { "numero_ordine", "stato" });
+        logManager.appendLine("ordini", new String[] { "1", "IN_CREAZIONE" });
+        logManager.appendLine("ordini", new String[] { "2", "IN_CREAZIONE" });
+
+        // ACT
+        logManager.upsertRows("ordini", List.<String[]>of(new String[] { "1", "IN_CONSEGNA" }));
+        logManager.deleteRows("ordini", "2");
+
+        // ASSERT
+        List<String[]> rows = logManager.readAllWithoutHeader("ordini");
+        assertEquals(1, rows.size());
+        assertArrayEquals(new String[] { "1", "IN_CONSEGNA" }, rows.get(0));
+        assertEquals(5, Files.readAllLines(tempDir.resolve("ordini.csv")).size());
+    }
+
+    @Test
+    @DisplayName("Compaction should rewrite a log table with its live rows only")
+    void testCompact_DropsGarbage() throws Exception {
+        // ARRANGE
+        CSVFileManager logManager = new CSVFileManager(tempDir.toString() + "/", Long.MAX_VALUE, 0);
+        logManager.registerLogTable("ordine_prodotti", 0, false);
+        logManager.createFileWithHeader("ordine_prodotti", new String[] { "ordine_id", "food_id" });
+        logManager.appendLines("ordine_prodotti", List.of(new String[] { "1", "10" }, new String[] { "1", "11" },
+                new String[] { "2", "10" }));
+        logManager.deleteRows("ordine_prodotti", "1");
+        logManager.appendLine("ordine_prodotti", new String[] { "1", "12" });
+
+        // ACT
+        logManager.compact("ordine_prodotti");
+
+        // ASSERT
+        assertEquals(3, Files.readAllLines(tempDir.resolve("ordine_prodotti.csv")).size());
+        assertEquals(2, logManager.readAllWithoutHeader("ordine_prodotti").size());
+        assertEquals("12", logManager.findRow("ordine_prodotti", 0, "1")[1]);
+    }
+
+    @Test
+    @DisplayName("Appends journaled but not applied before a crash should be recovered on startup")
+    void testJournal_RecoversUnappliedAppends() throws Exception {
+        // ARRANGE
+        Path users = tempDir.resolve("users.csv");
+        long offset = Files.size(users);
+        byte[] row = "\"3\",\"peach@example.com\"\n".getBytes();
+        CsvJournal journal = new CsvJournal(tempDir.resolve("csv_journal.log"), Long.MAX_VALUE);
+        journal.awaitDurable(journal.write(users, offset, row));
+
+        // ACT
+        CSVFileManager restarted = new CSVFileManager(tempDir.toString() + "/");
+        CSVFileManager restartedAgain = new CSVFileManager(tempDir.toString() + "/");
+
+        // ASSERT
+        assertEquals("3", restarted.findRow("users", 1, "peach@example.com")[0]);
+        assertEquals(3, restartedAgain.readAllWithoutHeader("users").size());
+        assertEquals(0, Files.size(tempDir.resolve("csv_journal.log")));
+    }
+
+    @Test
+    @DisplayName("Backslashes should read back the same through full reads, scans and lookups")
+    void testReadAll_BackslashIsNotAnEscape() throws Exception {
+        // ARRANGE
+        String[] row = { "1", "C:\\ordini\\\"nuovi\"", "fine\\" };
+        manager.createFileWithHeader("note", new String[] { "id", "percorso", "coda" });
+        manager.appendLine("note", row);
+        manager.flush();
+
+        // ACT
+        CSVFileManager reopened = new CSVFileManager(tempDir.toString() + "/");
+        List<String[]> decoded = reopened.readAllWithoutHeader("note");
+        List<String[]> scanned = reopened.scan("note", r -> true);
+
+        // ASSERT
+        assertArrayEquals(row, decoded.get(0));
+        assertArrayEquals(row, scanned.get(0));
+        assertArrayEquals(row, reopened.findRow("note", 2, "fine\\"));
+    }
+
+    @Test
+    @DisplayName("Rewrites should replace the file atomically without leaving backup copies")
+    void testWriteAll_ReplacesFileAtomically() throws Exception {
+        // ARRANGE
+        List<String[]> rows = manager.readAll("users");
+        rows.remove(2);
+
+        // ACT
+        manager.writeAll("users", rows);
+
+        // ASSERT
+        assertEquals(2, Files.readAllLines(tempDir.resolve("users.csv")).size());
+        assertFalse(Files.exists(tempDir.resolve("users.csv.bak")));
+        assertFalse(Files.exists(tempDir.resolve("users.csv.tmp")));
+    }
+
+    @Test
+    @DisplayName("Buffered appends should be visible to reads and on disk in order after a flush")
+    void testAppend_WriteBehindKeepsOrder() throws Exception {
+        // ARRANGE
+        Path users = tempDir.resolve("users.csv");
+
+        // ACT
+        manager.appendLine("users", new String[] { "3", "peach@example.com" });
+        manager.appendLines("users", List.of(new String[] { "4", "toad@example.com" },
+                new String[] { "5", "yoshi@example.com" }));
+        String[] peach = manager.findRow("users", 1, "peach@example.com");
+        manager.appendLine("users", new String[] { "6", "daisy@example.com" });
+        manager.flush("users");
+
+        // ASSERT
+        assertEquals("3", peach[0]);
+        List<String> lines = Files.readAllLines(users);
+        assertEquals(7, lines.size());
+        assertEquals("\"6\",\"daisy@example.com\"", lines.get(6));
+    }
+
+    @Test
+    @DisplayName("Mapped scans should return the selected columns of live rows only")
+    void testScan_SelectsRowsAndColumnsOfLiveRows() throws Exception {
+        // ARRANGE
+        CSVFileManager logManager = new CSVFileManager(tempDir.toString() + "/", Long.MAX_VALUE, 0);
+        logManager.registerLogTable("ordini", 0, true);
+        logManager.createFileWithHeader("ordini", new String[] { "numero_ordine", "cliente", "stato" });
+        logManager.appendLines("ordini", List.of(new String[] { "1", "mario", "IN_CREAZIONE" },
+                new String[] { "2", "luigi", "IN_CREAZIONE" },
+                new String[] { "3", "mario, \"il grande\"", "IN_CREAZIONE" }));
+        logManager.upsertRows("ordini", List.<String[]>of(new String[] { "1", "mario", "CONSEGNATO" }));
+        logManager.deleteRows("ordini", "2");
+
+        // ACT
+        List<String[]> inCreazione = logManager.scan("ordini", row -> row.fieldEquals(2, "IN_CREAZIONE"), 1, 0);
+        List<String[]> tutti = logManager.scan("ordini", row -> row.fieldAsLong(0) > 0);
+
+        // ASSERT
+        assertEquals(1, inCreazione.size());
+        assertArrayEquals(new String[] { "mario, \"il grande\"", "3" }, inCreazione.get(0));
+        assertEquals(2, tutti.size());
+        assertEquals("CONSEGNATO", tutti.get(0)[2]);
+    }
+
+    @Test
+    @DisplayName("Key lookups on uncached files should go through the persistent sidecar index")
+    void testFindRows_UsesSidecarIndex() throws Exception {
+        // ARRANGE
+        CSVFileManager logManager = new CSVFileManager(tempDir.toString() + "/", Long.MAX_VALUE, 0);
+        logManager.registerLogTable("ordine_prodotti", 0, false);
+        logManager.registerKeyIndex("ordine_prodotti", 0);
+        logManager.createFileWithHeader("ordine_prodotti", new String[] { "ordine_id", "food_id" });
+        logManager.appendLines("ordine_prodotti", List.of(new String[] { "1", "10" }, new String[] { "2", "10" },
+                new String[] { "1", "11" }));
+        logManager.deleteRows("ordine_prodotti", "2");
+        logManager.appendLine("ordine_prodotti", new String[] { "2", "12" });
+        logManager.flush();
+
+        // ACT
+        CSVFileManager reopened = new CSVFileManager(tempDir.toString() + "/", Long.MAX_VALUE, 0);
+        reopened.registerLogTable("ordine_prodotti", 0, false);
+        reopened.registerKeyIndex("ordine_prodotti", 0);
+        List<String[]> ordine1 = reopened.findRows("ordine_prodotti", 0, "1");
+        List<String[]> ordine2 = reopened.findRows("ordine_prodotti", 0, "2");
+
+        // ASSERT
+        assertTrue(Files.exists(tempDir.resolve("ordine_prodotti.csv.idx")));
+        assertEquals(2, ordine1.size());
+        assertEquals("11", ordine1.get(1)[1]);
+        assertEquals(1, ordine2.size());
+        assertEquals("12", ordine2.get(0)[1]);
+        assertTrue(reopened.findRows("ordine_prodotti", 0, "3").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Columnar tables should parse typed columns once and filter on them")
+    void testColumnar_DecodesTypedColumns() throws Exception {
+        // ARRANGE
+        TableSchema schema = TableSchema.of(TableSchema.ColumnType.LONG, TableSchema.ColumnType.SYMBOL,
+                TableSchema.ColumnType.DATE_TIME, TableSchema.ColumnType.DOUBLE);
+        manager.createFileWithHeader("ordini", new String[] { "numero_ordine", "stato", "data", "totale" });
+        manager.appendLines("ordini", List.of(new String[] { "1", "IN_CREAZIONE", "2024-05-01T12:30:00", "9.5" },
+                new String[] { "2", "CONSEGNATO", "", "12" },
+                new String[] { "3", "IN_CREAZIONE", "2024-05-02T08:00:00.250", "abc" }));
+
+        // ACT
+        ColumnarTable ordini = manager.columnar("ordini", schema);
+
+        // ASSERT
+        assertEquals(3, ordini.size());
+        assertSame(ordini, manager.columnar("ordini", schema));
+        assertEquals(1, ordini.findRow(0, 2));
+        assertEquals(-1, ordini.findRow(0, 4));
+        assertArrayEquals(new int[] { 0, 2 }, ordini.findRows(1, "in_creazione"));
+        // Second lookup served by the column index, on a copy the caller may change
+        ordini.findRows(1, "IN_CREAZIONE")[0] = 99;
+        assertArrayEquals(new int[] { 0, 2 }, ordini.findRows(1, "IN_CREAZIONE"));
+        assertArrayEquals(new int[] { 2 }, ordini.findRows(0, 3L));
+        assertEquals(9.5, ordini.getDouble(3, 0));
+        assertTrue(ordini.isNull(2, 1));
+        assertTrue(ordini.isNull(3, 2));
+        assertEquals(250_000_000, ordini.getDateTime(2, 2).getNano());
+
+        manager.appendLine("ordini", new String[] { "4", "IN_CREAZIONE", "", "1" });
+        assertEquals(4, manager.columnar("ordini", schema).size());
+    }
+
+    @Test
+    @DisplayName("Parallel scans should split rows correctly and keep file order and log resolution")
+    void testScan_ParallelChunksMatchSequentialScan() throws Exception {
+        // ARRANGE
+        CSVFileManager logManager = new CSVFileManager(tempDir.toString() + "/", Long.MAX_VALUE, 0);
+        logManager.registerLogTable("ordini", 0, true);
+        logManager.createFileWithHeader("ordini", new String[] { "numero_ordine", "note", "stato" });
+        List<String[]> rows = new java.util.ArrayList<>();
+        for (int i = 1; i <= 2000; i++) {
+            // Line breaks and quotes inside fields must not be taken for row boundaries
+            rows.add(new String[] { String.valueOf(i), i % 7 == 0 ? "riga\n\"spezzata\"" : "nota " + i,
+                    i % 3 == 0 ? "CONSEGNATO" : "IN_CREAZIONE" });
+        }
+        logManager.appendLines("ordini", rows);
+        logManager.upsertRows("ordini", List.<String[]>of(new String[] { "3", "nota 3", "IN_CREAZIONE" }));
+        logManager.deleteRows("ordini", "4");
+        List<String[]> sequential = logManager.scan("ordini", row -> row.fieldEquals(2, "IN_CREAZIONE"));
+        CSVFileManager parallelManager = new CSVFileManager(tempDir.toString() + "/", Long.MAX_VALUE, 0, 0);
+        parallelManager.registerLogTable("ordini", 0, true);
+
+        // ACT
+        List<String[]> parallel = parallelManager.scan("ordini", row -> row.fieldEquals(2, "IN_CREAZIONE"));
+
+        // ASSERT
+        assertEquals(1334, sequential.size());
+        assertEquals(sequential.size(), parallel.size());
+        for (int i = 0; i < sequential.size(); i++) {
+            assertArrayEquals(sequential.get(i), parallel.get(i));
+        }
+        assertArrayEquals(new String[] { "7", "riga\n\"spezzata\"", "IN_CREAZIONE" }, parallel.get(3));
+        assertEquals("3", parallel.get(parallel.size() - 1)[0]);
+    }
+}
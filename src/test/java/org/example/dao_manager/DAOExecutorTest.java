@@ -0,0 +1,33 @@
+package org.example.dao_manager;
+
+import org.junit.jupiter.api.*;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for DAOExecutor.
+ * Tests how task failures reach the returned future.
+ */
+@DisplayName("DAOExecutor Unit Test")
+class DAOExecutorTest {
+
+    @Test
+    @DisplayName("A task throwing an Error should still complete its future")
+    void testSubmit_ErrorCompletesFutureExceptionally() {
+        // ARRANGE
+        DAOExecutor executor = DAOExecutor.getInstance();
+
+        // ACT
+        CompletableFuture<Object> future = executor.submit(() -> {
+            throw new AssertionError("task failed");
+        });
+
+        // ASSERT
+        ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(AssertionError.class, DAOExecutor.unwrap(e));
+    }
+}
@@ -0,0 +1,56 @@
+package org.example.dao_manager;
+
+import org.junit.jupiter.api.*;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for QueryMetrics.
+ * Tests the per table and operation aggregation of query samples.
+ */
+@DisplayName("QueryMetrics Unit Test")
+class QueryMetricsTest {
+
+    @Test
+    @DisplayName("Samples should be aggregated by table and operation")
+    void testRecord_AggregatesByTableAndOperation() {
+        // ARRANGE
+        QueryMetrics metrics = new QueryMetrics(100);
+
+        // ACT
+        metrics.record("ORDINE", "select", "select * from ORDINE", TimeUnit.MILLISECONDS.toNanos(2), 1, false);
+        metrics.record("ORDINE", "select", "select * from ORDINE", TimeUnit.MILLISECONDS.toNanos(30), 0, true);
+        metrics.record("ORDINE", "update", "update ORDINE", TimeUnit.MILLISECONDS.toNanos(3), 4, false);
+
+        // ASSERT
+        QueryStats select = metrics.getStats("ORDINE", "select");
+        assertEquals(2, select.getCount());
+        assertEquals(1, select.getErrors());
+        assertEquals(1, select.getRows());
+        assertEquals(30, select.getMaxMillis());
+        assertEquals(2, metrics.getStats().size());
+        assertNull(metrics.getStats("VOUCHER", "select"));
+    }
+
+    @Test
+    @DisplayName("Latencies should fall in the right histogram bucket and count as slow past the threshold")
+    void testRecord_HistogramAndSlowQueries() {
+        // ARRANGE
+        QueryMetrics metrics = new QueryMetrics(100);
+
+        // ACT
+        metrics.record("FOOD", "select", "select * from FOOD", TimeUnit.MICROSECONDS.toNanos(500), 1, false);
+        metrics.record("FOOD", "select", "select * from FOOD", TimeUnit.MILLISECONDS.toNanos(150), 1, false);
+        metrics.record("FOOD", "select", "select * from FOOD", TimeUnit.SECONDS.toNanos(2), 1, false);
+
+        // ASSERT
+        QueryStats stats = metrics.getStats("FOOD", "select");
+        long[] histogram = stats.getHistogram();
+        assertEquals(1, histogram[0]);
+        assertEquals(1, histogram[6]);
+        assertEquals(1, histogram[histogram.length - 1]);
+        assertEquals(2, stats.getSlow());
+    }
+}
@@ -0,0 +1,36 @@
+package org.example.instances_management_abstracts;
+
+import org.example.enums.EvictionPolicyEnum;
+import org.junit.jupiter.api.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for CacheRegistry.
+ * Tests how caches with the same name are registered.
+ */
+@DisplayName("CacheRegistry Unit Test")
+class CacheRegistryTest {
+
+    private EntityCache<Object> newCache() {
+        return new EntityCache<>(EvictionPolicyEnum.LRU, 10, Long.MAX_VALUE, entity -> 1, null, System::nanoTime);
+    }
+
+    @Test
+    @DisplayName("Registering a name twice should keep the first cache")
+    void testRegister_DuplicateNameKeepsFirstCache() {
+        // ARRANGE
+        CacheRegistry registry = new CacheRegistry();
+        EntityCache<Object> first = newCache();
+        EntityCache<Object> second = newCache();
+        first.recordLoad(System.nanoTime(), true);
+        registry.register("ordini", first);
+
+        // ACT
+        registry.register("ordini", second);
+
+        // ASSERT
+        assertEquals(1, registry.getStats("ordini").getLoads());
+        assertEquals(1, registry.getStats().size());
+    }
+}
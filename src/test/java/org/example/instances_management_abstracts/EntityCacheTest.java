@@ -0,0 +1,173 @@
+package org.example.instances_management_abstracts;
+
+import org.example.enums.EvictionPolicyEnum;
+import org.junit.jupiter.api.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for EntityCache.
+ * Tests eviction, admission, expiry, removal notifications and usage counters.
+ */
+@DisplayName("EntityCache Unit Test")
+class EntityCacheTest {
+
+    private static final class Item {
+        private final long id;
+        private final int weight;
+
+        private Item(long id, int weight) {
+            this.id = id;
+            this.weight = weight;
+        }
+    }
+
+    private final AtomicLong now = new AtomicLong();
+
+    private EntityCache<Item> newCache(EvictionPolicyEnum policy, long maximumSize, long maximumWeight,
+            Duration timeToLive) {
+        return new EntityCache<>(policy, maximumSize, maximumWeight, item -> item.weight, timeToLive, now::get);
+    }
+
+    @Test
+    @DisplayName("LRU should evict the least recently used entity when full")
+    void testPut_LruEvictsLeastRecentlyUsed() {
+        // ARRANGE
+        EntityCache<Item> cache = newCache(EvictionPolicyEnum.LRU, 2, Long.MAX_VALUE, null);
+        EntityCache.Key<Item, Long> idKey = cache.addKey(item -> item.id);
+        cache.putIfAbsent(new Item(1, 1));
+        cache.putIfAbsent(new Item(2, 1));
+
+        // ACT
+        cache.get(idKey, 1L);
+        cache.putIfAbsent(new Item(3, 1));
+
+        // ASSERT
+        assertNotNull(cache.get(idKey, 1L));
+        assertNull(cache.get(idKey, 2L));
+        assertNotNull(cache.get(idKey, 3L));
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    @DisplayName("The total weight should stay within the maximum weight")
+    void testPut_EvictsByWeight() {
+        // ARRANGE
+        EntityCache<Item> cache = newCache(EvictionPolicyEnum.LRU, 100, 10, null);
+        EntityCache.Key<Item, Long> idKey = cache.addKey(item -> item.id);
+
+        // ACT
+        cache.put(new Item(1, 4));
+        cache.put(new Item(2, 4));
+        cache.put(new Item(3, 4));
+
+        // ASSERT
+        assertNull(cache.get(idKey, 1L));
+        assertEquals(8, cache.weight());
+    }
+
+    @Test
+    @DisplayName("TinyLFU should not admit a loaded entity requested less often than the one it would evict")
+    void testPutIfAbsent_TinyLfuRejectsColdEntity() {
+        // ARRANGE
+        EntityCache<Item> cache = newCache(EvictionPolicyEnum.TINY_LFU, 2, Long.MAX_VALUE, null);
+        EntityCache.Key<Item, Long> idKey = cache.addKey(item -> item.id);
+        cache.putIfAbsent(new Item(1, 1));
+        cache.putIfAbsent(new Item(2, 1));
+        for (int i = 0; i < 5; i++) {
+            cache.get(idKey, 1L);
+            cache.get(idKey, 2L);
+        }
+
+        // ACT
+        Item cold = new Item(3, 1);
+        Item returned = cache.putIfAbsent(cold);
+        for (int i = 0; i < 10; i++) {
+            cache.get(idKey, 4L);
+        }
+        cache.putIfAbsent(new Item(4, 1));
+
+        // ASSERT
+        assertSame(cold, returned);
+        assertNull(cache.get(idKey, 3L));
+        assertNotNull(cache.get(idKey, 4L));
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    @DisplayName("Entities should expire after the time to live")
+    void testGet_ExpiresAfterTimeToLive() {
+        // ARRANGE
+        EntityCache<Item> cache = newCache(EvictionPolicyEnum.LRU, 100, Long.MAX_VALUE, Duration.ofSeconds(10));
+        EntityCache.Key<Item, Long> idKey = cache.addKey(item -> item.id);
+        cache.put(new Item(1, 1));
+
+        // ACT
+        now.addAndGet(Duration.ofSeconds(9).toNanos());
+        Item beforeExpiry = cache.get(idKey, 1L);
+        now.addAndGet(Duration.ofSeconds(1).toNanos());
+        Item afterExpiry = cache.get(idKey, 1L);
+
+        // ASSERT
+        assertNotNull(beforeExpiry);
+        assertNull(afterExpiry);
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    @DisplayName("Removal listeners should be told why each entity left the cache")
+    void testRemovalListener_ReceivesCauses() {
+        // ARRANGE
+        EntityCache<Item> cache = newCache(EvictionPolicyEnum.LRU, 2, Long.MAX_VALUE, Duration.ofSeconds(10));
+        EntityCache.Key<Item, Long> idKey = cache.addKey(item -> item.id);
+        List<EntityCache.RemovalCause> causes = new ArrayList<>();
+        cache.addRemovalListener((item, cause) -> causes.add(cause));
+        cache.put(new Item(1, 1));
+
+        // ACT
+        cache.put(new Item(1, 1));
+        cache.put(new Item(2, 1));
+        cache.put(new Item(3, 1));
+        cache.invalidate(idKey, 2L);
+        now.addAndGet(Duration.ofSeconds(10).toNanos());
+        cache.get(idKey, 3L);
+
+        // ASSERT
+        assertEquals(List.of(EntityCache.RemovalCause.REPLACED, EntityCache.RemovalCause.EVICTED,
+                EntityCache.RemovalCause.EXPLICIT, EntityCache.RemovalCause.EXPIRED), causes);
+    }
+
+    @Test
+    @DisplayName("Stats should count hits, misses, loads and evictions")
+    void testStats_CountsUsage() {
+        // ARRANGE
+        EntityCache<Item> cache = newCache(EvictionPolicyEnum.LRU, 1, Long.MAX_VALUE, null);
+        EntityCache.Key<Item, Long> idKey = cache.addKey(item -> item.id);
+
+        // ACT
+        cache.get(idKey, 1L);
+        cache.recordLoad(System.nanoTime(), true);
+        cache.putIfAbsent(new Item(1, 3));
+        cache.get(idKey, 1L);
+        cache.get(idKey, 2L);
+        cache.recordLoad(System.nanoTime(), false);
+        cache.put(new Item(2, 1));
+
+        // ASSERT
+        CacheStats stats = cache.stats("items");
+        assertEquals("items", stats.getName());
+        assertEquals(1, stats.getHits());
+        assertEquals(2, stats.getMisses());
+        assertEquals(1, stats.getLoads());
+        assertEquals(1, stats.getLoadFailures());
+        assertEquals(1, stats.getEvictions());
+        assertEquals(1, stats.getSize());
+        assertEquals(1, stats.getWeight());
+        assertEquals(1.0 / 3, stats.getHitRate(), 1e-9);
+    }
+}
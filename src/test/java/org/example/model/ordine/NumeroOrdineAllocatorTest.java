@@ -0,0 +1,71 @@
+package org.example.model.ordine;
+
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for NumeroOrdineAllocator.
+ * Tests the hi-lo allocation of order numbers.
+ */
+@DisplayName("NumeroOrdineAllocator Unit Test")
+class NumeroOrdineAllocatorTest {
+
+    @Test
+    @DisplayName("Allocator should reserve a new block only when the current one is exhausted")
+    void testNext_ReservesBlocksLazily() throws Exception {
+        // ARRANGE
+        AtomicLong sequence = new AtomicLong(100);
+        AtomicInteger reservations = new AtomicInteger();
+        NumeroOrdineAllocator allocator = new NumeroOrdineAllocator(size -> {
+            reservations.incrementAndGet();
+            return sequence.getAndAdd(size);
+        }, 5);
+
+        // ACT
+        List<Long> numeri = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            numeri.add(allocator.next());
+        }
+
+        // ASSERT
+        assertEquals(100L, numeri.get(0));
+        assertEquals(111L, numeri.get(11));
+        assertEquals(3, reservations.get());
+    }
+
+    @Test
+    @DisplayName("Concurrent callers should never receive the same order number")
+    void testNext_NoDuplicatesAcrossThreads() throws Exception {
+        // ARRANGE
+        AtomicLong sequence = new AtomicLong(1);
+        NumeroOrdineAllocator allocator = new NumeroOrdineAllocator(size -> sequence.getAndAdd(size), 7);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        Set<Long> numeri = ConcurrentHashMap.newKeySet();
+
+        // ACT
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 500; i++) {
+                    numeri.add(allocator.next());
+                }
+                return null;
+            }));
+        }
+        for (Future<?> f : futures) {
+            f.get(10, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // ASSERT
+        assertEquals(4000, numeri.size());
+    }
+}
@@ -0,0 +1,142 @@
+package org.example.model.ordine;
+
+import org.example.enums.StatoOrdine;
+import org.example.exceptions.ObjectNotFoundException;
+import org.example.model.ordine.DAO.OrdineDAOInterface;
+import org.junit.jupiter.api.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for OrdineLazyFactory.
+ * Tests that cached orders follow the updates made through the factory.
+ */
+@DisplayName("OrdineLazyFactory Unit Test")
+class OrdineLazyFactoryTest {
+
+    /**
+     * Stores only the state of each order and builds a new Ordine on every
+     * read, like a real persistence layer.
+     */
+    private static final class StatiDAO implements OrdineDAOInterface {
+        private final Map<Long, StatoOrdine> stati = new ConcurrentHashMap<>();
+        private final List<List<Long>> aggiornamenti = new ArrayList<>();
+
+        @Override
+        public void insert(Ordine ordine) {
+            stati.put(ordine.getNumeroOrdine(), ordine.getStato());
+        }
+
+        @Override
+        public void delete(Ordine ordine) {
+            stati.remove(ordine.getNumeroOrdine());
+        }
+
+        @Override
+        public void update(Ordine ordine) {
+            stati.replace(ordine.getNumeroOrdine(), ordine.getStato());
+        }
+
+        @Override
+        public Ordine getOrdineByNumero(Long numeroOrdine) throws ObjectNotFoundException {
+            StatoOrdine stato = stati.get(numeroOrdine);
+            if (stato == null)
+                throw new ObjectNotFoundException("Ordine non trovato");
+            return new Ordine(numeroOrdine, "CLI001", LocalDateTime.now(), null, stato);
+        }
+
+        @Override
+        public List<Ordine> getOrdiniByCliente(String clienteId) {
+            return List.of();
+        }
+
+        @Override
+        public List<Ordine> getOrdiniByStato(StatoOrdine stato) {
+            return List.of();
+        }
+
+        @Override
+        public List<Long> aggiornaStato(List<Long> numeriOrdine, StatoOrdine nuovoStato) {
+            aggiornamenti.add(numeriOrdine);
+            List<Long> mancanti = new ArrayList<>();
+            for (Long numeroOrdine : numeriOrdine) {
+                if (stati.replace(numeroOrdine, nuovoStato) == null)
+                    mancanti.add(numeroOrdine);
+            }
+            return mancanti;
+        }
+
+        @Override
+        public List<Ordine> getOrdiniRecenti(int limite) {
+            return List.of();
+        }
+
+        @Override
+        public Long getNextNumeroOrdine() {
+            return 1L;
+        }
+
+        @Override
+        public Long riservaNumeriOrdine(int quantita) {
+            return 1L;
+        }
+    }
+
+    @Test
+    @DisplayName("Reading an order after a bulk state update should return the new state")
+    void testAggiornaStato_InvalidatesCachedOrders() throws Exception {
+        // ARRANGE
+        StatiDAO dao = new StatiDAO();
+        dao.stati.put(1L, StatoOrdine.IN_PREPARAZIONE);
+        dao.stati.put(2L, StatoOrdine.IN_PREPARAZIONE);
+        OrdineLazyFactory factory = new OrdineLazyFactory(() -> dao);
+        factory.getOrdineByNumero(1L);
+        factory.getOrdineByNumero(2L);
+
+        // ACT
+        factory.aggiornaStato(List.of(1L, 2L), StatoOrdine.IN_CONSEGNA);
+
+        // ASSERT
+        assertEquals(StatoOrdine.IN_CONSEGNA, factory.getOrdineByNumero(1L).getStato());
+        assertEquals(StatoOrdine.IN_CONSEGNA, factory.getOrdineByNumero(2L).getStato());
+    }
+
+    @Test
+    @DisplayName("A bulk state update should name the missing orders even when another one is repeated")
+    void testAggiornaStato_ReportsMissingOrdersWithDuplicates() throws Exception {
+        // ARRANGE
+        StatiDAO dao = new StatiDAO();
+        dao.stati.put(1L, StatoOrdine.IN_PREPARAZIONE);
+        OrdineLazyFactory factory = new OrdineLazyFactory(() -> dao);
+
+        // ACT
+        List<Long> mancanti = factory.aggiornaStato(List.of(1L, 1L, 99L), StatoOrdine.IN_CONSEGNA);
+
+        // ASSERT
+        assertEquals(List.of(99L), mancanti);
+        assertEquals(List.of(List.of(1L, 99L)), dao.aggiornamenti);
+        assertEquals(StatoOrdine.IN_CONSEGNA, dao.stati.get(1L));
+        assertFalse(dao.stati.containsKey(99L));
+    }
+
+    @Test
+    @DisplayName("Loading a list of orders should be counted in the cache statistics")
+    void testGetOrdiniRecenti_RecordsLoad() throws Exception {
+        // ARRANGE
+        OrdineLazyFactory factory = new OrdineLazyFactory(StatiDAO::new);
+
+        // ACT
+        factory.getOrdiniRecenti(10);
+        factory.getOrdiniByStato(StatoOrdine.IN_PREPARAZIONE);
+
+        // ASSERT
+        assertEquals(2, factory.getCacheStats().getLoads());
+        assertEquals(0, factory.getCacheStats().getLoadFailures());
+    }
+}
@@ -0,0 +1,149 @@
+package org.example.model.voucher;
+
+import org.example.exceptions.ObjectNotFoundException;
+import org.example.model.voucher.DAO.VoucherDAOInterface;
+import org.junit.jupiter.api.*;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for VoucherLazyFactory.
+ * Tests the cache of the voucher codes that were not found.
+ */
+@DisplayName("VoucherLazyFactory Unit Test")
+class VoucherLazyFactoryTest {
+
+    /**
+     * Keeps the vouchers by code and runs an optional action while a lookup is
+     * in flight, after it has already missed.
+     */
+    private static final class CodiciDAO implements VoucherDAOInterface {
+        private final Map<String, Voucher> voucher = new ConcurrentHashMap<>();
+        private final AtomicInteger ricerche = new AtomicInteger();
+        private volatile Runnable duranteLaRicerca;
+
+        @Override
+        public void insert(Voucher v) {
+            voucher.put(v.getCodice().toUpperCase(Locale.ROOT), v);
+        }
+
+        @Override
+        public void delete(Voucher v) {
+            voucher.remove(v.getCodice().toUpperCase(Locale.ROOT));
+        }
+
+        @Override
+        public void update(Voucher v) {
+            insert(v);
+        }
+
+        @Override
+        public Voucher getVoucherById(Long id) throws ObjectNotFoundException {
+            throw new ObjectNotFoundException("Voucher non trovato");
+        }
+
+        @Override
+        public Voucher getVoucherByCodice(String codice) throws ObjectNotFoundException {
+            ricerche.incrementAndGet();
+            Voucher trovato = voucher.get(codice.toUpperCase(Locale.ROOT));
+            Runnable azione = duranteLaRicerca;
+            if (azione != null) {
+                azione.run();
+            }
+            if (trovato == null)
+                throw new ObjectNotFoundException("Voucher non trovato");
+            return trovato;
+        }
+
+        @Override
+        public List<Voucher> getAllVoucherAttivi() {
+            return List.copyOf(voucher.values());
+        }
+    }
+
+    @Test
+    @DisplayName("A missing code should be answered from the cache until a voucher with that code is inserted")
+    void testGetVoucherByCodice_MissingCodeCachedUntilInserted() throws Exception {
+        // ARRANGE
+        CodiciDAO dao = new CodiciDAO();
+        VoucherLazyFactory factory = new VoucherLazyFactory(() -> dao);
+        assertThrows(ObjectNotFoundException.class, () -> factory.getVoucherByCodice("sconto10"));
+
+        // ACT
+        assertThrows(ObjectNotFoundException.class, () -> factory.getVoucherByCodice("SCONTO10"));
+        int ricercheAlDAO = dao.ricerche.get();
+        factory.newVoucher(new VoucherFisso("Sconto10", 10, 0));
+
+        // ASSERT
+        assertEquals(1, ricercheAlDAO);
+        assertFalse(factory.isCodiceInesistente("SCONTO10"));
+    }
+
+    @Test
+    @DisplayName("A code inserted while a lookup for it is missing should not be cached as missing")
+    void testGetVoucherByCodice_InsertDuringLookupNotCached() {
+        // ARRANGE
+        CodiciDAO dao = new CodiciDAO();
+        VoucherLazyFactory factory = new VoucherLazyFactory(() -> dao);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        dao.duranteLaRicerca = () -> {
+            dao.duranteLaRicerca = null;
+            try {
+                executor.submit(() -> factory.newVoucher(new VoucherFisso("NUOVO", 5, 0))).get();
+            } catch (InterruptedException | ExecutionException e) {
+                throw new IllegalStateException(e);
+            }
+        };
+
+        // ACT
+        assertThrows(ObjectNotFoundException.class, () -> factory.getVoucherByCodice("NUOVO"));
+        executor.shutdown();
+
+        // ASSERT
+        assertFalse(factory.isCodiceInesistente("NUOVO"));
+    }
+
+    @Test
+    @DisplayName("Concurrent lookups and inserts of the same code should never leave it cached as missing")
+    void testGetVoucherByCodice_ConcurrentInsertNeverCachedAsMissing() throws Exception {
+        // ARRANGE
+        CodiciDAO dao = new CodiciDAO();
+        VoucherLazyFactory factory = new VoucherLazyFactory(() -> dao);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            for (int i = 0; i < 500; i++) {
+                String codice = "CODICE" + i;
+                CyclicBarrier partenza = new CyclicBarrier(2);
+
+                // ACT
+                Future<?> ricerca = executor.submit(() -> {
+                    partenza.await();
+                    try {
+                        factory.getVoucherByCodice(codice);
+                    } catch (ObjectNotFoundException e) {
+                        // Atteso se la ricerca precede l'inserimento
+                    }
+                    return null;
+                });
+                Future<?> inserimento = executor.submit(() -> {
+                    partenza.await();
+                    return factory.newVoucher(new VoucherFisso(codice, 5, 0));
+                });
+                ricerca.get(5, TimeUnit.SECONDS);
+                inserimento.get(5, TimeUnit.SECONDS);
+
+                // ASSERT
+                assertFalse(factory.isCodiceInesistente(codice), codice);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}